@@ -0,0 +1,102 @@
+package identity.server.backend.config;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of decoding a bearer token with full signature verification versus through {@link CachingJwtDecoder}
+ * once the token was seen. The decoders are built like {@link JwtDecoderConfiguration#jwtDecoder()}, with the
+ * JWK set held in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtDecoderBenchmark {
+
+    private static final String ISSUER = "https://tenant.example.com/";
+    private static final String AUDIENCE = "https://api.example.com";
+
+    /**
+     * Distinct tokens in rotation, i.e. concurrently active users
+     */
+    @Param({"1", "1000"})
+    public int distinctTokens;
+
+    private String[] tokens;
+    private JwtDecoder verifyingDecoder;
+    private JwtDecoder cachingDecoder;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        verifyingDecoder = JwtDecoderConfiguration.buildJwtDecoder(
+                new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK())),
+                JWSAlgorithm.RS256,
+                new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefaultWithIssuer(ISSUER),
+                        new AudienceValidator(AUDIENCE)));
+        cachingDecoder = new CachingJwtDecoder(verifyingDecoder, Duration.ofMinutes(5), 10_000);
+
+        tokens = new String[distinctTokens];
+        for (int i = 0; i < distinctTokens; i++) {
+            SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("key-1").type(JOSEObjectType.JWT).build(),
+                    new JWTClaimsSet.Builder()
+                            .issuer(ISSUER)
+                            .audience(AUDIENCE)
+                            .subject("auth0|" + i)
+                            .issueTime(new Date())
+                            .expirationTime(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                            .build());
+            jwt.sign(new RSASSASigner(key));
+            tokens[i] = jwt.serialize();
+            cachingDecoder.decode(tokens[i]);
+        }
+    }
+
+    @Benchmark
+    public Jwt verify() {
+        return verifyingDecoder.decode(nextToken());
+    }
+
+    @Benchmark
+    public Jwt cached() {
+        return cachingDecoder.decode(nextToken());
+    }
+
+    private String nextToken() {
+        String token = tokens[next];
+        next = (next + 1) % tokens.length;
+        return token;
+    }
+}
@@ -0,0 +1,100 @@
+package identity.server.backend.config;
+
+import identity.server.backend.domain.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request work of the resource server once the token signature is verified: mapping the user's roles to
+ * authorities in {@link CustomJwtAuthenticationConverter} and checking the audience in {@link AudienceValidator}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestSecurityBenchmark {
+
+    private static final String AUDIENCE = "https://api.example.com";
+
+    private AudienceValidator audienceValidator;
+    private Jwt matchingAudience;
+    private Jwt otherAudience;
+
+    @Setup
+    public void setUp() {
+        audienceValidator = new AudienceValidator(AUDIENCE);
+        matchingAudience = jwt(List.of("https://tenant.example.com/userinfo", AUDIENCE));
+        otherAudience = jwt(List.of("https://other.example.com"));
+    }
+
+    @Benchmark
+    public Set<GrantedAuthority> mapRolesToAuthorities(UserRoles userRoles) {
+        return userRoles.converter.mapRolesToAuthorities(userRoles.roles);
+    }
+
+    @Benchmark
+    public OAuth2TokenValidatorResult validateAudience() {
+        return audienceValidator.validate(matchingAudience);
+    }
+
+    @Benchmark
+    public OAuth2TokenValidatorResult rejectAudience() {
+        return audienceValidator.validate(otherAudience);
+    }
+
+    private static Jwt jwt(List<String> audience) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("auth0|1")
+                .audience(audience)
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build();
+    }
+
+    @State(Scope.Benchmark)
+    public static class UserRoles {
+
+        /**
+         * Roles of the authenticated user, one of them soft-deleted
+         */
+        @Param({"1", "10"})
+        public int roleCount;
+
+        private CustomJwtAuthenticationConverter converter;
+        private Set<Role> roles;
+
+        @Setup
+        public void setUp() {
+            // The repositories and cache are not used by the role mapping
+            converter = new CustomJwtAuthenticationConverter(null, null);
+            roles = new HashSet<>();
+            for (int i = 0; i < roleCount; i++) {
+                Role role = Role.builder().id(UUID.randomUUID()).code("ROLE_" + i).build();
+                role.setDelete(i > 0 && i == roleCount - 1);
+                roles.add(role);
+            }
+        }
+    }
+}
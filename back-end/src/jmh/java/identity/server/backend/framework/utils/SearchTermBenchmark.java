@@ -0,0 +1,42 @@
+package identity.server.backend.framework.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search term handling of the user and role listings: escaping for LIKE ({@link SQLUtils#wildcards}) and the
+ * in-memory case-insensitive match ({@link StringUtils#isLike})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchTermBenchmark {
+
+    @Param({"jane", "  50%_off\\promo  "})
+    public String searchTerm;
+
+    private final String candidate = "Jane Doe <jane.doe+50%_off\\promo@example.com>";
+
+    @Benchmark
+    public String wildcards() {
+        return SQLUtils.wildcards(searchTerm);
+    }
+
+    @Benchmark
+    public boolean isLike() {
+        return StringUtils.isLike(searchTerm, candidate);
+    }
+}
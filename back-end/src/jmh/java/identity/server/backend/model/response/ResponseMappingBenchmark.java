@@ -0,0 +1,131 @@
+package identity.server.backend.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import identity.server.backend.domain.Role;
+import identity.server.backend.domain.User;
+import identity.server.backend.framework.handler.model.ResponseData;
+import identity.server.backend.framework.support.ResponseSupport;
+import identity.server.backend.model.response.Role.RoleBaseResponse;
+import identity.server.backend.model.response.Role.RoleResponse;
+import identity.server.backend.model.response.user.UserResponse;
+import identity.server.backend.repository.projection.UserListItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building API responses: entity and projection to DTO mapping, wrapping in {@link ResponseData} through
+ * {@link ResponseSupport}, and writing the body with an ObjectMapper configured like the application's
+ * (spring.jackson.* in application.properties)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final ResponseSupport responseSupport = new ResponseSupport();
+
+    private User user;
+    private UserListItem userListItem;
+    private Set<RoleBaseResponse> roleBaseResponses;
+    private Role role;
+    private ResponseData userPage;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        Set<Role> roles = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            roles.add(Role.builder().id(UUID.randomUUID()).code("ROLE_" + i).description("Role " + i).build());
+        }
+        role = roles.iterator().next();
+        role.setCreatedBy("admin");
+        role.setCreatedDate(Instant.now());
+
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("jane.doe")
+                .email("jane.doe@example.com")
+                .auth0UserId("auth0|5f7c8ec7c33c6c004bbafe82")
+                .name("Jane Doe")
+                .activated(true)
+                .urlAvatar("https://cdn.example.com/avatars/jane.png")
+                .roles(roles)
+                .createdBy("admin")
+                .createdDate(Instant.now())
+                .lastModifiedBy("admin")
+                .lastModifiedDate(Instant.now())
+                .build();
+        userListItem = new UserListItem(user.getId(), user.getUsername(), user.getEmail(), user.getAuth0UserId(),
+                user.getName(), true, user.getUrlAvatar(), "admin", Instant.now(), "admin", Instant.now(), false);
+        roleBaseResponses = new HashSet<>();
+        for (Role each : roles) {
+            roleBaseResponses.add(RoleBaseResponse.builder().id(each.getId()).code(each.getCode()).build());
+        }
+
+        List<UserResponse> users = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            users.add(UserResponse.mapToUserResponse(userListItem, roleBaseResponses));
+        }
+        userPage = ResponseData.builder().data(users).build();
+
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .timeZone(TimeZone.getTimeZone("UTC"))
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+    }
+
+    @Benchmark
+    public UserResponse mapUserEntity() {
+        return UserResponse.mapToUserResponse(user, null);
+    }
+
+    @Benchmark
+    public UserResponse mapUserListItem() {
+        return UserResponse.mapToUserResponse(userListItem, roleBaseResponses);
+    }
+
+    @Benchmark
+    public RoleResponse mapRole() {
+        return RoleResponse.mapToResponse(role);
+    }
+
+    @Benchmark
+    public ResponseEntity<ResponseData> wrapSuccess() {
+        return responseSupport.success(ResponseData.builder().data(roleBaseResponses).build());
+    }
+
+    /**
+     * One page of the user listing, as written by the message converter
+     */
+    @Benchmark
+    public byte[] serializeUserPage() throws Exception {
+        return objectMapper.writeValueAsBytes(responseSupport.success(userPage).getBody());
+    }
+}
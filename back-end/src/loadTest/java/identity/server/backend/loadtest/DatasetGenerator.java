@@ -0,0 +1,394 @@
+package identity.server.backend.loadtest;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Loads a realistic-scale directory into the load-test database (gradle generateDataset), so that search, pagination
+ * and index changes can be measured on more than the Liquibase seed, e.g. by running gradle loadTest afterwards.
+ *
+ * Applies the Liquibase migrations, removes the rows of an earlier run (created_by 'dataset') and loads role, users
+ * and user_role with PostgreSQL COPY in one transaction; the secondary indexes of users and user_role are dropped for
+ * the load and rebuilt before the commit. The same DATASET_SEED produces the same rows.
+ *
+ * Distributions:
+ * - roles: department x function codes (SALES_VIEWER, FINANCE_APPROVER, ...), a few soft-deleted
+ * - membership: every user has USER; extra roles are Zipf-distributed over the generated roles (a handful of roles
+ *   hold most users, the long tail only a few) and rare users have ADMIN
+ * - usernames and emails: common first and last names, Zipf-weighted, in the usual patterns (john.smith42,
+ *   jsmith42, john_smith42, ...); a few mail providers hold most addresses, then a long tail of company domains,
+ *   all under example.com / example.net / example.org
+ * - created dates: over the last DATASET_YEARS, with sign-ups growing towards today
+ *
+ * DATASET_USERS (default 100000; 10k to 10M), DATASET_ROLES (default 300), DATASET_DELETED_PERCENT (default 5),
+ * DATASET_YEARS (default 3), DATASET_SEED (default 1); the database is the one of the load test (LOAD_TEST_DB_URL,
+ * LOAD_TEST_DB_USERNAME, LOAD_TEST_DB_PASSWORD).
+ */
+public final class DatasetGenerator {
+
+    private static final int USERS = intSetting("DATASET_USERS", 100_000);
+    private static final int ROLES = intSetting("DATASET_ROLES", 300);
+    private static final int DELETED_PERCENT = intSetting("DATASET_DELETED_PERCENT", 5);
+    private static final int YEARS = intSetting("DATASET_YEARS", 3);
+    private static final long SEED = intSetting("DATASET_SEED", 1);
+
+    private static final String DB_URL = setting("LOAD_TEST_DB_URL", "jdbc:postgresql://localhost:5432/identity_server_db");
+    private static final String DB_USERNAME = setting("LOAD_TEST_DB_USERNAME", "sa");
+    private static final String DB_PASSWORD = setting("LOAD_TEST_DB_PASSWORD", "123456");
+
+    static final String CREATED_BY = "dataset";
+
+    /**
+     * Zipf exponents: names and domains are strongly skewed, role membership a little less
+     */
+    private static final double NAME_SKEW = 1.0;
+    private static final double DOMAIN_SKEW = 1.3;
+    private static final double ROLE_SKEW = 0.9;
+
+    private static final int COPY_BUFFER_SIZE = 1 << 20;
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "John", "Linda", "Robert", "Patricia", "Michael", "Jennifer", "William", "Elizabeth",
+            "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+            "Daniel", "Nancy", "Matthew", "Lisa", "Anthony", "Betty", "Mark", "Margaret", "Paul", "Sandra",
+            "Steven", "Ashley", "Andrew", "Emily", "Kenneth", "Donna", "Joshua", "Michelle", "Kevin", "Carol",
+            "Minh", "Anh", "Linh", "Huy", "Trang", "Wei", "Mei", "Hiroshi", "Yuki", "Priya",
+            "Arjun", "Fatima", "Omar", "Lucas", "Sofia", "Mateo", "Elena", "Noah", "Olga", "Ivan"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+            "Nguyen", "Tran", "Le", "Pham", "Hoang", "Vo", "Wang", "Li", "Zhang", "Chen",
+            "Tanaka", "Suzuki", "Kim", "Park", "Patel", "Singh", "Khan", "Ali", "Muller", "Schmidt",
+            "Rossi", "Silva", "Santos", "Ivanov", "Kowalski", "Novak", "Dubois", "Jansen", "Larsen", "Cohen"
+    };
+    private static final String[] MAIL_PROVIDERS = {
+            "mail.example.com", "inbox.example.net", "webmail.example.org", "post.example.com", "me.example.net"
+    };
+    private static final String[] COMPANIES = {
+            "acme", "globex", "initech", "umbrella", "hooli", "stark", "wayne", "wonka", "cyberdyne", "tyrell",
+            "soylent", "aperture", "vandelay", "dunder", "pied-piper", "massive", "monarch", "oscorp", "gringotts",
+            "nakatomi", "bluth", "sterling", "prestige", "virtucon", "contoso", "fabrikam", "northwind", "tailspin",
+            "adventure-works", "litware", "proseware", "woodgrove", "fourth-coffee", "alpine", "wingtip", "lamna",
+            "relecloud", "trey", "coho", "margie"
+    };
+    private static final String[] DEPARTMENTS = {
+            "SALES", "MARKETING", "FINANCE", "HR", "ENGINEERING", "SUPPORT", "LEGAL", "OPERATIONS", "PRODUCT",
+            "SECURITY", "DATA", "PROCUREMENT", "FACILITIES", "TRAINING", "COMPLIANCE", "IT", "RESEARCH",
+            "LOGISTICS", "QUALITY", "PARTNERS"
+    };
+    private static final String[] FUNCTIONS = {
+            "VIEWER", "EDITOR", "APPROVER", "MANAGER", "AUDITOR", "ANALYST", "OPERATOR", "REVIEWER", "CONTRIBUTOR",
+            "ADMIN", "REPORTER", "PLANNER", "COORDINATOR", "LEAD", "GUEST"
+    };
+
+    private final String[] domains;
+    private final double[] firstNameWeights = cumulativeZipf(FIRST_NAMES.length, NAME_SKEW);
+    private final double[] lastNameWeights = cumulativeZipf(LAST_NAMES.length, NAME_SKEW);
+    private final double[] domainWeights;
+    private final double[] roleWeights = cumulativeZipf(ROLES, ROLE_SKEW);
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private final Instant start = now.minus(Duration.ofDays(365L * YEARS));
+
+    private DatasetGenerator() {
+        domains = new String[MAIL_PROVIDERS.length + COMPANIES.length];
+        System.arraycopy(MAIL_PROVIDERS, 0, domains, 0, MAIL_PROVIDERS.length);
+        for (int i = 0; i < COMPANIES.length; i++) {
+            domains[MAIL_PROVIDERS.length + i] = COMPANIES[i] + ".example.com";
+        }
+        domainWeights = cumulativeZipf(domains.length, DOMAIN_SKEW);
+    }
+
+    public static void main(String[] args) throws Exception {
+        migrate();
+        try (Connection connection = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD)) {
+            new DatasetGenerator().load(connection);
+        }
+    }
+
+    /**
+     * The schema the application runs on, including the ADMIN and USER roles
+     */
+    private static void migrate() throws Exception {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(new DriverManagerDataSource(DB_URL, DB_USERNAME, DB_PASSWORD));
+        liquibase.setChangeLog("classpath:liquibase/master.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    private void load(Connection connection) throws SQLException {
+        System.out.printf("Generating %d users and %d roles (seed %d, %d%% soft-deleted)%n",
+                USERS, ROLES, SEED, DELETED_PERCENT);
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            long started = System.nanoTime();
+            // user_role rows go with their users and roles (ON DELETE CASCADE)
+            int removed = statement.executeUpdate("DELETE FROM users WHERE created_by = '" + CREATED_BY + "'");
+            statement.executeUpdate("DELETE FROM role WHERE created_by = '" + CREATED_BY + "'");
+            step("Removed " + removed + " users of an earlier run", started);
+
+            List<Index> indexes = secondaryIndexes(statement);
+            for (Index index : indexes) {
+                statement.execute("DROP INDEX " + index.name());
+            }
+            statement.execute("SET LOCAL maintenance_work_mem = '512MB'");
+
+            started = System.nanoTime();
+            copy(connection, "role (id, code, description, created_by, created_date, last_modified_by, "
+                    + "last_modified_date, is_delete)", ROLES, this::writeRole);
+            step("Copied " + ROLES + " roles", started);
+
+            started = System.nanoTime();
+            copy(connection, "users (id, username, email, auth0_user_id, name, activated, url_avatar, created_by, "
+                    + "created_date, last_modified_by, last_modified_date, is_delete)", USERS, this::writeUser);
+            step("Copied " + USERS + " users", started);
+
+            started = System.nanoTime();
+            long memberships = copy(connection, "user_role (user_id, role_id)", USERS, this::writeUserRoles);
+            step("Copied " + memberships + " user roles", started);
+
+            started = System.nanoTime();
+            for (Index index : indexes) {
+                statement.execute(index.definition());
+            }
+            step("Rebuilt " + indexes.size() + " indexes", started);
+            connection.commit();
+
+            connection.setAutoCommit(true);
+            started = System.nanoTime();
+            statement.execute("ANALYZE users, role, user_role");
+            step("Analyzed", started);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * Indexes of users and user_role other than the primary keys and unique constraints, which are cheaper to build
+     * once after the load than to maintain row by row
+     */
+    private static List<Index> secondaryIndexes(Statement statement) throws SQLException {
+        List<Index> indexes = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery("""
+                SELECT indexname, indexdef FROM pg_indexes
+                WHERE schemaname = current_schema() AND tablename IN ('users', 'user_role')
+                  AND indexname NOT IN (SELECT conname FROM pg_constraint)
+                ORDER BY indexname
+                """)) {
+            while (resultSet.next()) {
+                indexes.add(new Index(resultSet.getString(1), resultSet.getString(2)));
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * COPY the rows written by {@code rowWriter} for 0 .. rows - 1 in text format; generated values never contain
+     * tabs, newlines or backslashes, so they are written unescaped
+     */
+    private static long copy(Connection connection, String table, long rows, RowWriter rowWriter) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn("COPY " + table + " FROM STDIN");
+        try {
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 4096);
+            for (int i = 0; i < rows; i++) {
+                rowWriter.write(i, buffer);
+                if (buffer.length() >= COPY_BUFFER_SIZE) {
+                    flush(copyIn, buffer);
+                }
+            }
+            flush(copyIn, buffer);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    static UUID roleId(int role) {
+        return UUID.nameUUIDFromBytes(("dataset-role-" + role).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeRole(int role, StringBuilder row) {
+        SplittableRandom random = random(-1 - role);
+        String department = DEPARTMENTS[role % DEPARTMENTS.length];
+        String function = FUNCTIONS[role / DEPARTMENTS.length % FUNCTIONS.length];
+        int generation = role / (DEPARTMENTS.length * FUNCTIONS.length);
+        String code = department + "_" + function + (generation == 0 ? "" : "_" + (generation + 1));
+        Instant created = start.plusSeconds(random.nextLong(Duration.ofDays(30).toSeconds()));
+        row.append(roleId(role)).append('\t')
+                .append(code).append('\t')
+                .append(capitalize(function)).append(" access to ").append(department.toLowerCase()).append('\t')
+                .append(CREATED_BY).append('\t')
+                .append(created).append('\t')
+                .append(CREATED_BY).append('\t')
+                .append(created).append('\t')
+                .append(random.nextInt(100) < 3).append('\n');
+    }
+
+    private void writeUser(int user, StringBuilder row) {
+        SplittableRandom random = random(user);
+        UUID id = userId(random);
+        String first = FIRST_NAMES[pick(random, firstNameWeights)];
+        String last = LAST_NAMES[pick(random, lastNameWeights)];
+        String username = username(random, first.toLowerCase(), last.toLowerCase(), user);
+        String localPart = random.nextInt(100) < 70 ? username : first.toLowerCase() + "." + last.toLowerCase() + user;
+        String email = localPart + "@" + domains[pick(random, domainWeights)];
+        // Sign-ups grow towards today: the i-th user signs up at sqrt(i / n) of the period
+        double position = Math.sqrt((user + random.nextDouble()) / USERS);
+        long period = Duration.between(start, now).toSeconds();
+        Instant created = start.plusSeconds((long) (position * period));
+        double sinceModified = Math.pow(random.nextDouble(), 3);
+        Instant modified = created.plusSeconds((long) (sinceModified * Duration.between(created, now).toSeconds()));
+
+        row.append(id).append('\t')
+                .append(username).append('\t')
+                .append(email).append('\t')
+                .append("auth0|").append(String.format("%08x%016x", SEED, user)).append('\t');
+        if (random.nextInt(100) < 3) {
+            row.append("\\N");
+        } else {
+            row.append(first).append(' ').append(last);
+        }
+        row.append('\t').append(random.nextInt(100) < 92).append('\t');
+        if (random.nextInt(100) < 35) {
+            row.append("https://avatars.example.com/").append(id).append(".png");
+        } else {
+            row.append("\\N");
+        }
+        row.append('\t').append(CREATED_BY)
+                .append('\t').append(created)
+                .append('\t').append(CREATED_BY)
+                .append('\t').append(modified)
+                .append('\t').append(random.nextInt(100) < DELETED_PERCENT).append('\n');
+    }
+
+    /**
+     * USER for everyone, ADMIN for one in five hundred and a geometric number (mean about one) of the generated
+     * roles, Zipf-distributed
+     */
+    private void writeUserRoles(int user, StringBuilder row) {
+        // Same stream as writeUser, which drew the id first
+        UUID id = userId(random(user));
+        SplittableRandom random = random(-1L - ROLES - user);
+        row.append(id).append('\t').append(LoadTestDataSeeder.USER_ROLE_ID).append('\n');
+        if (random.nextInt(500) == 0) {
+            row.append(id).append('\t').append(LoadTestDataSeeder.ADMIN_ROLE_ID).append('\n');
+        }
+        int[] roles = new int[8];
+        int count = 0;
+        while (count < roles.length && random.nextDouble() < 0.5) {
+            int role = pick(random, roleWeights);
+            if (!contains(roles, count, role)) {
+                roles[count++] = role;
+                row.append(id).append('\t').append(roleId(role)).append('\n');
+            }
+        }
+    }
+
+    private static String username(SplittableRandom random, String first, String last, int user) {
+        int pattern = random.nextInt(100);
+        if (pattern < 40) {
+            return first + "." + last + user;
+        } else if (pattern < 60) {
+            return first.charAt(0) + last + user;
+        } else if (pattern < 75) {
+            return first + last + user;
+        } else if (pattern < 90) {
+            return first + "_" + last + user;
+        }
+        return first + user;
+    }
+
+    private static UUID userId(SplittableRandom random) {
+        // Random (version 4) like the ids the application generates
+        long mostSignificant = random.nextLong() & ~0xF000L | 0x4000L;
+        long leastSignificant = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Independent stream per row, so that user_role can be generated without keeping the users in memory
+     */
+    private static SplittableRandom random(long row) {
+        return new SplittableRandom(SEED * 0x9E3779B97F4A7C15L + row);
+    }
+
+    /**
+     * Cumulative weights of 1 / rank^skew, for {@link #pick}
+     */
+    private static double[] cumulativeZipf(int size, double skew) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1 / Math.pow(rank + 1, skew);
+            cumulative[rank] = sum;
+        }
+        return cumulative;
+    }
+
+    private static int pick(SplittableRandom random, double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String capitalize(String code) {
+        return code.charAt(0) + code.substring(1).toLowerCase();
+    }
+
+    private static void step(String description, long started) {
+        System.out.printf("%s in %d ms%n", description, Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    private static String setting(String name, String defaultValue) {
+        return System.getenv().getOrDefault(name, defaultValue);
+    }
+
+    private static int intSetting(String name, int defaultValue) {
+        return Integer.parseInt(setting(name, String.valueOf(defaultValue)));
+    }
+
+    private record Index(String name, String definition) {
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(int row, StringBuilder buffer);
+    }
+}
@@ -0,0 +1,107 @@
+package identity.server.backend.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Closed-model HTTP load: {@code concurrency} workers each send a request, wait for the response and send the next
+ * one, until the scenario's requests are spent. Every scenario is warmed up first and measured separately.
+ */
+final class HttpLoadDriver {
+
+    /**
+     * One endpoint under load; {@code request} builds the i-th request, e.g. for a different user each time
+     */
+    record Scenario(String name, IntFunction<HttpRequest> request) {
+    }
+
+    record Result(String name, int requests, int errors, double throughput, double p50Millis, double p99Millis,
+                  double p999Millis, double maxMillis) {
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final int concurrency;
+    private final int warmupRequests;
+    private final int requests;
+
+    HttpLoadDriver(int concurrency, int warmupRequests, int requests) {
+        this.concurrency = concurrency;
+        this.warmupRequests = warmupRequests;
+        this.requests = requests;
+    }
+
+    Result run(Scenario scenario) throws Exception {
+        send(scenario, 0, warmupRequests);
+        long started = System.nanoTime();
+        Outcome outcome = send(scenario, warmupRequests, requests);
+        long elapsed = System.nanoTime() - started;
+
+        long[] latencies = outcome.latencies();
+        Arrays.sort(latencies);
+        return new Result(scenario.name(), requests, outcome.errors(), requests / (elapsed / 1e9),
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+    }
+
+    /**
+     * Send requests {@code first} .. {@code first + count - 1} of the scenario
+     */
+    private Outcome send(Scenario scenario, int first, int count) throws Exception {
+        long[] latencies = new long[count];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int worker = 0; worker < concurrency; worker++) {
+                running.add(workers.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                        HttpRequest request = scenario.request().apply(first + i);
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : running) {
+                worker.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return new Outcome(latencies, errors.get());
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private record Outcome(long[] latencies, int errors) {
+    }
+}
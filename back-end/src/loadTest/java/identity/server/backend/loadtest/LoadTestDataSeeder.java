@@ -0,0 +1,112 @@
+package identity.server.backend.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Seeds the users and roles the load scenarios run against, on top of the Liquibase schema and its ADMIN and USER
+ * roles. Ids are derived from the user number, so a rerun against the same database reuses the seeded rows.
+ *
+ * Users load-user-0 .. load-user-(n-1) have the USER role, every fifth one also LOAD_EDITOR and every twentieth is
+ * soft-deleted; load-admin has ADMIN and USER. Users created by earlier runs (load-new-*) are removed.
+ */
+final class LoadTestDataSeeder {
+
+    static final UUID ADMIN_ROLE_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440001");
+    static final UUID USER_ROLE_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440002");
+    static final UUID EDITOR_ROLE_ID = UUID.fromString("4c6f6164-0000-4000-8000-000000000001");
+    static final String ADMIN_AUTH0_USER_ID = "auth0|load-admin";
+    static final String NEW_USER_PREFIX = "load-new-";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_USER = """
+            INSERT INTO users (id, username, email, auth0_user_id, name, activated, created_by, created_date,
+                               last_modified_by, last_modified_date, is_delete)
+            VALUES (?, ?, ?, ?, ?, true, 'load-test', ?, 'load-test', ?, ?)
+            ON CONFLICT (id) DO NOTHING
+            """;
+    private static final String INSERT_USER_ROLE =
+            "INSERT INTO user_role (user_id, role_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    LoadTestDataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    static UUID userId(int user) {
+        return UUID.nameUUIDFromBytes(("load-user-" + user).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String auth0UserId(int user) {
+        return "auth0|load-user-" + user;
+    }
+
+    void seed(int users) {
+        removeCreatedUsers();
+        jdbcTemplate.update("""
+                INSERT INTO role (id, code, description, created_by, created_date, is_delete)
+                VALUES (?, 'LOAD_EDITOR', 'Load test role', 'load-test', now(), false)
+                ON CONFLICT (id) DO NOTHING
+                """, EDITOR_ROLE_ID);
+
+        UUID adminId = UUID.nameUUIDFromBytes("load-admin".getBytes(StandardCharsets.UTF_8));
+        Timestamp adminCreated = Timestamp.from(Instant.now());
+        jdbcTemplate.update(INSERT_USER, adminId, "load-admin", "load-admin@example.com", ADMIN_AUTH0_USER_ID,
+                "Load Admin", adminCreated, adminCreated, false);
+        jdbcTemplate.update(INSERT_USER_ROLE, adminId, ADMIN_ROLE_ID);
+        jdbcTemplate.update(INSERT_USER_ROLE, adminId, USER_ROLE_ID);
+
+        Integer seeded = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users WHERE email LIKE 'load-user-%@example.com'", Integer.class);
+        if (seeded != null && seeded >= users) {
+            System.out.printf("Reusing %d seeded users%n", seeded);
+            return;
+        }
+
+        long started = System.nanoTime();
+        Instant now = Instant.now();
+        List<Object[]> userRows = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> roleRows = new ArrayList<>(BATCH_SIZE * 2);
+        for (int i = 0; i < users; i++) {
+            UUID id = userId(i);
+            // Creation dates spread over the last year, for the date range filters
+            Timestamp createdDate = Timestamp.from(now.minus(Duration.ofMinutes((long) i * 525_600 / users)));
+            userRows.add(new Object[]{id, "load-user-" + i, "load-user-" + i + "@example.com", auth0UserId(i),
+                    "Load User " + i, createdDate, createdDate, i % 20 == 19});
+            roleRows.add(new Object[]{id, USER_ROLE_ID});
+            if (i % 5 == 0) {
+                roleRows.add(new Object[]{id, EDITOR_ROLE_ID});
+            }
+            if (userRows.size() == BATCH_SIZE || i == users - 1) {
+                flush(userRows, roleRows);
+            }
+        }
+        System.out.printf("Seeded %d users in %d ms%n", users, Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    private void flush(List<Object[]> userRows, List<Object[]> roleRows) {
+        jdbcTemplate.batchUpdate(INSERT_USER, userRows);
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE, roleRows);
+        userRows.clear();
+        roleRows.clear();
+    }
+
+    private void removeCreatedUsers() {
+        String createdUsers = "SELECT id FROM users WHERE username LIKE '" + NEW_USER_PREFIX + "%'";
+        jdbcTemplate.update("DELETE FROM auth0_outbox WHERE user_id IN (" + createdUsers + ")");
+        jdbcTemplate.update("DELETE FROM user_role WHERE user_id IN (" + createdUsers + ")");
+        int removed = jdbcTemplate.update("DELETE FROM users WHERE username LIKE '" + NEW_USER_PREFIX + "%'");
+        if (removed > 0) {
+            System.out.printf("Removed %d users created by an earlier run%n", removed);
+        }
+    }
+}
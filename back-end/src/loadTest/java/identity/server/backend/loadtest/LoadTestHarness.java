@@ -0,0 +1,198 @@
+package identity.server.backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import identity.server.backend.BackEndApplication;
+import identity.server.backend.support.auth0.Auth0StubBehavior;
+import identity.server.backend.support.auth0.Auth0StubServer;
+import identity.server.backend.support.auth0.LatencyDistribution;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end load test of the main endpoints (gradle loadTest).
+ *
+ * Boots the application against PostgreSQL (LOAD_TEST_DB_URL, default the docker-compose database), with Liquibase
+ * migrations, seeded users (see {@link LoadTestDataSeeder}) and Auth0 replaced by the local {@link Auth0StubServer}.
+ * gradle generateDataset beforehand adds a realistic-scale directory around them (see {@link DatasetGenerator}).
+ * Bearer tokens are signed with the stub's key and verified against the stub's JWK set (security.jwt.jwk-set-uri).
+ * Prints, and writes as JSON to the file given as first argument, throughput and latency percentiles
+ * per endpoint.
+ *
+ * LOAD_TEST_USERS (default 10000) seeded users, LOAD_TEST_CONCURRENCY (default 16) requests in flight,
+ * LOAD_TEST_WARMUP (default 500) then LOAD_TEST_REQUESTS (default 2000) requests per endpoint,
+ * Auth0 answering after LOAD_TEST_AUTH0_LATENCY_MS (default 50), LOAD_TEST_SCENARIOS (regex) selects endpoints.
+ */
+public final class LoadTestHarness {
+
+    private static final int USERS = intSetting("LOAD_TEST_USERS", 10_000);
+    private static final int CONCURRENCY = intSetting("LOAD_TEST_CONCURRENCY", 16);
+    private static final int WARMUP = intSetting("LOAD_TEST_WARMUP", 500);
+    private static final int REQUESTS = intSetting("LOAD_TEST_REQUESTS", 2_000);
+    private static final Duration AUTH0_LATENCY = Duration.ofMillis(intSetting("LOAD_TEST_AUTH0_LATENCY_MS", 50));
+    private static final Pattern SCENARIOS = Pattern.compile(System.getenv().getOrDefault("LOAD_TEST_SCENARIOS", ".*"));
+
+    /**
+     * Distinct user tokens in rotation; signing is not part of the measurement, verifying is
+     */
+    private static final int TOKENS = 1_000;
+
+    /**
+     * The Okta starter only accepts https issuers; the issuer is never contacted since the JWK set URI is configured
+     */
+    private static final String ISSUER = "https://auth0-stub/";
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path resultFile = Path.of(args.length > 0 ? args[0] : "build/reports/load-test/results.json");
+        try (Auth0StubServer stub = Auth0StubServer.start(
+                Auth0StubBehavior.healthy().withLatency(LatencyDistribution.fixed(AUTH0_LATENCY)));
+             ConfigurableApplicationContext application = new SpringApplicationBuilder(BackEndApplication.class)
+                     .run(arguments(stub))) {
+            new LoadTestDataSeeder(application.getBean(JdbcTemplate.class)).seed(USERS);
+            String baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+
+            HttpLoadDriver driver = new HttpLoadDriver(CONCURRENCY, WARMUP, REQUESTS);
+            List<HttpLoadDriver.Result> results = new ArrayList<>();
+            for (HttpLoadDriver.Scenario scenario : scenarios(baseUrl, stub)) {
+                if (SCENARIOS.matcher(scenario.name()).find()) {
+                    System.out.printf("Running %s%n", scenario.name());
+                    results.add(driver.run(scenario));
+                }
+            }
+            report(results, resultFile);
+        }
+        // Scheduler and HTTP client threads of the application must not keep the JVM alive
+        System.exit(0);
+    }
+
+    private static List<HttpLoadDriver.Scenario> scenarios(String baseUrl, Auth0StubServer stub) {
+        String adminToken = stub.issueAccessToken(ISSUER, LoadTestDataSeeder.ADMIN_AUTH0_USER_ID, Duration.ofHours(2));
+        int tokens = Math.min(TOKENS, USERS);
+        String[] userTokens = new String[tokens];
+        for (int i = 0; i < tokens; i++) {
+            userTokens[i] = stub.issueAccessToken(ISSUER, LoadTestDataSeeder.auth0UserId(activeUser(i)),
+                    Duration.ofHours(2));
+        }
+        String createdFrom = Instant.now().minus(90, ChronoUnit.DAYS).toString();
+        String editorRole = LoadTestDataSeeder.EDITOR_ROLE_ID.toString();
+
+        return List.of(
+                new HttpLoadDriver.Scenario("GET /api/profile",
+                        i -> get(baseUrl + "/api/profile", userTokens[i % tokens])),
+                new HttpLoadDriver.Scenario("GET /api/users",
+                        i -> get(baseUrl + "/api/users?page=" + i % 50, adminToken)),
+                new HttpLoadDriver.Scenario("GET /api/users?search",
+                        i -> get(baseUrl + "/api/users?search=" + encode("load-user-" + i % USERS), adminToken)),
+                new HttpLoadDriver.Scenario("GET /api/users?search&searchMode=FULL_TEXT",
+                        i -> get(baseUrl + "/api/users?searchMode=FULL_TEXT&search=" + encode("load user " + i % USERS),
+                                adminToken)),
+                new HttpLoadDriver.Scenario("GET /api/users?status&roleIds&createdDateFrom",
+                        i -> get(baseUrl + "/api/users?status=false&roleIds=" + editorRole
+                                + "&createdDateFrom=" + encode(createdFrom) + "&page=" + i % 10, adminToken)),
+                new HttpLoadDriver.Scenario("GET /api/users?pagination=KEYSET",
+                        i -> get(baseUrl + "/api/users?pagination=KEYSET&sortBy=CREATED_DATE&orderBy=DESC", adminToken)),
+                new HttpLoadDriver.Scenario("GET /api/roles/active",
+                        i -> get(baseUrl + "/api/roles/active", adminToken)),
+                new HttpLoadDriver.Scenario("POST /api/users",
+                        i -> send(baseUrl + "/api/users", adminToken, "POST", """
+                                {"email":"%1$s%2$d@example.com","username":"%1$s%2$d","password":"LoadTest1!","name":"New %2$d"}
+                                """.formatted(LoadTestDataSeeder.NEW_USER_PREFIX, i))),
+                new HttpLoadDriver.Scenario("PUT /api/users/role/{id}",
+                        i -> send(baseUrl + "/api/users/role/" + LoadTestDataSeeder.userId(activeUser(i)), adminToken,
+                                "PUT", i % 2 == 0
+                                        ? "{\"roleIds\":[\"" + LoadTestDataSeeder.USER_ROLE_ID + "\"]}"
+                                        : "{\"roleIds\":[\"" + LoadTestDataSeeder.USER_ROLE_ID + "\",\"" + editorRole + "\"]}")));
+    }
+
+    private static String[] arguments(Auth0StubServer stub) {
+        Map<String, String> properties = new LinkedHashMap<>(stub.properties());
+        properties.put("spring.profiles.active", "load-test");
+        properties.put("okta.oauth2.issuer", ISSUER);
+        properties.put("security.jwt.jwk-set-uri", stub.domain() + ".well-known/jwks.json");
+        // As arguments: they take precedence over application.properties and the profile file
+        return properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * The i-th seeded user that is not soft-deleted
+     */
+    private static int activeUser(int i) {
+        int user = i % USERS;
+        return user % 20 == 19 ? user - 1 : user;
+    }
+
+    private static HttpRequest get(String uri, String token) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest send(String uri, String token, String method, String body) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static void report(List<HttpLoadDriver.Result> results, Path resultFile) throws Exception {
+        System.out.printf("%n%d users, %d in flight, %d requests per endpoint after %d warm-up, Auth0 latency %d ms%n",
+                USERS, CONCURRENCY, REQUESTS, WARMUP, AUTH0_LATENCY.toMillis());
+        System.out.printf("%-46s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (HttpLoadDriver.Result result : results) {
+            System.out.printf("%-46s %8d %7d %9.0f %9.1f %9.1f %9.1f %9.1f%n",
+                    result.name(), result.requests(), result.errors(), result.throughput(),
+                    result.p50Millis(), result.p99Millis(), result.p999Millis(), result.maxMillis());
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now());
+        report.put("users", USERS);
+        report.put("concurrency", CONCURRENCY);
+        report.put("warmupRequests", WARMUP);
+        report.put("requests", REQUESTS);
+        report.put("auth0LatencyMillis", AUTH0_LATENCY.toMillis());
+        report.put("results", results);
+        Files.createDirectories(resultFile.toAbsolutePath().getParent());
+        new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(resultFile.toFile(), report);
+        System.out.printf("Results written to %s%n", resultFile.toAbsolutePath());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static int intSetting(String name, int defaultValue) {
+        return Integer.parseInt(System.getenv().getOrDefault(name, String.valueOf(defaultValue)));
+    }
+}
@@ -0,0 +1,65 @@
+package identity.server.backend.config;
+
+import identity.server.backend.framework.enums.Auth0EndpointClass;
+import identity.server.backend.framework.enums.Auth0RateLimitPolicy;
+import identity.server.backend.framework.thirdparty.auth0.service.base.Auth0RateLimiter;
+import identity.server.backend.framework.thirdparty.auth0.service.base.Auth0SharedRateLimitBudget;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Token buckets budgeting the Auth0 Management API rate limit, see {@link Auth0RateLimiter}
+ */
+@Configuration
+public class Auth0RateLimitConfiguration {
+
+    @Value("${auth0.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${auth0.rate-limit.policy:QUEUE}")
+    private Auth0RateLimitPolicy policy;
+
+    @Value("${auth0.rate-limit.max-wait:2s}")
+    private Duration maxWait;
+
+    @Value("${auth0.rate-limit.min-rate:1}")
+    private double minRate;
+
+    @Value("${auth0.rate-limit.users-read.capacity:20}")
+    private int usersReadCapacity;
+
+    @Value("${auth0.rate-limit.users-read.rate:10}")
+    private double usersReadRate;
+
+    @Value("${auth0.rate-limit.users-write.capacity:20}")
+    private int usersWriteCapacity;
+
+    @Value("${auth0.rate-limit.users-write.rate:10}")
+    private double usersWriteRate;
+
+    @Value("${auth0.rate-limit.token.capacity:10}")
+    private int tokenCapacity;
+
+    @Value("${auth0.rate-limit.token.rate:5}")
+    private double tokenRate;
+
+    @Value("${auth0.rate-limit.shared.lease-size:5}")
+    private int leaseSize;
+
+    @Bean
+    public Auth0RateLimiter auth0RateLimiter(ObjectProvider<Auth0SharedRateLimitBudget> sharedBudget) {
+        Map<Auth0EndpointClass, Auth0RateLimiter.Limit> limits = new EnumMap<>(Auth0EndpointClass.class);
+        if (enabled) {
+            limits.put(Auth0EndpointClass.USERS_READ, new Auth0RateLimiter.Limit(usersReadCapacity, usersReadRate));
+            limits.put(Auth0EndpointClass.USERS_WRITE, new Auth0RateLimiter.Limit(usersWriteCapacity, usersWriteRate));
+            limits.put(Auth0EndpointClass.TOKEN, new Auth0RateLimiter.Limit(tokenCapacity, tokenRate));
+        }
+        return new Auth0RateLimiter(limits, minRate, policy, maxWait, sharedBudget.getIfAvailable(), leaseSize);
+    }
+}
@@ -0,0 +1,125 @@
+package identity.server.backend.config;
+
+import identity.server.backend.framework.thirdparty.auth0.service.base.Auth0Resilience;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker, bulkhead and retry policies for Auth0 calls, see {@link Auth0Resilience}.
+ *
+ * Resilience4j's own meters (state, call outcomes, available permits, retry counts) are bound to the global
+ * registry next to the connection pool metrics; state transitions and bulkhead rejections are also counted
+ * here so they can be alerted on directly.
+ */
+@Slf4j
+@Configuration
+public class Auth0ResilienceConfiguration {
+
+    @Value("${auth0.resilience.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${auth0.resilience.circuit-breaker.slow-call-rate-threshold:80}")
+    private float slowCallRateThreshold;
+
+    @Value("${auth0.resilience.circuit-breaker.slow-call-duration:5s}")
+    private Duration slowCallDuration;
+
+    @Value("${auth0.resilience.circuit-breaker.sliding-window-size:50}")
+    private int slidingWindowSize;
+
+    @Value("${auth0.resilience.circuit-breaker.minimum-number-of-calls:20}")
+    private int minimumNumberOfCalls;
+
+    @Value("${auth0.resilience.circuit-breaker.wait-in-open-state:30s}")
+    private Duration waitInOpenState;
+
+    @Value("${auth0.resilience.circuit-breaker.permitted-calls-in-half-open-state:5}")
+    private int permittedCallsInHalfOpenState;
+
+    @Value("${auth0.resilience.bulkhead.max-concurrent-calls:40}")
+    private int maxConcurrentCalls;
+
+    @Value("${auth0.resilience.bulkhead.max-wait:0ms}")
+    private Duration bulkheadMaxWait;
+
+    @Value("${auth0.resilience.retry.max-attempts:3}")
+    private int retryMaxAttempts;
+
+    @Value("${auth0.resilience.retry.initial-backoff:200ms}")
+    private Duration retryInitialBackoff;
+
+    @Value("${auth0.resilience.retry.max-wait:10s}")
+    private Duration retryMaxWait;
+
+    @Bean
+    public Auth0Resilience auth0Resilience() {
+        MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                // 4xx other than 429 are caller errors and say nothing about Auth0's health
+                .recordException(Auth0Resilience::isTransient)
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(bulkheadMaxWait)
+                .build());
+        RetryRegistry retryRegistry = RetryRegistry.ofDefaults();
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(Auth0Resilience.NAME);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(Auth0Resilience.NAME);
+        Retry idempotentRetry = retryRegistry.retry(Auth0Resilience.NAME + "-idempotent", Auth0Resilience.retryConfig(
+                retryMaxAttempts, retryInitialBackoff, retryMaxWait, Auth0Resilience::isTransient));
+        Retry rateLimitRetry = retryRegistry.retry(Auth0Resilience.NAME + "-rate-limited", Auth0Resilience.retryConfig(
+                retryMaxAttempts, retryInitialBackoff, retryMaxWait, Auth0Resilience::isRateLimited));
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+        TaggedRetryMetrics.ofRetryRegistry(retryRegistry).bindTo(meterRegistry);
+
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            log.warn("Auth0 circuit breaker transitioned {}", event.getStateTransition());
+            Counter.builder("auth0.resilience.circuitbreaker.transitions")
+                    .tag("from", event.getStateTransition().getFromState().name())
+                    .tag("to", event.getStateTransition().getToState().name())
+                    .register(meterRegistry)
+                    .increment();
+        });
+        Counter notPermitted = Counter.builder("auth0.resilience.rejected")
+                .tag("reason", "circuit_open")
+                .register(meterRegistry);
+        circuitBreaker.getEventPublisher().onCallNotPermitted(event -> notPermitted.increment());
+        Counter bulkheadFull = Counter.builder("auth0.resilience.rejected")
+                .tag("reason", "bulkhead_full")
+                .register(meterRegistry);
+        bulkhead.getEventPublisher().onCallRejected(event -> bulkheadFull.increment());
+
+        return new Auth0Resilience(circuitBreaker, bulkhead, idempotentRetry, rateLimitRetry);
+    }
+}
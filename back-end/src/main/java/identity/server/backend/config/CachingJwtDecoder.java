@@ -0,0 +1,86 @@
+package identity.server.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * {@link JwtDecoder} that remembers tokens the delegate already validated, so a bearer token presented again
+ * skips parsing and signature verification.
+ * Entries are keyed by the SHA-256 of the raw token and live until the token's {@code exp}, capped at max-ttl.
+ * Tokens the delegate rejects are never cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Duration maxTtl;
+    private final Clock clock;
+    private final Cache<String, Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, Duration maxTtl, long maxSize) {
+        this(delegate, maxTtl, maxSize, Clock.systemUTC(), Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, cache, "jwt.decoder.tokens");
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, Duration maxTtl, long maxSize, Clock clock, Ticker ticker) {
+        this.delegate = delegate;
+        this.maxTtl = maxTtl;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .expireAfter(Expiry.creating((String key, Jwt jwt) -> lifetime(jwt)))
+                .maximumSize(maxSize)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        return cache.get(hash(token), key -> delegate.decode(token));
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private Duration lifetime(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return maxTtl;
+        }
+        Duration remaining = Duration.between(clock.instant(), expiresAt);
+        if (remaining.isNegative()) {
+            // Still accepted within the validator's clock skew, but not worth keeping
+            return Duration.ZERO;
+        }
+        return remaining.compareTo(maxTtl) < 0 ? remaining : maxTtl;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
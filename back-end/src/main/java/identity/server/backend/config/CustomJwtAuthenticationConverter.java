@@ -3,6 +3,9 @@ package identity.server.backend.config;
 import identity.server.backend.domain.Role;
 import identity.server.backend.domain.User;
 import identity.server.backend.repository.UserRepository;
+import identity.server.backend.service.authority.UserAuthorityCache;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.convert.converter.Converter;
@@ -24,9 +27,17 @@ import java.util.stream.Collectors;
 public class CustomJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
 
     private final UserRepository userRepository;
+    private final UserAuthorityCache userAuthorityCache;
+    private final Timer conversionTimer = Timer.builder("security.jwt.conversion")
+            .description("JWT to authentication conversion, authority lookup included")
+            .register(Metrics.globalRegistry);
 
     @Override
     public AbstractAuthenticationToken convert(Jwt jwt) {
+        return conversionTimer.record(() -> toAuthentication(jwt));
+    }
+
+    private AbstractAuthenticationToken toAuthentication(Jwt jwt) {
         String auth0UserId = jwt.getSubject();
 
         log.debug("Converting JWT for Auth0 user ID: {}", auth0UserId);
@@ -40,27 +51,32 @@ public class CustomJwtAuthenticationConverter implements Converter<Jwt, Abstract
     }
 
     /**
-     * Extract authorities (roles) from database for the given Auth0 user ID
+     * Extract authorities (roles) for the given Auth0 user ID, served from the authority cache
+     * and loaded from the database on a miss
      *
      * @param auth0UserId Auth0 user ID from JWT sub claim
      * @return Collection of granted authorities
      */
     private Collection<GrantedAuthority> extractAuthorities(String auth0UserId) {
         try {
-            return userRepository.findByAuth0UserIdWithRoles(auth0UserId)
-                    .map(User::getRoles)
-                    .map(this::mapRolesToAuthorities)
-                    .orElseGet(() -> {
-                        log.warn("No user found with Auth0 ID: {}. Granting no authorities.", auth0UserId);
-                        return Collections.emptySet();
-                    });
+            return userAuthorityCache.get(auth0UserId, this::loadAuthorities);
         } catch (Exception e) {
             log.error("Error loading authorities for Auth0 user ID: {}", auth0UserId, e);
             return Collections.emptySet();
         }
     }
 
-    private Set<GrantedAuthority> mapRolesToAuthorities(Set<Role> roles) {
+    private Set<GrantedAuthority> loadAuthorities(String auth0UserId) {
+        return userRepository.findByAuth0UserIdWithRoles(auth0UserId)
+                .map(User::getRoles)
+                .map(this::mapRolesToAuthorities)
+                .orElseGet(() -> {
+                    log.warn("No user found with Auth0 ID: {}. Granting no authorities.", auth0UserId);
+                    return Collections.emptySet();
+                });
+    }
+
+    Set<GrantedAuthority> mapRolesToAuthorities(Set<Role> roles) {
         return roles.stream()
                 .filter(role -> !role.isDelete())
                 .map(role -> new SimpleGrantedAuthority(role.getCode()))
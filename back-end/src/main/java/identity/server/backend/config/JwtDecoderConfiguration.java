@@ -0,0 +1,254 @@
+package identity.server.backend.config;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.DefaultJOSEObjectTypeVerifier;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.events.Event;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Resource-server {@link JwtDecoder} for the Auth0 access tokens.
+ *
+ * Creating the decoder makes no network call. Keys come from, in order of precedence: a local JWKS file
+ * (security.jwt.jwks.location), the configured JWK set URI (security.jwt.jwk-set-uri), or the jwks_uri found by
+ * OIDC discovery of the issuer, which then happens when the first token is decoded. Discovery uses the
+ * connect and read timeouts of the JWKS fetch and is retried at most once per min-refetch-interval.
+ */
+@Slf4j
+@Configuration
+public class JwtDecoderConfiguration {
+
+    @Value("${okta.oauth2.issuer}")
+    private String issuer;
+
+    @Value("${okta.oauth2.audience}")
+    private String audience;
+
+    @Value("${security.jwt.algorithm:RS256}")
+    private String algorithm;
+
+    @Value("${security.jwt.jwk-set-uri:}")
+    private String jwkSetUri;
+
+    @Value("${security.jwt.jwks.location:}")
+    private String jwksLocation;
+
+    @Value("${security.jwt.jwks.connect-timeout:2s}")
+    private Duration jwksConnectTimeout;
+
+    @Value("${security.jwt.jwks.read-timeout:5s}")
+    private Duration jwksReadTimeout;
+
+    @Value("${security.jwt.jwks.ttl:15m}")
+    private Duration jwksTtl;
+
+    @Value("${security.jwt.jwks.refresh-timeout:5s}")
+    private Duration jwksRefreshTimeout;
+
+    @Value("${security.jwt.jwks.refresh-ahead:1m}")
+    private Duration jwksRefreshAhead;
+
+    @Value("${security.jwt.jwks.min-refetch-interval:30s}")
+    private Duration jwksMinRefetchInterval;
+
+    @Value("${security.jwt.jwks.outage-tolerance:4h}")
+    private Duration jwksOutageTolerance;
+
+    @Value("${security.jwt.token-cache.enabled:false}")
+    private boolean tokenCacheEnabled;
+
+    @Value("${security.jwt.token-cache.max-ttl:5m}")
+    private Duration tokenCacheMaxTtl;
+
+    @Value("${security.jwt.token-cache.max-size:10000}")
+    private long tokenCacheMaxSize;
+
+    @Bean
+    public JwtDecoder jwtDecoder() {
+        OAuth2TokenValidator<Jwt> audienceValidator = new AudienceValidator(audience);
+        OAuth2TokenValidator<Jwt> withIssuer = JwtValidators.createDefaultWithIssuer(issuer);
+        OAuth2TokenValidator<Jwt> withAudience = new DelegatingOAuth2TokenValidator<>(withIssuer, audienceValidator);
+
+        NimbusJwtDecoder jwtDecoder = buildJwtDecoder(jwkSource(), JWSAlgorithm.parse(algorithm), withAudience);
+        if (!tokenCacheEnabled) {
+            return jwtDecoder;
+        }
+        log.info("Caching validated JWTs for at most {} (max {} tokens)", tokenCacheMaxTtl, tokenCacheMaxSize);
+        return new CachingJwtDecoder(jwtDecoder, tokenCacheMaxTtl, tokenCacheMaxSize);
+    }
+
+    /**
+     * Decoder verifying signatures with the keys of {@code jwkSource}; claims are checked by {@code validator} only
+     */
+    static NimbusJwtDecoder buildJwtDecoder(JWKSource<SecurityContext> jwkSource, JWSAlgorithm algorithm,
+                                            OAuth2TokenValidator<Jwt> validator) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithm, jwkSource));
+        // Auth0 issues "JWT" access tokens, or "at+jwt" with the RFC 9068 token profile
+        jwtProcessor.setJWSTypeVerifier(new DefaultJOSEObjectTypeVerifier<>(
+                JOSEObjectType.JWT, new JOSEObjectType("at+jwt"), null));
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        jwtDecoder.setJwtValidator(validator);
+        return jwtDecoder;
+    }
+
+    private JWKSource<SecurityContext> jwkSource() {
+        if (StringUtils.hasText(jwksLocation)) {
+            log.info("Verifying JWTs with the JWK set of {}", jwksLocation);
+            return new ImmutableJWKSet<>(loadJwkSet(jwksLocation));
+        }
+        if (StringUtils.hasText(jwkSetUri)) {
+            log.info("Verifying JWTs with the JWK set of {}", jwkSetUri);
+            return remoteJwkSource(toUrl(jwkSetUri));
+        }
+
+        // Discovery waits for the first token, so startup does not depend on the issuer being reachable
+        return new DiscoveredJwkSource(() -> remoteJwkSource(discoverJwkSetUri()), issuer, jwksMinRefetchInterval);
+    }
+
+    /**
+     * JWK set cached for the configured ttl and refreshed in the background before it runs out.
+     * A token signed with an unknown kid refetches the set, at most once per min-refetch-interval,
+     * and the cached keys keep being served while the JWKS endpoint is down.
+     */
+    private JWKSource<SecurityContext> remoteJwkSource(URL jwkSetUrl) {
+        DefaultResourceRetriever retriever = new DefaultResourceRetriever((int) jwksConnectTimeout.toMillis(),
+                (int) jwksReadTimeout.toMillis(), JWKSourceBuilder.DEFAULT_HTTP_SIZE_LIMIT);
+        return JWKSourceBuilder.<SecurityContext>create(jwkSetUrl, retriever)
+                .cache(jwksTtl.toMillis(), jwksRefreshTimeout.toMillis(), this::countJwksEvent)
+                .refreshAheadCache(jwksRefreshAhead.toMillis(), true, this::countJwksEvent)
+                .rateLimited(jwksMinRefetchInterval.toMillis(), this::countJwksEvent)
+                .outageTolerant(jwksOutageTolerance.toMillis(), this::countJwksEvent)
+                .build();
+    }
+
+    private void countJwksEvent(Event<?, SecurityContext> event) {
+        log.debug("JWK set source event: {}", event.getClass().getSimpleName());
+        Metrics.counter("jwt.jwks.events", "event", event.getClass().getSimpleName()).increment();
+    }
+
+    /**
+     * Resolve the jwks_uri of the issuer through OIDC discovery
+     */
+    private URL discoverJwkSetUri() {
+        String configurationUri = StringUtils.trimTrailingCharacter(issuer, '/') + "/.well-known/openid-configuration";
+        log.info("Discovering the JWK set URI from {}", configurationUri);
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(jwksConnectTimeout);
+        requestFactory.setReadTimeout(jwksReadTimeout);
+        Map<?, ?> configuration = RestClient.builder().requestFactory(requestFactory).build().get()
+                .uri(configurationUri)
+                .retrieve()
+                .body(Map.class);
+        if (configuration == null || !issuer.equals(configuration.get("issuer")) || configuration.get("jwks_uri") == null) {
+            throw new IllegalStateException("Invalid OpenID configuration at " + configurationUri);
+        }
+        return toUrl(configuration.get("jwks_uri").toString());
+    }
+
+    /**
+     * JWK source created by OIDC discovery on first use. Discovery runs once at a time; after a failure the
+     * tokens of the next min-refetch-interval fail at once instead of each waiting for the issuer again.
+     */
+    static final class DiscoveredJwkSource implements JWKSource<SecurityContext> {
+
+        private final Supplier<JWKSource<SecurityContext>> discovery;
+        private final String issuer;
+        private final Duration minRetryInterval;
+        private volatile JWKSource<SecurityContext> source;
+        private Instant lastFailure;
+        private RuntimeException lastError;
+
+        DiscoveredJwkSource(Supplier<JWKSource<SecurityContext>> discovery, String issuer, Duration minRetryInterval) {
+            this.discovery = discovery;
+            this.issuer = issuer;
+            this.minRetryInterval = minRetryInterval;
+        }
+
+        @Override
+        public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+            return obtain().get(jwkSelector, context);
+        }
+
+        private JWKSource<SecurityContext> obtain() throws KeySourceException {
+            JWKSource<SecurityContext> discovered = source;
+            if (discovered != null) {
+                return discovered;
+            }
+            synchronized (this) {
+                if (source == null) {
+                    if (lastFailure != null && Instant.now().isBefore(lastFailure.plus(minRetryInterval))) {
+                        throw new KeySourceException("OIDC discovery of " + issuer + " failed, retrying after "
+                                + lastFailure.plus(minRetryInterval), lastError);
+                    }
+                    try {
+                        source = discovery.get();
+                    } catch (RuntimeException e) {
+                        lastFailure = Instant.now();
+                        lastError = e;
+                        throw new KeySourceException("OIDC discovery of " + issuer + " failed", e);
+                    }
+                }
+                return source;
+            }
+        }
+    }
+
+    private static JWKSet loadJwkSet(String location) {
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        try (InputStream inputStream = resource.getInputStream()) {
+            return JWKSet.load(inputStream);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot load the JWK set from " + location, e);
+        }
+    }
+
+    private static URL toUrl(String uri) {
+        try {
+            return URI.create(uri).toURL();
+        } catch (MalformedURLException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid JWK set URI: " + uri, e);
+        }
+    }
+}
@@ -2,15 +2,15 @@ package identity.server.backend.config;
 
 import identity.server.backend.framework.constants.AuthoritiesConstants;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
-import org.springframework.security.oauth2.core.OAuth2TokenValidator;
-import org.springframework.security.oauth2.jwt.*;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
@@ -23,19 +23,18 @@ public class SecurityConfiguration {
     public static final String SWAGGER_UI = "/swagger-ui/**";
     public static final String SWAGGER_UI_HTML = "/swagger-ui.html";
 
-    @Value("${okta.oauth2.issuer}")
-    private String issuer;
-
-    @Value("${okta.oauth2.audience}")
-    private String audience;
-
         @Bean
-        public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        public SecurityFilterChain filterChain(HttpSecurity http, JwtDecoder jwtDecoder) throws Exception {
             return http
                 .cors(Customizer.withDefaults())
                 .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests((authorize) -> authorize
                 .requestMatchers("/api/public", API_DOCS, SWAGGER_UI, SWAGGER_UI_HTML).permitAll()
+                // Probes and the Prometheus scrape; the other actuator endpoints are for admins
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).hasAnyAuthority(
+                    AuthoritiesConstants.ADMIN
+                )
                 .requestMatchers("/api/roles/**","/api/users/**").hasAnyAuthority(
                     AuthoritiesConstants.ADMIN
                 )
@@ -43,23 +42,10 @@ public class SecurityConfiguration {
             )
                 .oauth2ResourceServer(oauth2 -> oauth2
                     .jwt(jwt -> jwt
-                        .decoder(jwtDecoder())
+                        .decoder(jwtDecoder)
                         .jwtAuthenticationConverter(jwtAuthenticationConverter)
                     )
                 )
                 .build();
         }
-
-    @Bean
-    public JwtDecoder jwtDecoder() {
-        NimbusJwtDecoder jwtDecoder = JwtDecoders.fromOidcIssuerLocation(issuer);
-
-        OAuth2TokenValidator<Jwt> audienceValidator = new AudienceValidator(audience);
-        OAuth2TokenValidator<Jwt> withIssuer = JwtValidators.createDefaultWithIssuer(issuer);
-        OAuth2TokenValidator<Jwt> withAudience = new DelegatingOAuth2TokenValidator<>(withIssuer, audienceValidator);
-
-        jwtDecoder.setJwtValidator(withAudience);
-
-        return jwtDecoder;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package identity.server.backend.config;
+
+import identity.server.backend.framework.utils.ThreadUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in virtual-thread mode (spring.threads.virtual.enabled, Java 21+).
+ *
+ * Spring Boot moves Tomcat request handling, the application task executor (@Async, async MVC responses) and the
+ * task scheduler to virtual threads; this moves the {@link ThreadUtil} executor as well.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfiguration {
+
+    @Bean
+    public SmartInitializingSingleton threadUtilVirtualThreads() {
+        return () -> {
+            log.info("Running ThreadUtil tasks on virtual threads");
+            ThreadUtil.useVirtualThreads();
+        };
+    }
+}
@@ -1,14 +1,93 @@
 package identity.server.backend.config;
 
+import identity.server.backend.framework.thirdparty.auth0.service.base.Auth0RequestMetrics;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+
+/**
+ * WebClient for the Auth0 token endpoint and Management API.
+ *
+ * Auth0 traffic gets its own connection pool so TLS connections are kept alive and reused instead of being
+ * opened per request, and so its limits and metrics are separate from any other outbound HTTP.
+ */
 @Configuration
 public class WebClientConfig {
 
+    private static final String AUTH0_POOL_NAME = "auth0";
+
+    @Value("${auth0.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${auth0.http.pending-acquire-max-count:500}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${auth0.http.pending-acquire-timeout:5s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${auth0.http.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${auth0.http.max-life-time:5m}")
+    private Duration maxLifeTime;
+
+    @Value("${auth0.http.evict-in-background:30s}")
+    private Duration evictInBackground;
+
+    @Value("${auth0.http.connect-timeout:3s}")
+    private Duration connectTimeout;
+
+    @Value("${auth0.http.response-timeout:10s}")
+    private Duration responseTimeout;
+
+    @Value("${auth0.http.http2-enabled:false}")
+    private boolean http2Enabled;
+
+    @Value("${auth0.http.compression-enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${auth0.http.metrics-enabled:true}")
+    private boolean metricsEnabled;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider auth0ConnectionProvider() {
+        return ConnectionProvider.builder(AUTH0_POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInBackground)
+                // Reuse the most recently released connection so surplus connections go idle and get evicted
+                .lifo()
+                .metrics(metricsEnabled)
+                .build();
+    }
+
     @Bean
-    public WebClient webClient(WebClient.Builder builder) {
-        return builder.build();
+    public WebClient webClient(WebClient.Builder builder, ConnectionProvider auth0ConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(auth0ConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(connectTimeout.toMillis()))
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(responseTimeout)
+                .compress(compressionEnabled)
+                .protocol(http2Enabled
+                        ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11})
+                // Management API paths carry user and job ids; collapse them so metrics keep a bounded set of uri tags
+                .metrics(metricsEnabled, Auth0RequestMetrics::uriTemplate);
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
     }
-}
\ No newline at end of file
+}
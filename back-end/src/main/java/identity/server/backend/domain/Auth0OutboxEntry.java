@@ -0,0 +1,80 @@
+package identity.server.backend.domain;
+
+import identity.server.backend.framework.enums.Auth0OutboxOperation;
+import identity.server.backend.framework.enums.Auth0OutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An Auth0 Management API call recorded in the same transaction as the user change that requires it
+ */
+@Entity
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "auth0_outbox")
+public class Auth0OutboxEntry extends AbstractAuditingEntity<UUID> implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "id")
+    private UUID id;
+
+    /**
+     * Insertion order, assigned by the database; entries of one user are delivered in this order
+     */
+    @Column(name = "seq", insertable = false, updatable = false)
+    private Long seq;
+
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "auth0_user_id", length = 100, nullable = false)
+    private String auth0UserId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", length = 32, nullable = false)
+    private Auth0OutboxOperation operation;
+
+    /**
+     * Request body as JSON. May hold a password, so it is cleared once the entry is delivered or discarded,
+     * and the password is removed when the entry fails.
+     */
+    @Column(name = "payload", columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 32, nullable = false)
+    private Auth0OutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    /**
+     * HTTP status of the last failed attempt, null after a network error or a successful delivery
+     */
+    @Column(name = "last_status")
+    private Integer lastStatus;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+}
@@ -0,0 +1,83 @@
+package identity.server.backend.domain;
+
+import identity.server.backend.framework.enums.UserImportBatchStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A slice of an import sent to Auth0 as one user import job (users file under 500KB)
+ */
+@Entity
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "user_import_batch")
+public class UserImportBatch extends AbstractAuditingEntity<UUID> implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "id")
+    private UUID id;
+
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "job_id", nullable = false)
+    private UUID jobId;
+
+    @Column(name = "batch_number", nullable = false)
+    private int batchNumber;
+
+    @Column(name = "user_count", nullable = false)
+    private int userCount;
+
+    /**
+     * Auth0 users file (JSON array). Holds password hashes, so it is cleared once Auth0 accepted the job.
+     */
+    @Column(name = "payload", columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 32, nullable = false)
+    private UserImportBatchStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "auth0_job_id", length = 100)
+    private String auth0JobId;
+
+    @Column(name = "auth0_status", length = 32)
+    private String auth0Status;
+
+    @Column(name = "percentage_done")
+    private Integer percentageDone;
+
+    @Column(name = "inserted", nullable = false)
+    private int inserted;
+
+    @Column(name = "updated", nullable = false)
+    private int updated;
+
+    @Column(name = "failed", nullable = false)
+    private int failed;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "submitted_at")
+    private Instant submittedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+}
@@ -0,0 +1,66 @@
+package identity.server.backend.domain;
+
+import identity.server.backend.framework.enums.UserImportStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * One bulk user import: row counts of the file and the aggregated outcome of its Auth0 import jobs
+ */
+@Entity
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "user_import_job")
+public class UserImportJob extends AbstractAuditingEntity<UUID> implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "id")
+    private UUID id;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 32, nullable = false)
+    private UserImportStatus status;
+
+    @Column(name = "total_rows", nullable = false)
+    private int totalRows;
+
+    @Column(name = "invalid_rows", nullable = false)
+    private int invalidRows;
+
+    @Column(name = "duplicate_rows", nullable = false)
+    private int duplicateRows;
+
+    @Column(name = "inserted_rows", nullable = false)
+    private int insertedRows;
+
+    @Column(name = "auth0_inserted", nullable = false)
+    private int auth0Inserted;
+
+    @Column(name = "auth0_updated", nullable = false)
+    private int auth0Updated;
+
+    @Column(name = "auth0_failed", nullable = false)
+    private int auth0Failed;
+
+    /**
+     * First validation errors of the file, one per line
+     */
+    @Column(name = "validation_errors", columnDefinition = "TEXT")
+    private String validationErrors;
+}
@@ -0,0 +1,24 @@
+package identity.server.backend.framework.enums;
+
+import org.springframework.http.HttpMethod;
+
+/**
+ * Groups of Auth0 endpoints that share a rate-limit budget
+ */
+public enum Auth0EndpointClass {
+    /** Management API reads: user lookups, job status */
+    USERS_READ,
+    /** Management API writes: create, update, block, import jobs */
+    USERS_WRITE,
+    /** The oauth/token endpoint of the M2M client */
+    TOKEN;
+
+    private static final String TOKEN_PATH = "/oauth/token";
+
+    public static Auth0EndpointClass of(HttpMethod httpMethod, String uri) {
+        if (uri != null && uri.contains(TOKEN_PATH)) {
+            return TOKEN;
+        }
+        return HttpMethod.GET.equals(httpMethod) || HttpMethod.HEAD.equals(httpMethod) ? USERS_READ : USERS_WRITE;
+    }
+}
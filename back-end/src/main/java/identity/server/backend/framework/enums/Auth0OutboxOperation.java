@@ -0,0 +1,11 @@
+package identity.server.backend.framework.enums;
+
+public enum Auth0OutboxOperation {
+    /** Create the Auth0 user under the user_id already stored in users.auth0_user_id */
+    CREATE_USER,
+    /** Unblock the Auth0 user, or create it again when it no longer exists */
+    REACTIVATE_USER,
+    UPDATE_USER,
+    BLOCK_USER,
+    UNBLOCK_USER
+}
@@ -0,0 +1,16 @@
+package identity.server.backend.framework.enums;
+
+public enum Auth0OutboxStatus {
+    /** Waiting for delivery, or for its next retry */
+    PENDING,
+    /** Claimed by a dispatcher that is calling Auth0; delivered again if no outcome is recorded by next_attempt_at */
+    SENDING,
+    SENT,
+    /**
+     * Gave up after the maximum attempts or a non-retryable error; holds back later entries of the same user,
+     * except that block and unblock entries pass one rejected with a 4xx
+     */
+    FAILED,
+    /** Failed entry an admin gave up on; it is never sent and no longer holds back later entries */
+    DISCARDED
+}
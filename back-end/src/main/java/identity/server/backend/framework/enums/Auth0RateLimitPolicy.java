@@ -0,0 +1,11 @@
+package identity.server.backend.framework.enums;
+
+/**
+ * What the Auth0 rate limiter does with a caller when its bucket is empty
+ */
+public enum Auth0RateLimitPolicy {
+    /** Wait for a token, up to auth0.rate-limit.max-wait, then reject */
+    QUEUE,
+    /** Reject immediately */
+    SHED
+}
@@ -0,0 +1,12 @@
+package identity.server.backend.framework.enums;
+
+public enum UserImportBatchStatus {
+    /** Waiting to be submitted to Auth0 */
+    QUEUED,
+    /** Claimed by a dispatcher that is creating the Auth0 import job */
+    SUBMITTING,
+    /** Auth0 import job created, polling for completion */
+    SUBMITTED,
+    COMPLETED,
+    FAILED
+}
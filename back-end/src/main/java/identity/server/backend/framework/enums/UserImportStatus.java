@@ -0,0 +1,12 @@
+package identity.server.backend.framework.enums;
+
+public enum UserImportStatus {
+    /** The file is being read and its rows inserted */
+    READING,
+    /** All rows are inserted; Auth0 import jobs are queued or running */
+    PROCESSING,
+    COMPLETED,
+    /** Finished, but some rows were rejected by Auth0 or an Auth0 job failed */
+    COMPLETED_WITH_ERRORS,
+    FAILED
+}
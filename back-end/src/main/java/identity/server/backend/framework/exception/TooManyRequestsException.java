@@ -0,0 +1,11 @@
+package identity.server.backend.framework.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TooManyRequestsException extends BaseException {
+    private static final long serialVersionUID = 1L;
+
+    public TooManyRequestsException(String message) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS);
+    }
+}
@@ -9,6 +9,7 @@ import java.util.concurrent.CompletionException;
 import java.util.stream.StreamSupport;
 import identity.server.backend.framework.exception.BadRequestException;
 import identity.server.backend.framework.exception.NotFoundException;
+import identity.server.backend.framework.exception.TooManyRequestsException;
 import identity.server.backend.framework.handler.model.FieldError;
 import identity.server.backend.framework.handler.model.ResponseData;
 import identity.server.backend.framework.support.ResponseSupport;
@@ -146,6 +147,12 @@ public class GlobalExceptionHandler {
         return responseSupport.failed(HttpStatus.NOT_FOUND, exception.getMessage());
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ResponseData> handleTooManyRequestsException(TooManyRequestsException exception) {
+        logErr.error(exception.getMessage(), exception);
+        return responseSupport.failed(HttpStatus.TOO_MANY_REQUESTS, exception.getMessage());
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ResponseData> handleBadCredentialsException(BadCredentialsException exception) {
         logErr.error(exception.getMessage(), exception);
@@ -0,0 +1,21 @@
+package identity.server.backend.framework.thirdparty.auth0.model;
+
+/**
+ * Outcome of one operation of a bulk Auth0 request
+ * @param auth0UserId The user the operation targeted
+ * @param error Null when the operation succeeded
+ */
+public record Auth0BulkResult(String auth0UserId, Throwable error) {
+
+    public static Auth0BulkResult success(String auth0UserId) {
+        return new Auth0BulkResult(auth0UserId, null);
+    }
+
+    public static Auth0BulkResult failure(String auth0UserId, Throwable error) {
+        return new Auth0BulkResult(auth0UserId, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,19 @@
+package identity.server.backend.framework.thirdparty.auth0.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Auth0ConnectionResponse {
+
+    private String id;
+
+    private String name;
+
+    private String strategy;
+}
@@ -0,0 +1,58 @@
+package identity.server.backend.framework.thirdparty.auth0.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of the users file sent to the Management API user import job endpoint
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Auth0ImportUser {
+
+    /**
+     * Id without the connection prefix; Auth0 stores it as {@code auth0|<user_id>}
+     */
+    @JsonProperty("user_id")
+    private String userId;
+
+    private String email;
+
+    @JsonProperty("email_verified")
+    private Boolean emailVerified;
+
+    private String name;
+
+    private String picture;
+
+    private Boolean blocked;
+
+    @JsonProperty("custom_password_hash")
+    private CustomPasswordHash customPasswordHash;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CustomPasswordHash {
+        private String algorithm;
+        private Hash hash;
+
+        public static CustomPasswordHash bcrypt(String value) {
+            return new CustomPasswordHash("bcrypt", new Hash(value));
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hash {
+        private String value;
+    }
+}
@@ -0,0 +1,58 @@
+package identity.server.backend.framework.thirdparty.auth0.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Management API job, as returned when creating a user import job and by GET /api/v2/jobs/{id}
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Auth0JobResponse {
+
+    public static final String STATUS_COMPLETED = "completed";
+    public static final String STATUS_FAILED = "failed";
+
+    private String id;
+
+    /**
+     * pending, processing, completed or failed
+     */
+    private String status;
+
+    private String type;
+
+    @JsonProperty("connection_id")
+    private String connectionId;
+
+    @JsonProperty("external_id")
+    private String externalId;
+
+    @JsonProperty("percentage_done")
+    private Integer percentageDone;
+
+    @JsonProperty("time_left_seconds")
+    private Integer timeLeftSeconds;
+
+    private Summary summary;
+
+    public boolean isFinished() {
+        return STATUS_COMPLETED.equals(status) || STATUS_FAILED.equals(status);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Summary {
+        private int failed;
+        private int updated;
+        private int inserted;
+        private int total;
+    }
+}
@@ -0,0 +1,199 @@
+package identity.server.backend.framework.thirdparty.auth0.service.base;
+
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0M2MConfig;
+import identity.server.backend.framework.thirdparty.auth0.model.TokenResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caches Auth0 M2M access tokens per {@link Auth0M2MConfig} until shortly before they expire.
+ *
+ * A token is served from memory while it is valid. Once it enters the refresh-ahead window the current
+ * token is still returned and a background refresh is started. Only one request to the token endpoint
+ * is in flight per config at any time; concurrent callers share its result.
+ */
+@Component
+@Log4j2
+public class Auth0AccessTokenCache {
+
+    private final Map<Auth0M2MConfig, CachedToken> tokens = new ConcurrentHashMap<>();
+    private final Map<Auth0M2MConfig, CompletableFuture<CachedToken>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    private final Duration refreshAhead;
+    private final Duration expirySkew;
+    private final Clock clock;
+
+    @Autowired
+    public Auth0AccessTokenCache(@Value("${auth0.m2m.token.refresh-ahead:5m}") Duration refreshAhead,
+                                 @Value("${auth0.m2m.token.expiry-skew:30s}") Duration expirySkew) {
+        this(refreshAhead, expirySkew, Clock.systemUTC());
+        bindTo(Metrics.globalRegistry);
+    }
+
+    Auth0AccessTokenCache(Duration refreshAhead, Duration expirySkew, Clock clock) {
+        this.refreshAhead = refreshAhead;
+        this.expirySkew = expirySkew;
+        this.clock = clock;
+    }
+
+    /**
+     * Publish the hit, miss, refresh and coalesced counts as counters of {@code registry}
+     */
+    void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth0.token-cache.requests", hitCount, LongAdder::sum)
+                .description("Access token requests answered from the cache")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("auth0.token-cache.requests", missCount, LongAdder::sum)
+                .description("Access token requests that had to wait for the token endpoint")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("auth0.token-cache.refreshes", refreshCount, LongAdder::sum)
+                .description("Calls to the Auth0 token endpoint")
+                .register(registry);
+        FunctionCounter.builder("auth0.token-cache.coalesced", coalescedCount, LongAdder::sum)
+                .description("Token loads that joined a refresh already in flight")
+                .register(registry);
+    }
+
+    /**
+     * Get a valid access token, loading it through {@code loader} when none is cached
+     * @param config The M2M configuration the token belongs to
+     * @param loader Asynchronous call to the Auth0 token endpoint
+     * @return Future completed with the access token
+     */
+    public CompletableFuture<String> getTokenAsync(Auth0M2MConfig config,
+                                                   Function<Auth0M2MConfig, CompletableFuture<TokenResponse>> loader) {
+        Instant now = clock.instant();
+        CachedToken cached = tokens.get(config);
+
+        if (cached != null && now.isBefore(cached.expiresAt())) {
+            hitCount.increment();
+            if (!now.isBefore(cached.refreshAt())) {
+                log.debug("Access token for client {} is about to expire, refreshing in background", config.getClientId());
+                refresh(config, loader);
+            }
+            return CompletableFuture.completedFuture(cached.accessToken());
+        }
+
+        missCount.increment();
+        return refresh(config, loader).thenApply(CachedToken::accessToken);
+    }
+
+    /**
+     * Blocking variant of {@link #getTokenAsync}
+     */
+    public String getToken(Auth0M2MConfig config, Function<Auth0M2MConfig, CompletableFuture<TokenResponse>> loader) {
+        try {
+            return getTokenAsync(config, loader).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    public void evict(Auth0M2MConfig config) {
+        tokens.remove(config);
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getRefreshCount() {
+        return refreshCount.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    private CompletableFuture<CachedToken> refresh(Auth0M2MConfig config,
+                                                   Function<Auth0M2MConfig, CompletableFuture<TokenResponse>> loader) {
+        CompletableFuture<CachedToken> pending = new CompletableFuture<>();
+        CompletableFuture<CachedToken> existing = inFlight.putIfAbsent(config, pending);
+        if (existing != null) {
+            coalescedCount.increment();
+            return existing;
+        }
+
+        refreshCount.increment();
+        CompletableFuture<TokenResponse> load;
+        try {
+            load = loader.apply(config);
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+
+        load.whenComplete((response, error) -> {
+            try {
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error;
+                    log.error("Failed to refresh access token for client: {}", config.getClientId(), cause);
+                    pending.completeExceptionally(cause);
+                    return;
+                }
+                CachedToken token = toCachedToken(response);
+                if (token.expiresAt().isAfter(clock.instant())) {
+                    tokens.put(config, token);
+                } else {
+                    tokens.remove(config);
+                }
+                pending.complete(token);
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e);
+            } finally {
+                inFlight.remove(config, pending);
+            }
+        });
+        return pending;
+    }
+
+    private CachedToken toCachedToken(TokenResponse response) {
+        if (response == null || response.getAccessToken() == null) {
+            throw new RuntimeException("Received null response from Auth0 token endpoint");
+        }
+
+        Instant issuedAt = clock.instant();
+        Duration lifetime = Duration.ofSeconds(Math.max(response.getExpiresIn(), 0));
+        Instant expiresAt = issuedAt.plus(lifetime).minus(expirySkew);
+
+        // Short-lived tokens refresh half-way through instead of before they were even issued
+        Instant refreshAt = lifetime.compareTo(refreshAhead.multipliedBy(2)) > 0
+                ? expiresAt.minus(refreshAhead)
+                : issuedAt.plus(lifetime.dividedBy(2));
+
+        return new CachedToken(response.getAccessToken(), expiresAt, refreshAt);
+    }
+
+    private record CachedToken(String accessToken, Instant expiresAt, Instant refreshAt) {
+    }
+}
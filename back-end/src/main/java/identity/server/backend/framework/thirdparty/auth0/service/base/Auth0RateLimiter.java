@@ -0,0 +1,208 @@
+package identity.server.backend.framework.thirdparty.auth0.service.base;
+
+import identity.server.backend.framework.enums.Auth0EndpointClass;
+import identity.server.backend.framework.enums.Auth0RateLimitPolicy;
+import identity.server.backend.framework.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Client-side budget for the Auth0 Management API rate limit.
+ *
+ * Every Auth0 request takes a token from the bucket of its {@link Auth0EndpointClass} before it is sent. When the
+ * bucket is empty the caller is delayed until a token is due ({@link Auth0RateLimitPolicy#QUEUE}, bounded by
+ * {@code maxWait}) or rejected with {@link TooManyRequestsException} ({@link Auth0RateLimitPolicy#SHED}). The
+ * refill rate follows the X-RateLimit-* headers of Auth0's responses, so bursts slow down before Auth0 starts
+ * answering 429.
+ *
+ * With a {@link Auth0SharedRateLimitBudget} each request additionally needs a permit leased from the budget
+ * shared by all instances. Leased permits not used within their window are still spent later, so an instance
+ * may exceed a window by at most {@code leaseSize - 1} calls.
+ */
+@Log4j2
+public class Auth0RateLimiter {
+
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final Map<Auth0EndpointClass, Auth0TokenBucket> buckets = new EnumMap<>(Auth0EndpointClass.class);
+    private final Map<Auth0EndpointClass, AtomicInteger> leasedPermits = new EnumMap<>(Auth0EndpointClass.class);
+    private final Map<Auth0EndpointClass, Counter> queuedCounters = new EnumMap<>(Auth0EndpointClass.class);
+    private final Map<Auth0EndpointClass, Counter> rejectedCounters = new EnumMap<>(Auth0EndpointClass.class);
+
+    private final Auth0RateLimitPolicy policy;
+    private final Duration maxWait;
+    private final Auth0SharedRateLimitBudget sharedBudget;
+    private final int leaseSize;
+    private final LongSupplier nanoTime;
+    private final Clock clock;
+
+    /**
+     * @param limits Bucket size and refill rate per endpoint class; classes without a limit are not throttled
+     * @param minRatePerSecond Lowest refill rate the headers may push a bucket down to
+     * @param sharedBudget Budget shared with other instances, or null to limit this instance only
+     * @param leaseSize Permits leased from the shared budget at once
+     */
+    public Auth0RateLimiter(Map<Auth0EndpointClass, Limit> limits, double minRatePerSecond,
+                            Auth0RateLimitPolicy policy, Duration maxWait,
+                            Auth0SharedRateLimitBudget sharedBudget, int leaseSize) {
+        this(limits, minRatePerSecond, policy, maxWait, sharedBudget, leaseSize, System::nanoTime, Clock.systemUTC());
+    }
+
+    Auth0RateLimiter(Map<Auth0EndpointClass, Limit> limits, double minRatePerSecond,
+                     Auth0RateLimitPolicy policy, Duration maxWait,
+                     Auth0SharedRateLimitBudget sharedBudget, int leaseSize,
+                     LongSupplier nanoTime, Clock clock) {
+        this.policy = policy;
+        this.maxWait = maxWait;
+        this.sharedBudget = sharedBudget;
+        this.leaseSize = Math.max(1, leaseSize);
+        this.nanoTime = nanoTime;
+        this.clock = clock;
+
+        long now = nanoTime.getAsLong();
+        limits.forEach((endpointClass, limit) -> {
+            Auth0TokenBucket bucket = new Auth0TokenBucket(limit.capacity(), limit.ratePerSecond(), minRatePerSecond, now);
+            buckets.put(endpointClass, bucket);
+            leasedPermits.put(endpointClass, new AtomicInteger());
+
+            String tag = endpointClass.name().toLowerCase();
+            queuedCounters.put(endpointClass, Counter.builder("auth0.rate-limit.queued")
+                    .tag("bucket", tag)
+                    .register(Metrics.globalRegistry));
+            rejectedCounters.put(endpointClass, Counter.builder("auth0.rate-limit.rejected")
+                    .tag("bucket", tag)
+                    .register(Metrics.globalRegistry));
+            Gauge.builder("auth0.rate-limit.rate", bucket, Auth0TokenBucket::getRate)
+                    .tag("bucket", tag)
+                    .baseUnit("calls/s")
+                    .register(Metrics.globalRegistry);
+        });
+    }
+
+    /**
+     * Take a token for one request
+     * @return Completes when the request may be sent; errors with {@link TooManyRequestsException} when rejected
+     */
+    public Mono<Void> acquire(Auth0EndpointClass endpointClass) {
+        Auth0TokenBucket bucket = buckets.get(endpointClass);
+        if (bucket == null) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            long now = nanoTime.getAsLong();
+            long maxWaitNanos = policy == Auth0RateLimitPolicy.SHED ? 0 : maxWait.toNanos();
+            long waitNanos = bucket.reserve(now, maxWaitNanos);
+            if (waitNanos < 0) {
+                return Mono.error(reject(endpointClass));
+            }
+
+            Mono<Void> local = Mono.empty();
+            if (waitNanos > 0) {
+                queuedCounters.get(endpointClass).increment();
+                local = Mono.delay(Duration.ofNanos(waitNanos)).then();
+            }
+            return sharedBudget == null
+                    ? local
+                    : local.then(acquireShared(endpointClass, bucket, now + maxWaitNanos));
+        });
+    }
+
+    /**
+     * Feed the rate-limit headers of an Auth0 response back into the bucket
+     */
+    public void onResponse(Auth0EndpointClass endpointClass, HttpStatusCode status, HttpHeaders headers) {
+        Auth0TokenBucket bucket = buckets.get(endpointClass);
+        if (bucket == null || headers == null) {
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        Instant instant = clock.instant();
+
+        if (status != null && status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            Duration wait = Auth0Resilience.rateLimitWait(headers, clock).orElse(Duration.ofSeconds(1));
+            log.warn("Auth0 rate limit hit for {}, pausing for {}", endpointClass, wait);
+            bucket.exhaust(wait.toMillis() / 1000.0, now);
+            return;
+        }
+
+        String remaining = headers.getFirst(REMAINING_HEADER);
+        if (remaining == null) {
+            return;
+        }
+        try {
+            double secondsUntilReset = Auth0Resilience.rateLimitReset(headers)
+                    .map(reset -> Duration.between(instant, reset).toMillis() / 1000.0)
+                    .orElse(0.0);
+            bucket.adapt(Long.parseLong(remaining.trim()), secondsUntilReset, now);
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed {} header: {}", REMAINING_HEADER, remaining);
+        }
+    }
+
+    double getRate(Auth0EndpointClass endpointClass) {
+        return buckets.get(endpointClass).getRate();
+    }
+
+    private Mono<Void> acquireShared(Auth0EndpointClass endpointClass, Auth0TokenBucket bucket, long deadlineNanos) {
+        // The lease is a blocking JDBC statement; keep it off the event loop
+        return Mono.fromCallable(() -> leaseShared(endpointClass, bucket))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(granted -> {
+                    if (granted) {
+                        return Mono.<Void>empty();
+                    }
+                    long untilNextWindow = TimeUnit.MILLISECONDS.toNanos(1000 - clock.millis() % 1000);
+                    if (policy == Auth0RateLimitPolicy.SHED || nanoTime.getAsLong() + untilNextWindow > deadlineNanos) {
+                        return Mono.error(reject(endpointClass));
+                    }
+                    queuedCounters.get(endpointClass).increment();
+                    return Mono.delay(Duration.ofNanos(untilNextWindow))
+                            .then(acquireShared(endpointClass, bucket, deadlineNanos));
+                });
+    }
+
+    private boolean leaseShared(Auth0EndpointClass endpointClass, Auth0TokenBucket bucket) {
+        AtomicInteger leased = leasedPermits.get(endpointClass);
+        for (int current = leased.get(); current > 0; current = leased.get()) {
+            if (leased.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+
+        int limit = Math.max(1, (int) Math.floor(bucket.getRate()));
+        Instant now = clock.instant();
+        if (leaseSize > 1 && sharedBudget.tryLease(endpointClass, leaseSize, limit, now)) {
+            leased.addAndGet(leaseSize - 1);
+            return true;
+        }
+        return sharedBudget.tryLease(endpointClass, 1, limit, now);
+    }
+
+    private TooManyRequestsException reject(Auth0EndpointClass endpointClass) {
+        rejectedCounters.get(endpointClass).increment();
+        return new TooManyRequestsException("Auth0 rate limit budget exhausted for " + endpointClass);
+    }
+
+    /**
+     * @param capacity Largest burst the bucket allows
+     * @param ratePerSecond Tokens added per second
+     */
+    public record Limit(int capacity, double ratePerSecond) {
+    }
+}
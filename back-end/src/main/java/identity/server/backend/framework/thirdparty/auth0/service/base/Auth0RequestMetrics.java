@@ -0,0 +1,94 @@
+package identity.server.backend.framework.thirdparty.auth0.service.base;
+
+import identity.server.backend.framework.exception.TooManyRequestsException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Latency of the Auth0 calls as seen by their callers (auth0.requests), retries, rate-limit waits and single-flight
+ * joins included, tagged by HTTP method, URI template and status.
+ *
+ * Reactor Netty's reactor.netty.http.client.* meters time each attempt on the wire, with the same URI templates.
+ */
+@Component
+public class Auth0RequestMetrics {
+
+    public static final String METRIC_NAME = "auth0.requests";
+
+    private static final Pattern SCHEME_AND_HOST = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+.-]*://[^/]*");
+
+    // Management API paths carry user and job ids; collapse them so metrics keep a bounded set of uri tags
+    private static final Pattern PATH_ID = Pattern.compile("(/api/v2/(?:users|jobs|roles|connections))/[^/?]+");
+
+    /**
+     * Time {@code call}, from subscription until it completes, fails or is cancelled
+     */
+    public <T> Mono<ResponseEntity<T>> timed(HttpMethod httpMethod, String uri, Mono<ResponseEntity<T>> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+            return call
+                    .doOnSuccess(entity -> stop(sample, httpMethod, uri,
+                            entity == null ? "NONE" : String.valueOf(entity.getStatusCode().value())))
+                    .doOnError(error -> stop(sample, httpMethod, uri, status(error)))
+                    .doOnCancel(() -> stop(sample, httpMethod, uri, "CANCELLED"));
+        });
+    }
+
+    /**
+     * Path of {@code uri} without host and query, with user, job, role and connection ids replaced by {id},
+     * e.g. https://tenant.auth0.com/api/v2/users/auth0|123?fields=email -> /api/v2/users/{id}
+     */
+    public static String uriTemplate(String uri) {
+        if (uri == null) {
+            return "none";
+        }
+        String path = SCHEME_AND_HOST.matcher(uri).replaceFirst("");
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        if (!path.startsWith("/")) {
+            path = "/" + path;
+        }
+        return PATH_ID.matcher(path).replaceAll("$1/{id}");
+    }
+
+    private void stop(Timer.Sample sample, HttpMethod httpMethod, String uri, String status) {
+        sample.stop(Timer.builder(METRIC_NAME)
+                .description("Auth0 calls, retries and waits included")
+                .tag("method", httpMethod.name())
+                .tag("uri", uriTemplate(uri))
+                .tag("status", status)
+                .register(Metrics.globalRegistry));
+    }
+
+    /**
+     * HTTP status of a failed call, or why no response was received
+     */
+    private static String status(Throwable error) {
+        if (error instanceof WebClientResponseException responseException) {
+            return String.valueOf(responseException.getStatusCode().value());
+        }
+        if (error instanceof TooManyRequestsException) {
+            // Rejected by the client-side rate limiter, nothing was sent
+            return "THROTTLED";
+        }
+        if (error instanceof CallNotPermittedException || error instanceof BulkheadFullException) {
+            return "REJECTED";
+        }
+        if (error instanceof TimeoutException) {
+            return "TIMEOUT";
+        }
+        return "CLIENT_ERROR";
+    }
+}
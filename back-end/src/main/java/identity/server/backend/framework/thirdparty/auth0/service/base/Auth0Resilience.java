@@ -0,0 +1,157 @@
+package identity.server.backend.framework.thirdparty.auth0.service.base;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Circuit breaker, bulkhead and retry around every Auth0 call.
+ *
+ * The bulkhead caps the calls in flight and the circuit breaker fails fast while Auth0 is unhealthy; both reject
+ * immediately instead of letting callers queue. Transient failures are retried with jittered exponential backoff,
+ * or after the wait Auth0 asks for on 429. GET, HEAD and PATCH retry network errors, timeouts, 5xx and 429;
+ * other methods only retry 429, because a rate-limited request was not processed. DELETE is not retried after
+ * an ambiguous failure: if the first attempt went through, the retry answers 404 and the delete looks failed.
+ */
+@Getter
+@RequiredArgsConstructor
+public class Auth0Resilience {
+
+    public static final String NAME = "auth0";
+
+    // Methods whose repeat has the same effect and the same response as the first call
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.PATCH);
+    private static final String RATE_LIMIT_RESET_HEADER = "X-RateLimit-Reset";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Retry idempotentRetry;
+    private final Retry rateLimitRetry;
+
+    public <T> Mono<T> decorate(HttpMethod httpMethod, Mono<T> call) {
+        Retry retry = IDEMPOTENT_METHODS.contains(httpMethod) ? idempotentRetry : rateLimitRetry;
+        return call
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry));
+    }
+
+    /**
+     * Retry configuration for Auth0 calls
+     * @param maxAttempts Attempts including the first call
+     * @param initialBackoff First backoff; doubled per attempt with 50% jitter
+     * @param maxWait Longest wait between attempts; a 429 asking for longer is not retried
+     * @param retryable Failures worth another attempt
+     */
+    public static RetryConfig retryConfig(int maxAttempts, Duration initialBackoff, Duration maxWait,
+                                          Predicate<Throwable> retryable) {
+        IntervalFunction backoff = IntervalFunction.ofExponentialRandomBackoff(initialBackoff, 2.0, 0.5, maxWait);
+        return RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                .intervalBiFunction((attempt, result) -> {
+                    Throwable error = result.isLeft() ? result.getLeft() : null;
+                    return rateLimitWait(error, Clock.systemUTC())
+                            .map(Duration::toMillis)
+                            .orElseGet(() -> backoff.apply(attempt));
+                })
+                .retryOnException(error -> retryable.test(error)
+                        && rateLimitWait(error, Clock.systemUTC()).map(wait -> wait.compareTo(maxWait) <= 0).orElse(true))
+                .build();
+    }
+
+    /**
+     * Network errors, timeouts, 5xx and 429: failures that say Auth0 (or the path to it) is struggling
+     */
+    public static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientResponseException responseException) {
+                return responseException.getStatusCode().is5xxServerError() || isRateLimited(responseException);
+            }
+            if (cause instanceof WebClientRequestException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isRateLimited(Throwable error) {
+        return error instanceof WebClientResponseException responseException
+                && responseException.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    /**
+     * How long Auth0 asks us to wait before retrying a 429, from Retry-After (seconds or HTTP date)
+     * or X-RateLimit-Reset (epoch seconds)
+     */
+    static Optional<Duration> rateLimitWait(Throwable error, Clock clock) {
+        if (!isRateLimited(error)) {
+            return Optional.empty();
+        }
+        return rateLimitWait(((WebClientResponseException) error).getHeaders(), clock);
+    }
+
+    /**
+     * Wait asked for by the Retry-After or X-RateLimit-Reset header of a 429 response
+     */
+    public static Optional<Duration> rateLimitWait(HttpHeaders headers, Clock clock) {
+        Instant now = clock.instant();
+        Optional<Instant> until = Optional.ofNullable(headers.getFirst(HttpHeaders.RETRY_AFTER))
+                .flatMap(value -> parseRetryAfter(value.trim(), now));
+        if (until.isEmpty()) {
+            until = rateLimitReset(headers);
+        }
+        return until.map(instant -> instant.isAfter(now) ? Duration.between(now, instant) : Duration.ZERO);
+    }
+
+    /**
+     * When Auth0's rate-limit bucket is full again, from X-RateLimit-Reset (epoch seconds)
+     */
+    public static Optional<Instant> rateLimitReset(HttpHeaders headers) {
+        return Optional.ofNullable(headers.getFirst(RATE_LIMIT_RESET_HEADER))
+                .flatMap(value -> parseEpochSeconds(value.trim()));
+    }
+
+    private static Optional<Instant> parseRetryAfter(String value, Instant now) {
+        try {
+            return Optional.of(now.plusSeconds(Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            try {
+                return Optional.of(ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+            } catch (DateTimeParseException ignored) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private static Optional<Instant> parseEpochSeconds(String value) {
+        try {
+            return Optional.of(Instant.ofEpochSecond(Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package identity.server.backend.framework.thirdparty.auth0.service.base;
+
+import identity.server.backend.framework.enums.Auth0EndpointClass;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Auth0 rate-limit budget shared by every back-end instance through PostgreSQL.
+ *
+ * Each endpoint class gets a counter per one-second window in auth0_rate_limit_window. Instances lease permits
+ * from the current window in small batches, so the tenant-wide rate holds across nodes at the cost of one
+ * statement per lease rather than per call.
+ */
+@Component
+@Log4j2
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "auth0.rate-limit.shared.enabled", havingValue = "true")
+public class Auth0SharedRateLimitBudget {
+
+    private static final String CLAIM_SQL = """
+            INSERT INTO auth0_rate_limit_window (bucket, window_start, used)
+            VALUES (:bucket, :windowStart, :permits)
+            ON CONFLICT (bucket, window_start) DO UPDATE
+                SET used = auth0_rate_limit_window.used + EXCLUDED.used
+                WHERE auth0_rate_limit_window.used + EXCLUDED.used <= :limit
+            RETURNING used
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Lease permits from the current window
+     * @param endpointClass Bucket to lease from
+     * @param permits Permits wanted
+     * @param limit Permits all instances together may use in one window
+     * @param now Current time; the window is the second it falls in
+     * @return Whether the permits were granted
+     */
+    public boolean tryLease(Auth0EndpointClass endpointClass, int permits, int limit, Instant now) {
+        if (permits > limit) {
+            return false;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("bucket", endpointClass.name())
+                .addValue("windowStart", Timestamp.from(now.truncatedTo(ChronoUnit.SECONDS)))
+                .addValue("permits", permits)
+                .addValue("limit", limit);
+        List<Integer> used = jdbcTemplate.queryForList(CLAIM_SQL, params, Integer.class);
+        return !used.isEmpty();
+    }
+
+    @Scheduled(fixedDelayString = "${auth0.rate-limit.shared.purge-interval:1m}")
+    public void purgeExpiredWindows() {
+        int deleted = jdbcTemplate.update("DELETE FROM auth0_rate_limit_window WHERE window_start < :before",
+                new MapSqlParameterSource("before", Timestamp.from(Instant.now().minus(1, ChronoUnit.MINUTES))));
+        log.debug("Purged {} expired Auth0 rate-limit windows", deleted);
+    }
+}
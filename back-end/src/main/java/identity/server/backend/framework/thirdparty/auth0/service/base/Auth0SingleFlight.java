@@ -0,0 +1,91 @@
+package identity.server.backend.framework.thirdparty.auth0.service.base;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collapses concurrent identical Auth0 reads into one downstream call.
+ *
+ * The first caller for a key starts the call; callers arriving while it is in flight subscribe to the same result
+ * instead of issuing their own request. A follower waits at most {@code maxWait} for the shared call and then makes
+ * its own, so one stuck request cannot hold up everyone behind it. Results are not kept once the call completes.
+ */
+@Component
+@Log4j2
+public class Auth0SingleFlight {
+
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final Duration maxWait;
+    private final Counter collapsed;
+    private final Counter fallbacks;
+
+    public Auth0SingleFlight(@Value("${auth0.single-flight.enabled:true}") boolean enabled,
+                             @Value("${auth0.single-flight.max-wait:5s}") Duration maxWait) {
+        this.enabled = enabled;
+        this.maxWait = maxWait;
+        this.collapsed = Counter.builder("auth0.single-flight.collapsed")
+                .description("Auth0 calls answered by a concurrent identical call already in flight")
+                .register(Metrics.globalRegistry);
+        this.fallbacks = Counter.builder("auth0.single-flight.fallbacks")
+                .description("Callers that stopped waiting for the shared call after max-wait and made their own")
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Run {@code call}, or join the identical call already in flight for {@code key}
+     * @param key Identity of the call, e.g. method, URI, response type and headers
+     * @param call The downstream call; subscribed at most once per flight
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(Object key, Mono<T> call) {
+        if (!enabled) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            CompletableFuture<Object> pending = new CompletableFuture<>();
+            CompletableFuture<Object> existing = inFlight.putIfAbsent(key, pending);
+            if (existing != null) {
+                collapsed.increment();
+                log.debug("Joining in-flight Auth0 call: {}", key);
+                // Never cancel the shared future on unsubscribe: the leader and other followers still need it
+                return Mono.fromFuture(existing, true)
+                        .map(result -> (T) result)
+                        .timeout(maxWait, Mono.defer(() -> {
+                            fallbacks.increment();
+                            return call;
+                        }));
+            }
+
+            call.subscribe(
+                    result -> {
+                        inFlight.remove(key, pending);
+                        pending.complete(result);
+                    },
+                    error -> {
+                        inFlight.remove(key, pending);
+                        pending.completeExceptionally(error);
+                    },
+                    () -> {
+                        inFlight.remove(key, pending);
+                        // No-op after a value; otherwise null, which Mono.fromFuture turns back into an empty Mono
+                        pending.complete(null);
+                    });
+            return Mono.fromFuture(pending, true).map(result -> (T) result);
+        });
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+}
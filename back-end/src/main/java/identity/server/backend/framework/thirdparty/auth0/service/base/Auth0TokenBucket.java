@@ -0,0 +1,104 @@
+package identity.server.backend.framework.thirdparty.auth0.service.base;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket for one {@link identity.server.backend.framework.enums.Auth0EndpointClass}.
+ *
+ * Callers reserve a token and are told how long to wait for it; a reservation may drive the bucket negative, which
+ * is how queued callers are spaced out at the refill rate. The refill rate starts at the configured rate and is
+ * lowered from the rate-limit headers Auth0 returns, so the remaining quota lasts until Auth0 resets it, and goes
+ * back up once that reset time has passed.
+ */
+class Auth0TokenBucket {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int capacity;
+    private final double configuredRate;
+    private final double minRate;
+
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+    private long restoreRateAtNanos;
+
+    Auth0TokenBucket(int capacity, double ratePerSecond, double minRatePerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.configuredRate = ratePerSecond;
+        this.minRate = Math.min(minRatePerSecond, ratePerSecond);
+        this.rate = ratePerSecond;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Reserve one token
+     * @param nowNanos Current {@link System#nanoTime()}
+     * @param maxWaitNanos Longest the caller is willing to wait
+     * @return Nanoseconds to wait before the call may go out, or -1 when that would exceed {@code maxWaitNanos}
+     * (nothing is reserved then)
+     */
+    synchronized long reserve(long nowNanos, long maxWaitNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        long waitNanos = (long) Math.ceil((1 - tokens) / rate * NANOS_PER_SECOND);
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        tokens -= 1;
+        return waitNanos;
+    }
+
+    /**
+     * Align the bucket with the quota Auth0 reports
+     * @param remaining Calls left in Auth0's bucket (X-RateLimit-Remaining)
+     * @param secondsUntilReset Seconds until Auth0's bucket is full again (from X-RateLimit-Reset)
+     */
+    synchronized void adapt(long remaining, double secondsUntilReset, long nowNanos) {
+        refill(nowNanos);
+        // Never hold more tokens than Auth0 would still accept
+        tokens = Math.min(tokens, remaining);
+        if (secondsUntilReset <= 0 || remaining >= capacity) {
+            rate = configuredRate;
+            restoreRateAtNanos = 0;
+            return;
+        }
+        rate = Math.max(minRate, Math.min(configuredRate, remaining / secondsUntilReset));
+        restoreRateAtNanos = nowNanos + (long) (secondsUntilReset * NANOS_PER_SECOND);
+    }
+
+    /**
+     * Auth0 answered 429: hold the bucket empty until the wait Auth0 asked for has passed. Callers queued meanwhile
+     * are released at the current rate afterwards.
+     */
+    synchronized void exhaust(double secondsUntilReset, long nowNanos) {
+        refill(nowNanos);
+        tokens = Math.min(tokens, -Math.max(0, secondsUntilReset) * rate);
+    }
+
+    synchronized double getRate() {
+        return rate;
+    }
+
+    synchronized double getTokens(long nowNanos) {
+        refill(nowNanos);
+        return tokens;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed / NANOS_PER_SECOND * rate);
+            lastRefillNanos = nowNanos;
+        }
+        // Auth0's bucket is full again by now, even if no response has told us so
+        if (restoreRateAtNanos != 0 && nowNanos - restoreRateAtNanos >= 0) {
+            rate = configuredRate;
+            restoreRateAtNanos = 0;
+        }
+    }
+}
@@ -1,84 +1,29 @@
 package identity.server.backend.framework.thirdparty.auth0.service.base;
 
+import identity.server.backend.framework.exception.TooManyRequestsException;
 import identity.server.backend.framework.thirdparty.auth0.model.Auth0M2MConfig;
-import identity.server.backend.framework.thirdparty.auth0.model.TokenRequest;
-import identity.server.backend.framework.thirdparty.auth0.model.TokenResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import java.time.Duration;
 import java.util.Optional;
 
+/**
+ * Blocking facade over {@link IReactiveBaseAuth0} for callers that run on a request or scheduler thread
+ */
 @Service
 @Log4j2
 @RequiredArgsConstructor
 public class BaseAuth0Impl implements IBaseAuth0 {
 
-    private static final String OAUTH_TOKEN_ENDPOINT = "oauth/token";
-    private static final String GRANT_TYPE_CLIENT_CREDENTIALS = "client_credentials";
-    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
-
-    private final WebClient webClient;
+    private final IReactiveBaseAuth0 reactiveBaseAuth0;
 
     @Override
     public String getAccessToken(Auth0M2MConfig auth0M2MConfig) {
-        validateConfig(auth0M2MConfig);
-
-        log.debug("Requesting access token from Auth0 for client: {}", auth0M2MConfig.getClientId());
-
-        TokenRequest request = buildTokenRequest(auth0M2MConfig);
-        String tokenUrl = buildTokenUrl(auth0M2MConfig.getAuth0Domain());
-
-        TokenResponse response = executePost(
-                tokenUrl,
-                request,
-                TokenResponse.class,
-                REQUEST_TIMEOUT,
-                HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE
-        );
-
-        return Optional.ofNullable(response)
-                .map(TokenResponse::getAccessToken)
-                .orElseThrow(() -> new RuntimeException("Received null response from Auth0 token endpoint"));
-    }
-
-    private void validateConfig(Auth0M2MConfig config) {
-        if (config == null) {
-            throw new IllegalArgumentException("Auth0M2MConfig cannot be null");
-        }
-        if (config.getClientId() == null || config.getClientId().isBlank()) {
-            throw new IllegalArgumentException("Client ID cannot be null or blank");
-        }
-        if (config.getClientSecret() == null || config.getClientSecret().isBlank()) {
-            throw new IllegalArgumentException("Client Secret cannot be null or blank");
-        }
-        if (config.getAuth0Domain() == null || config.getAuth0Domain().isBlank()) {
-            throw new IllegalArgumentException("Auth0 Domain cannot be null or blank");
-        }
-        if (config.getAudience() == null || config.getAudience().isBlank()) {
-            throw new IllegalArgumentException("Audience cannot be null or blank");
-        }
-    }
-
-    private TokenRequest buildTokenRequest(Auth0M2MConfig config) {
-        return TokenRequest.builder()
-                .clientId(config.getClientId())
-                .clientSecret(config.getClientSecret())
-                .audience(config.getAudience())
-                .grantType(GRANT_TYPE_CLIENT_CREDENTIALS)
-                .build();
-    }
-
-    private String buildTokenUrl(String domain) {
-        return domain.endsWith("/")
-                ? domain + OAUTH_TOKEN_ENDPOINT
-                : domain + "/" + OAUTH_TOKEN_ENDPOINT;
+        return reactiveBaseAuth0.getAccessToken(auth0M2MConfig).block();
     }
 
     /**
@@ -96,53 +41,18 @@ public class BaseAuth0Impl implements IBaseAuth0 {
     @Override
     public <T, R> T execute(HttpMethod httpMethod, String uri, R requestBody, Class<T> responseType, Duration timeout, String... headers) {
         try {
-            log.debug("Executing {} request to: {}", httpMethod, uri);
-
-            // Create request spec based on HTTP method
-            WebClient.RequestHeadersSpec<?> requestSpec;
-
-            if (httpMethod == HttpMethod.GET || httpMethod == HttpMethod.DELETE) {
-                // GET and DELETE typically don't have request bodies
-                requestSpec = webClient.method(httpMethod).uri(uri);
-            } else {
-                // POST, PUT, PATCH have request bodies
-                WebClient.RequestBodySpec bodySpec = webClient.method(httpMethod).uri(uri);
-                if (requestBody != null) {
-                    requestSpec = bodySpec.bodyValue(requestBody);
-                } else {
-                    requestSpec = bodySpec;
-                }
-            }
-
-            // Add headers dynamically
-            if (headers != null && headers.length > 0) {
-                if (headers.length % 2 != 0) {
-                    throw new IllegalArgumentException("Headers must be provided as key-value pairs");
-                }
-                for (int i = 0; i < headers.length; i += 2) {
-                    requestSpec.header(headers[i], headers[i + 1]);
-                }
-            }
-
-            // Execute request and retrieve response
-            WebClient.ResponseSpec responseSpec = requestSpec.retrieve();
-
-            // Apply timeout if provided
-            T response;
-            if (timeout != null) {
-                response = responseSpec
-                        .bodyToMono(responseType)
-                        .timeout(timeout)
-                        .block();
-            } else {
-                response = responseSpec
-                        .bodyToMono(responseType)
-                        .block();
+            T response = reactiveBaseAuth0.execute(httpMethod, uri, requestBody, responseType, timeout, headers).block();
+            if (responseType == Void.class) {
+                // e.g. DELETE answers 204 without a body
+                return null;
             }
 
             return Optional.ofNullable(response)
                     .orElseThrow(() -> new RuntimeException("Received null response from: " + uri));
 
+        } catch (TooManyRequestsException e) {
+            log.warn("{} request to {} rejected by the Auth0 rate limiter", httpMethod, uri);
+            throw e;
         } catch (WebClientResponseException e) {
             log.error("{} request failed to {} with status: {} - Response: {}",
                     httpMethod, uri, e.getStatusCode(), e.getResponseBodyAsString(), e);
@@ -0,0 +1,61 @@
+package identity.server.backend.framework.thirdparty.auth0.service.base;
+
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0M2MConfig;
+import org.springframework.http.HttpMethod;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking counterpart of {@link IBaseAuth0}. Nothing is sent until the returned {@link Mono} is subscribed.
+ */
+public interface IReactiveBaseAuth0 {
+
+    /**
+     * Get a cached access token, requesting a new one from Auth0 when needed
+     */
+    Mono<String> getAccessToken(Auth0M2MConfig auth0M2MConfig);
+
+    /**
+     * Execute an HTTP request with WebClient
+     * @param httpMethod The HTTP method (GET, POST, PUT, DELETE, PATCH)
+     * @param uri The target URI
+     * @param requestBody The request body object (ignored for GET/DELETE, can be null)
+     * @param responseType The expected response class type
+     * @param timeout Optional timeout duration (can be null)
+     * @param headers Optional headers as key-value pairs
+     * @param <T> Response type
+     * @param <R> Request type
+     * @return The response; empty when the response has no body. Error responses are signalled as
+     *         {@link org.springframework.web.reactive.function.client.WebClientResponseException}.
+     */
+    <T, R> Mono<T> execute(HttpMethod httpMethod, String uri, R requestBody, Class<T> responseType, Duration timeout, String... headers);
+
+    /**
+     * Convenience method for GET requests (no request body)
+     */
+    default <T> Mono<T> executeGet(String uri, Class<T> responseType, Duration timeout, String... headers) {
+        return execute(HttpMethod.GET, uri, null, responseType, timeout, headers);
+    }
+
+    /**
+     * Convenience method for POST requests
+     */
+    default <T, R> Mono<T> executePost(String uri, R requestBody, Class<T> responseType, Duration timeout, String... headers) {
+        return execute(HttpMethod.POST, uri, requestBody, responseType, timeout, headers);
+    }
+
+    /**
+     * Convenience method for PATCH requests
+     */
+    default <T, R> Mono<T> executePatch(String uri, R requestBody, Class<T> responseType, Duration timeout, String... headers) {
+        return execute(HttpMethod.PATCH, uri, requestBody, responseType, timeout, headers);
+    }
+
+    /**
+     * Convenience method for DELETE requests (no request body)
+     */
+    default <T> Mono<T> executeDelete(String uri, Class<T> responseType, Duration timeout, String... headers) {
+        return execute(HttpMethod.DELETE, uri, null, responseType, timeout, headers);
+    }
+}
@@ -0,0 +1,150 @@
+package identity.server.backend.framework.thirdparty.auth0.service.base;
+
+import identity.server.backend.framework.enums.Auth0EndpointClass;
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0M2MConfig;
+import identity.server.backend.framework.thirdparty.auth0.model.TokenRequest;
+import identity.server.backend.framework.thirdparty.auth0.model.TokenResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+@Log4j2
+@RequiredArgsConstructor
+public class ReactiveBaseAuth0Impl implements IReactiveBaseAuth0 {
+
+    private static final String OAUTH_TOKEN_ENDPOINT = "oauth/token";
+    private static final String GRANT_TYPE_CLIENT_CREDENTIALS = "client_credentials";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final WebClient webClient;
+    private final Auth0AccessTokenCache tokenCache;
+    private final Auth0Resilience resilience;
+    private final Auth0RateLimiter rateLimiter;
+    private final Auth0SingleFlight singleFlight;
+    private final Auth0RequestMetrics requestMetrics;
+
+    @Override
+    public Mono<String> getAccessToken(Auth0M2MConfig auth0M2MConfig) {
+        return Mono.defer(() -> {
+            validateConfig(auth0M2MConfig);
+            // The future is shared by every caller waiting for the same token: never cancel it on unsubscribe
+            return Mono.fromFuture(() -> tokenCache.getTokenAsync(auth0M2MConfig,
+                    config -> requestAccessToken(config).toFuture()), true);
+        });
+    }
+
+    private Mono<TokenResponse> requestAccessToken(Auth0M2MConfig auth0M2MConfig) {
+        log.debug("Requesting access token from Auth0 for client: {}", auth0M2MConfig.getClientId());
+
+        return execute(HttpMethod.POST,
+                buildTokenUrl(auth0M2MConfig.getAuth0Domain()),
+                buildTokenRequest(auth0M2MConfig),
+                TokenResponse.class,
+                REQUEST_TIMEOUT,
+                HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .filter(tokenResponse -> tokenResponse.getAccessToken() != null)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Received null response from Auth0 token endpoint")));
+    }
+
+    @Override
+    public <T, R> Mono<T> execute(HttpMethod httpMethod, String uri, R requestBody, Class<T> responseType, Duration timeout, String... headers) {
+        Mono<ResponseEntity<T>> call = resilience.decorate(httpMethod, Mono.defer(() -> {
+            log.debug("Executing {} request to: {}", httpMethod, uri);
+
+            WebClient.RequestBodySpec bodySpec = webClient.method(httpMethod).uri(uri);
+            if (timeout != null) {
+                // Overrides the client-wide response timeout, e.g. for slow import uploads
+                bodySpec.httpRequest(request -> {
+                    if (request.getNativeRequest() instanceof HttpClientRequest nettyRequest) {
+                        nettyRequest.responseTimeout(timeout);
+                    }
+                });
+            }
+
+            // Add headers dynamically
+            if (headers != null && headers.length > 0) {
+                if (headers.length % 2 != 0) {
+                    return Mono.error(new IllegalArgumentException("Headers must be provided as key-value pairs"));
+                }
+                for (int i = 0; i < headers.length; i += 2) {
+                    bodySpec.header(headers[i], headers[i + 1]);
+                }
+            }
+
+            // GET and DELETE typically don't have request bodies
+            WebClient.RequestHeadersSpec<?> requestSpec = requestBody != null
+                    && httpMethod != HttpMethod.GET
+                    && httpMethod != HttpMethod.DELETE
+                    ? bodySpec.bodyValue(requestBody)
+                    : bodySpec;
+
+            Auth0EndpointClass endpointClass = Auth0EndpointClass.of(httpMethod, uri);
+            Mono<ResponseEntity<T>> response = requestSpec.retrieve()
+                    .toEntity(responseType)
+                    .doOnError(WebClientResponseException.class,
+                            e -> rateLimiter.onResponse(endpointClass, e.getStatusCode(), e.getHeaders()))
+                    .doOnNext(entity -> rateLimiter.onResponse(endpointClass, entity.getStatusCode(), entity.getHeaders()));
+            if (timeout != null) {
+                response = response.timeout(timeout);
+            }
+            // Every attempt, retries included, spends from the Auth0 rate-limit budget
+            return rateLimiter.acquire(endpointClass).then(response);
+        }));
+
+        // Identical concurrent reads share one call, before it spends rate-limit budget or a bulkhead permit
+        Mono<ResponseEntity<T>> shared = httpMethod == HttpMethod.GET
+                ? singleFlight.execute(new SingleFlightKey(httpMethod, uri, responseType, headers == null ? List.of() : Arrays.asList(headers)), call)
+                : call;
+        return requestMetrics.timed(httpMethod, uri, shared)
+                .flatMap(entity -> Mono.justOrEmpty(entity.getBody()));
+    }
+
+    private void validateConfig(Auth0M2MConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Auth0M2MConfig cannot be null");
+        }
+        if (config.getClientId() == null || config.getClientId().isBlank()) {
+            throw new IllegalArgumentException("Client ID cannot be null or blank");
+        }
+        if (config.getClientSecret() == null || config.getClientSecret().isBlank()) {
+            throw new IllegalArgumentException("Client Secret cannot be null or blank");
+        }
+        if (config.getAuth0Domain() == null || config.getAuth0Domain().isBlank()) {
+            throw new IllegalArgumentException("Auth0 Domain cannot be null or blank");
+        }
+        if (config.getAudience() == null || config.getAudience().isBlank()) {
+            throw new IllegalArgumentException("Audience cannot be null or blank");
+        }
+    }
+
+    private TokenRequest buildTokenRequest(Auth0M2MConfig config) {
+        return TokenRequest.builder()
+                .clientId(config.getClientId())
+                .clientSecret(config.getClientSecret())
+                .audience(config.getAudience())
+                .grantType(GRANT_TYPE_CLIENT_CREDENTIALS)
+                .build();
+    }
+
+    private String buildTokenUrl(String domain) {
+        return domain.endsWith("/")
+                ? domain + OAUTH_TOKEN_ENDPOINT
+                : domain + "/" + OAUTH_TOKEN_ENDPOINT;
+    }
+
+    private record SingleFlightKey(HttpMethod httpMethod, String uri, Class<?> responseType, List<String> headers) {
+    }
+}
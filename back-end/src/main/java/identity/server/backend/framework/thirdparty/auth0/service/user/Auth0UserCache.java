@@ -0,0 +1,173 @@
+package identity.server.backend.framework.thirdparty.auth0.service.user;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0UserResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of Auth0 users by Auth0 user ID and by email.
+ *
+ * Found users are kept for a short TTL; "not found" answers are cached as well, for an even shorter TTL, so
+ * existence checks of unknown users do not hit the Management API each time. Failed lookups are never cached.
+ * Our own writes evict the affected entries; changes made directly in Auth0 show up once the TTL runs out.
+ * Loaders run outside of the cache's locks (a blocking Auth0 call must not pin the carrier of a virtual thread);
+ * concurrent lookups of the same key share one load.
+ */
+@Component
+@Log4j2
+public class Auth0UserCache {
+
+    private final AsyncCache<String, Optional<Auth0UserResponse>> byId;
+    private final AsyncCache<String, Optional<Auth0UserResponse>> byEmail;
+
+    public Auth0UserCache(@Value("${auth0.user-cache.ttl:60s}") Duration ttl,
+                          @Value("${auth0.user-cache.negative-ttl:10s}") Duration negativeTtl,
+                          @Value("${auth0.user-cache.max-size:10000}") long maxSize) {
+        this.byId = build(ttl, negativeTtl, maxSize);
+        this.byEmail = build(ttl, negativeTtl, maxSize);
+
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, byId, "auth0.users.by-id");
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, byEmail, "auth0.users.by-email");
+        FunctionCounter.builder("auth0.user-cache.requests.avoided", this, cache -> cache.getRequestsAvoided())
+                .description("Auth0 user GETs answered from the cache")
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Get a user by Auth0 user ID, loading it on a miss
+     * @param loader Lookup returning null when the user does not exist; exceptions propagate and are not cached
+     */
+    public Auth0UserResponse getById(String auth0Id, Function<String, Auth0UserResponse> loader) {
+        return get(byId, auth0Id, () -> loader.apply(auth0Id));
+    }
+
+    /**
+     * Get a user by email (case-insensitive), loading it on a miss
+     * @param loader Lookup returning null when no user has the email; exceptions propagate and are not cached
+     */
+    public Auth0UserResponse getByEmail(String email, Function<String, Auth0UserResponse> loader) {
+        return get(byEmail, emailKey(email), () -> loader.apply(email));
+    }
+
+    /**
+     * Reactive variant of {@link #getById}: the loader completes empty when the user does not exist
+     */
+    public Mono<Auth0UserResponse> getById(String auth0Id, Mono<Auth0UserResponse> loader) {
+        Mono<Optional<Auth0UserResponse>> load = loader.map(Optional::of).defaultIfEmpty(Optional.empty());
+        return Mono.defer(() -> {
+            CompletableFuture<Optional<Auth0UserResponse>> pending = new CompletableFuture<>();
+            CompletableFuture<Optional<Auth0UserResponse>> future = byId.get(auth0Id, (key, executor) -> pending);
+            if (future != pending) {
+                // Empty: the load we waited for failed, try on our own
+                return Mono.fromFuture(future, true).switchIfEmpty(load);
+            }
+            return load.doOnNext(pending::complete)
+                    .doOnError(error -> pending.complete(null))
+                    .doOnCancel(() -> pending.complete(null));
+        }).flatMap(Mono::justOrEmpty);
+    }
+
+    /**
+     * Drop everything cached about a user after we changed it in Auth0
+     * @param auth0Id Auth0 user ID (may be null)
+     * @param email Email before or after the change (may be null); the cached email of {@code auth0Id} is evicted too
+     */
+    public void evict(String auth0Id, String email) {
+        if (auth0Id != null) {
+            CompletableFuture<Optional<Auth0UserResponse>> cached = byId.asMap().remove(auth0Id);
+            Optional<Auth0UserResponse> user = cached != null ? cached.getNow(null) : null;
+            if (user != null) {
+                user.map(Auth0UserResponse::getEmail).ifPresent(previous -> byEmail.synchronous().invalidate(emailKey(previous)));
+            }
+        }
+        if (email != null) {
+            byEmail.synchronous().invalidate(emailKey(email));
+        }
+        log.debug("Evicted cached Auth0 user: {} / {}", auth0Id, email);
+    }
+
+    public void evictAll() {
+        byId.synchronous().invalidateAll();
+        byEmail.synchronous().invalidateAll();
+    }
+
+    /**
+     * Lookups by ID and email that did not have to go to Auth0
+     */
+    public long getRequestsAvoided() {
+        return statsById().hitCount() + statsByEmail().hitCount();
+    }
+
+    public CacheStats statsById() {
+        return byId.synchronous().stats();
+    }
+
+    public CacheStats statsByEmail() {
+        return byEmail.synchronous().stats();
+    }
+
+    private static Auth0UserResponse get(AsyncCache<String, Optional<Auth0UserResponse>> cache, String key,
+                                         Supplier<Auth0UserResponse> loader) {
+        CompletableFuture<Optional<Auth0UserResponse>> pending = new CompletableFuture<>();
+        CompletableFuture<Optional<Auth0UserResponse>> future = cache.get(key, (k, executor) -> pending);
+        if (future != pending) {
+            Optional<Auth0UserResponse> loaded = future.join();
+            // null: the load we waited for failed, try on our own
+            return loaded != null ? loaded.orElse(null) : loader.get();
+        }
+        try {
+            Auth0UserResponse user = loader.get();
+            pending.complete(Optional.ofNullable(user));
+            return user;
+        } catch (RuntimeException e) {
+            // Completing with null drops the entry; completing exceptionally would also have Caffeine log the error
+            pending.complete(null);
+            throw e;
+        }
+    }
+
+    private static String emailKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static AsyncCache<String, Optional<Auth0UserResponse>> build(Duration ttl, Duration negativeTtl, long maxSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Optional<Auth0UserResponse>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<Auth0UserResponse> value, long currentTime) {
+                        return (value.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<Auth0UserResponse> value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<Auth0UserResponse> value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+}
@@ -1,5 +1,7 @@
 package identity.server.backend.framework.thirdparty.auth0.service.user;
 
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0ConnectionResponse;
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0JobResponse;
 import identity.server.backend.framework.thirdparty.auth0.model.Auth0M2MConfig;
 import identity.server.backend.framework.thirdparty.auth0.model.Auth0UserResponse;
 import identity.server.backend.framework.thirdparty.auth0.model.CreateUserAuth0Request;
@@ -7,29 +9,48 @@ import identity.server.backend.framework.thirdparty.auth0.model.UpdateUserReques
 import identity.server.backend.framework.thirdparty.auth0.service.base.IBaseAuth0;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
 @Log4j2
 @RequiredArgsConstructor
 public class Auth0UserService implements IAuth0UserService {
+    private static final Duration IMPORT_REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
     private final IBaseAuth0 baseAuth0;
     private final Auth0M2MConfig auth0Config;
+    private final Auth0UserCache userCache;
+    private final Map<String, String> connectionIds = new ConcurrentHashMap<>();
 
     @Override
     public Auth0UserResponse createUser(CreateUserAuth0Request request) {
         log.info("Creating user with email: {}", request.getEmail());
         String accessToken = baseAuth0.getAccessToken(auth0Config);
 
-        Auth0UserResponse response = baseAuth0.executePost(
-                auth0Config.getAuth0Domain() + "api/v2/users",
-                request,
-                Auth0UserResponse.class,
-                null,
-                "Authorization", "Bearer " + accessToken,
-                "Content-Type", "application/json"
-        );
+        Auth0UserResponse response;
+        try {
+            response = baseAuth0.executePost(
+                    auth0Config.getAuth0Domain() + "api/v2/users",
+                    request,
+                    Auth0UserResponse.class,
+                    null,
+                    "Authorization", "Bearer " + accessToken,
+                    "Content-Type", "application/json"
+            );
+        } finally {
+            // Drops cached "not found" answers for the new user
+            userCache.evict(request.getUserId(), request.getEmail());
+        }
 
         log.info("User created successfully: {}", response.getUserId());
         return response;
@@ -40,20 +61,39 @@ public class Auth0UserService implements IAuth0UserService {
         log.info("Updating user: {}", auth0UserId);
         String accessToken = baseAuth0.getAccessToken(auth0Config);
 
-        Auth0UserResponse response = baseAuth0.executePatch(
-                auth0Config.getAuth0Domain() + "api/v2/users/" + auth0UserId,
-                request,
-                Auth0UserResponse.class,
-                null,
-                "Authorization", "Bearer " + accessToken,
-                "Content-Type", "application/json"
-        );
+        Auth0UserResponse response;
+        try {
+            response = baseAuth0.executePatch(
+                    auth0Config.getAuth0Domain() + "api/v2/users/" + auth0UserId,
+                    request,
+                    Auth0UserResponse.class,
+                    null,
+                    "Authorization", "Bearer " + accessToken,
+                    "Content-Type", "application/json"
+            );
+        } finally {
+            userCache.evict(auth0UserId, request.getEmail());
+        }
 
         log.info("User updated successfully: {}", response.getUserId());
     }
 
     @Override
     public Auth0UserResponse getUserFilterEmail(String email) throws RuntimeException {
+        return userCache.getByEmail(email, this::fetchUserByEmail);
+    }
+
+    @Override
+    public Auth0UserResponse getUserFilterAuth0Id(String auth0Id) throws RuntimeException {
+        try {
+            return userCache.getById(auth0Id, this::fetchUserByAuth0Id);
+        } catch (Exception e) {
+            log.warn("User not found with Auth0 ID: {}", auth0Id);
+            return null;
+        }
+    }
+
+    private Auth0UserResponse fetchUserByEmail(String email) {
         log.info("Getting user by email: {}", email);
         String accessToken = baseAuth0.getAccessToken(auth0Config);
 
@@ -80,8 +120,10 @@ public class Auth0UserService implements IAuth0UserService {
         return users[0];
     }
 
-    @Override
-    public Auth0UserResponse getUserFilterAuth0Id(String auth0Id) throws RuntimeException {
+    /**
+     * Only a 404 means the user does not exist (and is cached as such); other failures propagate
+     */
+    private Auth0UserResponse fetchUserByAuth0Id(String auth0Id) {
         log.info("Getting user by Auth0 ID: {}", auth0Id);
         String accessToken = baseAuth0.getAccessToken(auth0Config);
 
@@ -95,9 +137,12 @@ public class Auth0UserService implements IAuth0UserService {
 
             log.info("User found with Auth0 ID: {}", auth0Id);
             return response;
-        } catch (Exception e) {
-            log.warn("User not found with Auth0 ID: {}", auth0Id);
-            return null;
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof WebClientResponseException responseException
+                    && responseException.getStatusCode().value() == HttpStatus.NOT_FOUND.value()) {
+                return null;
+            }
+            throw e;
         }
     }
 
@@ -119,6 +164,8 @@ public class Auth0UserService implements IAuth0UserService {
         } catch (Exception e) {
             log.error("Failed to delete user: {}", auth0Id, e);
             return false;
+        } finally {
+            userCache.evict(auth0Id, null);
         }
     }
 
@@ -142,8 +189,89 @@ public class Auth0UserService implements IAuth0UserService {
             );
 
             log.info("User {} successfully: {}", blocked ? "blocked" : "unblocked", auth0Id);
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             log.error("Failed to {} user: {}", blocked ? "block" : "unblock", auth0Id, e);
+            throw e;
+        } finally {
+            userCache.evict(auth0Id, null);
+        }
+    }
+
+    @Override
+    public String getConnectionId(String connectionName) throws RuntimeException {
+        String cached = connectionIds.get(connectionName);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Looked up outside computeIfAbsent: the blocking calls would pin the virtual thread and hold the map bin.
+        // Concurrent first lookups may both call Auth0; the first id stored wins.
+        log.info("Looking up connection id for: {}", connectionName);
+        String accessToken = baseAuth0.getAccessToken(auth0Config);
+
+        String url = UriComponentsBuilder.fromUriString(auth0Config.getAuth0Domain() + "api/v2/connections")
+                .queryParam("name", connectionName)
+                .queryParam("fields", "id,name,strategy")
+                .build()
+                .toUriString();
+
+        Auth0ConnectionResponse[] connections = baseAuth0.executeGet(
+                url,
+                Auth0ConnectionResponse[].class,
+                null,
+                "Authorization", "Bearer " + accessToken
+        );
+
+        if (connections == null || connections.length == 0) {
+            throw new RuntimeException("Auth0 connection not found: " + connectionName);
         }
+        String connectionId = connections[0].getId();
+        String previous = connectionIds.putIfAbsent(connectionName, connectionId);
+        return previous != null ? previous : connectionId;
+    }
+
+    /**
+     * Create a user import job. Auth0 rejects users files over 500KB and limits concurrent import jobs per tenant,
+     * so callers split large imports and submit them one after another.
+     * @param connectionId Database connection the users are imported into
+     * @param usersJson JSON array of {@link identity.server.backend.framework.thirdparty.auth0.model.Auth0ImportUser}
+     * @param externalId Our reference for the job
+     * @return The created job (status pending)
+     */
+    @Override
+    public Auth0JobResponse importUsers(String connectionId, byte[] usersJson, String externalId) throws RuntimeException {
+        log.info("Creating user import job {} ({} bytes) for connection: {}", externalId, usersJson.length, connectionId);
+        String accessToken = baseAuth0.getAccessToken(auth0Config);
+
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("users", new ByteArrayResource(usersJson), MediaType.APPLICATION_JSON).filename("users.json");
+        body.part("connection_id", connectionId);
+        body.part("upsert", "false");
+        body.part("send_completion_email", "false");
+        body.part("external_id", externalId);
+
+        Auth0JobResponse response = baseAuth0.executePost(
+                auth0Config.getAuth0Domain() + "api/v2/jobs/users-imports",
+                body.build(),
+                Auth0JobResponse.class,
+                IMPORT_REQUEST_TIMEOUT,
+                "Authorization", "Bearer " + accessToken
+        );
+
+        log.info("User import job created: {}", response.getId());
+        return response;
+    }
+
+    @Override
+    public Auth0JobResponse getJob(String jobId) throws RuntimeException {
+        log.debug("Getting job: {}", jobId);
+        String accessToken = baseAuth0.getAccessToken(auth0Config);
+
+        return baseAuth0.executeGet(
+                auth0Config.getAuth0Domain() + "api/v2/jobs/" + jobId,
+                Auth0JobResponse.class,
+                null,
+                "Authorization", "Bearer " + accessToken
+        );
     }
 }
@@ -1,5 +1,6 @@
 package identity.server.backend.framework.thirdparty.auth0.service.user;
 
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0JobResponse;
 import identity.server.backend.framework.thirdparty.auth0.model.Auth0UserResponse;
 import identity.server.backend.framework.thirdparty.auth0.model.CreateUserAuth0Request;
 import identity.server.backend.framework.thirdparty.auth0.model.UpdateUserRequest;
@@ -16,4 +17,10 @@ public interface IAuth0UserService {
     Boolean deleteUser(String auth0Id) throws RuntimeException;
 
     void blockUser(String auth0Id, Boolean blocked) throws RuntimeException;
+
+    String getConnectionId(String connectionName) throws RuntimeException;
+
+    Auth0JobResponse importUsers(String connectionId, byte[] usersJson, String externalId) throws RuntimeException;
+
+    Auth0JobResponse getJob(String jobId) throws RuntimeException;
 }
@@ -0,0 +1,33 @@
+package identity.server.backend.framework.thirdparty.auth0.service.user;
+
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0BulkResult;
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0UserResponse;
+import identity.server.backend.framework.thirdparty.auth0.model.CreateUserAuth0Request;
+import identity.server.backend.framework.thirdparty.auth0.model.UpdateUserRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Non-blocking counterpart of {@link IAuth0UserService}: token acquisition and the Management API call are
+ * composed without holding a thread while Auth0 responds
+ */
+public interface IReactiveAuth0UserService {
+    Mono<Auth0UserResponse> createUser(CreateUserAuth0Request request);
+
+    Mono<Void> updateUser(String auth0UserId, UpdateUserRequest request);
+
+    /**
+     * @return The user, or empty when Auth0 answers 404
+     */
+    Mono<Auth0UserResponse> getUserFilterAuth0Id(String auth0Id);
+
+    Mono<Void> blockUser(String auth0Id, boolean blocked);
+
+    /**
+     * Block or unblock many users with at most {@code maxConcurrency} requests in flight.
+     * A failure of one user does not stop the others; it is reported in its result.
+     */
+    Flux<Auth0BulkResult> blockUsers(Collection<String> auth0Ids, boolean blocked, int maxConcurrency);
+}
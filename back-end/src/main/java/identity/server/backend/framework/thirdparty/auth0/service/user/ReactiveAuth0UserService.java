@@ -0,0 +1,109 @@
+package identity.server.backend.framework.thirdparty.auth0.service.user;
+
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0BulkResult;
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0M2MConfig;
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0UserResponse;
+import identity.server.backend.framework.thirdparty.auth0.model.CreateUserAuth0Request;
+import identity.server.backend.framework.thirdparty.auth0.model.UpdateUserRequest;
+import identity.server.backend.framework.thirdparty.auth0.service.base.IReactiveBaseAuth0;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@Service
+@Log4j2
+@RequiredArgsConstructor
+public class ReactiveAuth0UserService implements IReactiveAuth0UserService {
+
+    private final IReactiveBaseAuth0 baseAuth0;
+    private final Auth0M2MConfig auth0Config;
+    private final Auth0UserCache userCache;
+
+    @Override
+    public Mono<Auth0UserResponse> createUser(CreateUserAuth0Request request) {
+        return baseAuth0.getAccessToken(auth0Config)
+                .flatMap(accessToken -> baseAuth0.executePost(
+                        auth0Config.getAuth0Domain() + "api/v2/users",
+                        request,
+                        Auth0UserResponse.class,
+                        null,
+                        "Authorization", "Bearer " + accessToken,
+                        "Content-Type", "application/json"))
+                .doOnSuccess(response -> log.info("User created successfully: {}", response.getUserId()))
+                .doOnError(e -> log.error("Failed to create user with email: {}", request.getEmail(), e))
+                // Drops cached "not found" answers for the new user
+                .doFinally(signal -> userCache.evict(request.getUserId(), request.getEmail()));
+    }
+
+    @Override
+    public Mono<Void> updateUser(String auth0UserId, UpdateUserRequest request) {
+        return baseAuth0.getAccessToken(auth0Config)
+                .flatMap(accessToken -> baseAuth0.executePatch(
+                        auth0Config.getAuth0Domain() + "api/v2/users/" + auth0UserId,
+                        request,
+                        Auth0UserResponse.class,
+                        null,
+                        "Authorization", "Bearer " + accessToken,
+                        "Content-Type", "application/json"))
+                .doOnSuccess(response -> log.info("User updated successfully: {}", auth0UserId))
+                .doOnError(e -> log.error("Failed to update user: {}", auth0UserId, e))
+                .doFinally(signal -> userCache.evict(auth0UserId, request.getEmail()))
+                .then();
+    }
+
+    @Override
+    public Mono<Auth0UserResponse> getUserFilterAuth0Id(String auth0Id) {
+        return userCache.getById(auth0Id, fetchUserByAuth0Id(auth0Id));
+    }
+
+    private Mono<Auth0UserResponse> fetchUserByAuth0Id(String auth0Id) {
+        return baseAuth0.getAccessToken(auth0Config)
+                .flatMap(accessToken -> baseAuth0.executeGet(
+                        auth0Config.getAuth0Domain() + "api/v2/users/" + auth0Id,
+                        Auth0UserResponse.class,
+                        null,
+                        "Authorization", "Bearer " + accessToken))
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    if (e.getStatusCode().value() == HttpStatus.NOT_FOUND.value()) {
+                        log.warn("User not found with Auth0 ID: {}", auth0Id);
+                        return Mono.empty();
+                    }
+                    return Mono.error(e);
+                });
+    }
+
+    @Override
+    public Mono<Void> blockUser(String auth0Id, boolean blocked) {
+        UpdateUserRequest request = UpdateUserRequest.builder()
+                .blocked(blocked)
+                .build();
+
+        return baseAuth0.getAccessToken(auth0Config)
+                .flatMap(accessToken -> baseAuth0.executePatch(
+                        auth0Config.getAuth0Domain() + "api/v2/users/" + auth0Id,
+                        request,
+                        Auth0UserResponse.class,
+                        null,
+                        "Authorization", "Bearer " + accessToken,
+                        "Content-Type", "application/json"))
+                .doOnSuccess(response -> log.info("User {} successfully: {}", blocked ? "blocked" : "unblocked", auth0Id))
+                .doOnError(e -> log.error("Failed to {} user: {}", blocked ? "block" : "unblock", auth0Id, e))
+                .doFinally(signal -> userCache.evict(auth0Id, null))
+                .then();
+    }
+
+    @Override
+    public Flux<Auth0BulkResult> blockUsers(Collection<String> auth0Ids, boolean blocked, int maxConcurrency) {
+        return Flux.fromIterable(auth0Ids)
+                .flatMap(auth0Id -> blockUser(auth0Id, blocked)
+                        .thenReturn(Auth0BulkResult.success(auth0Id))
+                        .onErrorResume(e -> Mono.just(Auth0BulkResult.failure(auth0Id, e))),
+                        maxConcurrency);
+    }
+}
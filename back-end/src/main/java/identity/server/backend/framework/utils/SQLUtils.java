@@ -1,7 +1,16 @@
 package identity.server.backend.framework.utils;
 
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
 public class SQLUtils {
 
+    /**
+     * Build a "contains" LIKE pattern from user input, e.g. {@code 50%_off} becomes {@code %50\%\_off%}.
+     * The escape character is a backslash; queries must declare it with {@code ESCAPE '\'}, because Hibernate
+     * renders a LIKE without an escape clause as {@code escape ''}.
+     */
     public static String wildcardsLike(String searchKey) {
         if (searchKey != null) {
             return "%" + wildcards(searchKey) + "%";
@@ -9,18 +18,33 @@ public class SQLUtils {
         return null;
     }
 
+    /**
+     * Escape the LIKE metacharacters of user input so they match literally.
+     * The escape character itself is escaped first so it cannot cancel the following escapes.
+     */
     public static String wildcards(String searchKey) {
         if (searchKey != null) {
             searchKey = searchKey.trim();
+            searchKey = searchKey.replace("\\", "\\\\");
             searchKey = searchKey.replace("%", "\\%");
             searchKey = searchKey.replace("_", "\\_");
-            searchKey = searchKey.replace("'", "\\'");
-            searchKey = searchKey.replace(";", "\\;");
-            searchKey = searchKey.replace("-", "\\-");
-            searchKey = searchKey.replace("*", "\\*");
-            searchKey = searchKey.replace("/", "\\/");
         }
         return searchKey;
     }
-}
 
+    /**
+     * Build a prefix-matching tsquery from user input, e.g. {@code "John D."} becomes {@code john:* & d:*}.
+     * Only letters and digits are kept, so the result is always valid {@code to_tsquery} syntax.
+     * @return The query text, or null when the input has no searchable token
+     */
+    public static String prefixTsQuery(String searchKey) {
+        if (searchKey == null) {
+            return null;
+        }
+        String query = Arrays.stream(searchKey.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+        return query.isEmpty() ? null : query;
+    }
+}
@@ -2,15 +2,31 @@ package identity.server.backend.framework.utils;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ThreadUtil {
-    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(10);
+    private static volatile Executor executor = Executors.newFixedThreadPool(10);
 
     public static void runAsync(Runnable runnable) {
-        EXECUTOR.execute(runnable);
+        executor.execute(runnable);
+    }
+
+    /**
+     * Run every task on its own virtual thread instead of the fixed pool of 10 platform threads (Java 21+)
+     */
+    public static synchronized void useVirtualThreads() {
+        if (executor instanceof VirtualThreadTaskExecutor) {
+            return;
+        }
+        Executor previous = executor;
+        executor = new VirtualThreadTaskExecutor("thread-util-");
+        if (previous instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
     }
 }
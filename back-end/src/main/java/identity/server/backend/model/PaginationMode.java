@@ -0,0 +1,10 @@
+package identity.server.backend.model;
+
+/**
+ * OFFSET: page number + size, returns a {@link org.springframework.data.domain.Page} with total count.
+ * KEYSET: continuation cursor + size, seeks past the last row of the previous page and skips the count query.
+ */
+public enum PaginationMode {
+    OFFSET,
+    KEYSET
+}
@@ -0,0 +1,79 @@
+package identity.server.backend.model.request.user;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import identity.server.backend.framework.exception.BadRequestException;
+import identity.server.backend.repository.projection.UserListItem;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Continuation token for keyset pagination of users.
+ * Holds the sort key and id of the last row returned, encoded as URL-safe Base64 JSON
+ * so clients treat it as opaque.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserCursor {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private SortByUser sortBy;
+    private Sort.Direction orderBy;
+    private String value;
+    private UUID id;
+
+    public static UserCursor of(SortByUser sortBy, Sort.Direction orderBy, UserListItem lastUser) {
+        String value = switch (sortBy) {
+            case EMAIL -> lastUser.email();
+            case USERNAME -> lastUser.username();
+            case CREATED_DATE -> lastUser.createdDate().toString();
+            case STATUS -> String.valueOf(lastUser.isDelete());
+        };
+        return new UserCursor(sortBy, orderBy, value, lastUser.id());
+    }
+
+    public static UserCursor decode(String cursor) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            UserCursor decoded = OBJECT_MAPPER.readValue(json, UserCursor.class);
+            if (decoded.getSortBy() == null || decoded.getOrderBy() == null
+                    || decoded.getValue() == null || decoded.getId() == null) {
+                throw new IllegalArgumentException("Incomplete cursor");
+            }
+            decoded.getSortValue();
+            return decoded;
+        } catch (Exception e) {
+            throw new BadRequestException("Invalid pagination cursor.");
+        }
+    }
+
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(OBJECT_MAPPER.writeValueAsString(this).getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode pagination cursor", e);
+        }
+    }
+
+    /**
+     * The last sort key converted to the Java type of the sorted attribute
+     */
+    @JsonIgnore
+    public Object getSortValue() {
+        return switch (sortBy) {
+            case EMAIL, USERNAME -> value;
+            case CREATED_DATE -> Instant.parse(value);
+            case STATUS -> Boolean.valueOf(value);
+        };
+    }
+}
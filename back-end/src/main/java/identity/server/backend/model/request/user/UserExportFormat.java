@@ -0,0 +1,17 @@
+package identity.server.backend.model.request.user;
+
+import lombok.Getter;
+
+@Getter
+public enum UserExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+    private final String contentType;
+    private final String extension;
+
+    UserExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+}
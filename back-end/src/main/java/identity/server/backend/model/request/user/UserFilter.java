@@ -22,4 +22,5 @@ public class UserFilter extends BaseFilter {
     private Instant createdDateFrom;
     private Instant createdDateTo;
     private Set<UUID> roleIds;
+    private String cursor;
 }
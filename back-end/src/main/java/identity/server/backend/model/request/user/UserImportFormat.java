@@ -0,0 +1,10 @@
+package identity.server.backend.model.request.user;
+
+/**
+ * CSV: semicolon separated with a header row, as liquibase/data/user.csv.
+ * JSON: array of objects with the same field names.
+ */
+public enum UserImportFormat {
+    CSV,
+    JSON
+}
@@ -0,0 +1,60 @@
+package identity.server.backend.model.request.user;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One user of a bulk import file. Field names follow liquibase/data/user.csv
+ * (id;login;password_hash;first_name;last_name;email;image_url;activated;...); unknown columns are ignored.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserImportRow {
+
+    @NotBlank(message = "Email is required")
+    @Email(message = "Email must be a valid email address")
+    @Size(min = 5, max = 254, message = "Email must be between 5 and 254 characters")
+    private String email;
+
+    @NotBlank(message = "Login is required")
+    @Size(min = 3, max = 50, message = "Login must be between 3 and 50 characters")
+    @Pattern(regexp = "^[a-zA-Z0-9_-]+$", message = "Login can only contain letters, numbers, underscore and hyphen")
+    @JsonAlias("username")
+    private String login;
+
+    @Pattern(regexp = "^\\$2[aby]\\$\\d{2}\\$[./A-Za-z0-9]{53}$", message = "Password hash must be a bcrypt hash")
+    @JsonProperty("password_hash")
+    private String passwordHash;
+
+    @Size(max = 50, message = "First name must not exceed 50 characters")
+    @JsonProperty("first_name")
+    private String firstName;
+
+    @Size(max = 50, message = "Last name must not exceed 50 characters")
+    @JsonProperty("last_name")
+    private String lastName;
+
+    @JsonProperty("image_url")
+    private String imageUrl;
+
+    private Boolean activated;
+
+    @JsonIgnore
+    public String getName() {
+        String name = ((firstName != null ? firstName.trim() : "") + " " + (lastName != null ? lastName.trim() : "")).trim();
+        return name.isEmpty() ? null : name;
+    }
+}
@@ -0,0 +1,10 @@
+package identity.server.backend.model.request.user;
+
+/**
+ * CONTAINS: case-insensitive substring match on email and username.
+ * FULL_TEXT: prefix-aware full-text match on username, email local part and name, ranked by relevance.
+ */
+public enum UserSearchMode {
+    CONTAINS,
+    FULL_TEXT
+}
@@ -0,0 +1,30 @@
+package identity.server.backend.model.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset (cursor) paginated result. There is no total count;
+ * pass {@code nextCursor} back to fetch the following slice.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    private List<T> content;
+
+    private int size;
+
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    @JsonProperty("has_next")
+    private boolean hasNext;
+}
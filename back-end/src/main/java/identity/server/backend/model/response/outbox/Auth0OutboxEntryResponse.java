@@ -0,0 +1,68 @@
+package identity.server.backend.model.response.outbox;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import identity.server.backend.domain.Auth0OutboxEntry;
+import identity.server.backend.framework.enums.Auth0OutboxOperation;
+import identity.server.backend.framework.enums.Auth0OutboxStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Delivery state of an outbox entry; the payload is never exposed
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Auth0OutboxEntryResponse {
+
+    private UUID id;
+
+    @JsonProperty("user_id")
+    private UUID userId;
+
+    @JsonProperty("auth0_user_id")
+    private String auth0UserId;
+
+    private Auth0OutboxOperation operation;
+
+    private Auth0OutboxStatus status;
+
+    private int attempts;
+
+    @JsonProperty("next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @JsonProperty("last_error")
+    private String lastError;
+
+    @JsonProperty("last_status")
+    private Integer lastStatus;
+
+    @JsonProperty("sent_at")
+    private Instant sentAt;
+
+    @JsonProperty("created_date")
+    private Instant createdDate;
+
+    public static Auth0OutboxEntryResponse mapToResponse(Auth0OutboxEntry entry) {
+        return Auth0OutboxEntryResponse.builder()
+                .id(entry.getId())
+                .userId(entry.getUserId())
+                .auth0UserId(entry.getAuth0UserId())
+                .operation(entry.getOperation())
+                .status(entry.getStatus())
+                .attempts(entry.getAttempts())
+                .nextAttemptAt(entry.getNextAttemptAt())
+                .lastError(entry.getLastError())
+                .lastStatus(entry.getLastStatus())
+                .sentAt(entry.getSentAt())
+                .createdDate(entry.getCreatedDate())
+                .build();
+    }
+}
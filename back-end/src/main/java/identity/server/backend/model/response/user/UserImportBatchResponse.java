@@ -0,0 +1,70 @@
+package identity.server.backend.model.response.user;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import identity.server.backend.domain.UserImportBatch;
+import identity.server.backend.framework.enums.UserImportBatchStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Progress of one Auth0 user import job of a bulk import
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportBatchResponse {
+
+    @JsonProperty("batch_number")
+    private int batchNumber;
+
+    @JsonProperty("user_count")
+    private int userCount;
+
+    private UserImportBatchStatus status;
+
+    @JsonProperty("auth0_job_id")
+    private String auth0JobId;
+
+    @JsonProperty("auth0_status")
+    private String auth0Status;
+
+    @JsonProperty("percentage_done")
+    private Integer percentageDone;
+
+    private int inserted;
+
+    private int updated;
+
+    private int failed;
+
+    @JsonProperty("error_message")
+    private String errorMessage;
+
+    @JsonProperty("submitted_at")
+    private Instant submittedAt;
+
+    @JsonProperty("completed_at")
+    private Instant completedAt;
+
+    public static UserImportBatchResponse mapToResponse(UserImportBatch batch) {
+        return UserImportBatchResponse.builder()
+                .batchNumber(batch.getBatchNumber())
+                .userCount(batch.getUserCount())
+                .status(batch.getStatus())
+                .auth0JobId(batch.getAuth0JobId())
+                .auth0Status(batch.getAuth0Status())
+                .percentageDone(batch.getPercentageDone())
+                .inserted(batch.getInserted())
+                .updated(batch.getUpdated())
+                .failed(batch.getFailed())
+                .errorMessage(batch.getErrorMessage())
+                .submittedAt(batch.getSubmittedAt())
+                .completedAt(batch.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package identity.server.backend.model.response.user;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import identity.server.backend.domain.UserImportBatch;
+import identity.server.backend.domain.UserImportJob;
+import identity.server.backend.framework.enums.UserImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for a bulk user import and its Auth0 import jobs
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportJobResponse {
+
+    private UUID id;
+
+    @JsonProperty("file_name")
+    private String fileName;
+
+    private UserImportStatus status;
+
+    @JsonProperty("total_rows")
+    private int totalRows;
+
+    @JsonProperty("invalid_rows")
+    private int invalidRows;
+
+    @JsonProperty("duplicate_rows")
+    private int duplicateRows;
+
+    @JsonProperty("inserted_rows")
+    private int insertedRows;
+
+    @JsonProperty("auth0_inserted")
+    private int auth0Inserted;
+
+    @JsonProperty("auth0_updated")
+    private int auth0Updated;
+
+    @JsonProperty("auth0_failed")
+    private int auth0Failed;
+
+    @JsonProperty("validation_errors")
+    private List<String> validationErrors;
+
+    private List<UserImportBatchResponse> batches;
+
+    @JsonProperty("created_by")
+    private String createdBy;
+
+    @JsonProperty("created_date")
+    private Instant createdDate;
+
+    @JsonProperty("last_modified_date")
+    private Instant lastModifiedDate;
+
+    public static UserImportJobResponse mapToResponse(UserImportJob job, List<UserImportBatch> batches) {
+        return UserImportJobResponse.builder()
+                .id(job.getId())
+                .fileName(job.getFileName())
+                .status(job.getStatus())
+                .totalRows(job.getTotalRows())
+                .invalidRows(job.getInvalidRows())
+                .duplicateRows(job.getDuplicateRows())
+                .insertedRows(job.getInsertedRows())
+                .auth0Inserted(job.getAuth0Inserted())
+                .auth0Updated(job.getAuth0Updated())
+                .auth0Failed(job.getAuth0Failed())
+                .validationErrors(job.getValidationErrors() != null
+                        ? job.getValidationErrors().lines().toList()
+                        : List.of())
+                .batches(batches.stream().map(UserImportBatchResponse::mapToResponse).toList())
+                .createdBy(job.getCreatedBy())
+                .createdDate(job.getCreatedDate())
+                .lastModifiedDate(job.getLastModifiedDate())
+                .build();
+    }
+}
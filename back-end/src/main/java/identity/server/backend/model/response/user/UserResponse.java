@@ -3,12 +3,14 @@ package identity.server.backend.model.response.user;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import identity.server.backend.domain.User;
 import identity.server.backend.model.response.Role.RoleBaseResponse;
+import identity.server.backend.repository.projection.UserListItem;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -88,4 +90,22 @@ public class UserResponse {
                 .isDelete(user.isDelete())
                 .build();
     }
+
+    public static UserResponse mapToUserResponse(UserListItem user, Set<RoleBaseResponse> roles) {
+        return UserResponse.builder()
+                .id(user.id())
+                .username(user.username())
+                .email(user.email())
+                .auth0UserId(user.auth0UserId())
+                .name(user.name())
+                .activated(user.activated())
+                .urlAvatar(user.urlAvatar())
+                .roles(roles != null ? roles : new HashSet<>())
+                .createdBy(user.createdBy())
+                .createdDate(user.createdDate())
+                .lastModifiedBy(user.lastModifiedBy())
+                .lastModifiedDate(user.lastModifiedDate())
+                .isDelete(user.isDelete())
+                .build();
+    }
 }
@@ -0,0 +1,48 @@
+package identity.server.backend.repository;
+
+import identity.server.backend.domain.Auth0OutboxEntry;
+import identity.server.backend.framework.enums.Auth0OutboxStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface Auth0OutboxRepository extends JpaRepository<Auth0OutboxEntry, UUID> {
+
+    /**
+     * Lock the oldest entries that are due, skipping rows another instance already holds.
+     * Due entries are PENDING ones whose next attempt has come, and SENDING ones whose claim has expired.
+     * An entry is only returned once every earlier entry of the same user is delivered or discarded, so
+     * Auth0 sees the changes of a user in the order they were committed. Block and unblock entries also pass
+     * an earlier entry that Auth0 rejected with a 4xx: sending it again cannot succeed, and holding them back
+     * would leave a deleted or deactivated user able to sign in.
+     */
+    @Query(value = """
+            SELECT o.* FROM auth0_outbox o
+            WHERE o.status IN ('PENDING', 'SENDING')
+              AND o.next_attempt_at <= :now
+              AND NOT EXISTS (
+                  SELECT 1 FROM auth0_outbox p
+                  WHERE p.user_id = o.user_id
+                    AND p.seq < o.seq
+                    AND p.status NOT IN ('SENT', 'DISCARDED')
+                    AND NOT (p.status = 'FAILED'
+                             AND p.last_status BETWEEN 400 AND 499
+                             AND o.operation IN ('BLOCK_USER', 'UNBLOCK_USER')))
+            ORDER BY o.seq
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Auth0OutboxEntry> lockDeliverable(@Param("now") Instant now, @Param("limit") int limit);
+
+    Page<Auth0OutboxEntry> findByStatus(Auth0OutboxStatus status, Pageable pageable);
+
+    long countByStatus(Auth0OutboxStatus status);
+}
@@ -21,7 +21,7 @@ public interface RoleRepository extends JpaRepository<Role, UUID> {
 
     /**
      * Search roles by code or description with pagination and status filter
-     * @param search Search keyword (searches in both code and description)
+     * @param search Lower-cased LIKE pattern built with SQLUtils.wildcardsLike (matched against code and description)
      * @param isDelete Filter by isDelete status (null = all, true = deleted, false = active)
      * @param createdDateFrom Filter roles created from this date (inclusive, UTC time)
      * @param createdDateTo Filter roles created until this date (inclusive, UTC time)
@@ -30,9 +30,9 @@ public interface RoleRepository extends JpaRepository<Role, UUID> {
      */
     @Query("""
        SELECT r FROM Role r
-       WHERE (:search IS NULL OR :search = ''
-              OR LOWER(CAST(r.code AS string)) LIKE LOWER(CONCAT('%', :search, '%'))
-              OR LOWER(CAST(r.description AS string)) LIKE LOWER(CONCAT('%', :search, '%')))
+       WHERE (:search IS NULL
+              OR LOWER(r.code) LIKE :search ESCAPE '\\'
+              OR LOWER(r.description) LIKE :search ESCAPE '\\')
        AND (:isDelete IS NULL OR r.isDelete = :isDelete)
        AND (CAST(:createdDateFrom AS java.time.Instant) IS NULL OR r.createdDate >= :createdDateFrom)
        AND (CAST(:createdDateTo AS java.time.Instant) IS NULL OR r.createdDate <= :createdDateTo)
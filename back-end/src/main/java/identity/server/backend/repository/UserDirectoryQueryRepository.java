@@ -0,0 +1,194 @@
+package identity.server.backend.repository;
+
+import identity.server.backend.model.response.Role.RoleBaseResponse;
+import identity.server.backend.model.response.user.UserResponse;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Read-only directory queries that project rows straight into response DTOs, bypassing the persistence context.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserDirectoryQueryRepository {
+
+    private static final RowMapper<UserResponse> USER_RESPONSE_MAPPER = UserDirectoryQueryRepository::mapUserResponse;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    // Not a Spring Data repository, so not covered by spring.data.repository.requests
+    private final Timer fullTextSearchTimer = queryTimer("searchUsersFullText");
+    private final Timer rolesByUserIdsTimer = queryTimer("findRolesByUserIds");
+
+    /**
+     * Full-text search over users.search_vector ordered by ts_rank.
+     *
+     * Ranking needs the rows themselves, so only a bounded candidate set is ranked: up to {@code candidateLimit}
+     * strong matches (username or email local part, weights A and B) from their own GIN index, plus up to
+     * {@code candidateLimit} matches of any field. Weak name matches therefore cannot crowd the strong ones out of
+     * the candidates, and broad queries (e.g. a single letter) rank at most twice the cap. Users are joined and
+     * their roles aggregated for the top {@code limit} candidates only.
+     *
+     * @param tsQuery        Query in to_tsquery syntax, see SQLUtils.prefixTsQuery
+     * @param isDelete       Filter by isDelete status (null = all)
+     * @param createdDateFrom Filter users created from this date (inclusive)
+     * @param createdDateTo  Filter users created until this date (inclusive)
+     * @param roleIds        Users must have at least one of these roles (null or empty = no filter)
+     * @param limit          Number of results to return
+     * @param candidateLimit Maximum number of matches per candidate set considered for ranking
+     * @return Users ordered by descending rank
+     */
+    public List<UserResponse> searchUsersFullText(String tsQuery,
+                                                  Boolean isDelete,
+                                                  Instant createdDateFrom,
+                                                  Instant createdDateTo,
+                                                  Set<UUID> roleIds,
+                                                  int limit,
+                                                  int candidateLimit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", tsQuery)
+                .addValue("limit", limit)
+                .addValue("candidateLimit", Math.max(candidateLimit, limit));
+
+        StringBuilder filters = new StringBuilder();
+        if (isDelete != null) {
+            filters.append(" AND u.is_delete = :isDelete");
+            params.addValue("isDelete", isDelete);
+        }
+        if (createdDateFrom != null) {
+            filters.append(" AND u.created_date >= :createdDateFrom");
+            params.addValue("createdDateFrom", Timestamp.from(createdDateFrom));
+        }
+        if (createdDateTo != null) {
+            filters.append(" AND u.created_date <= :createdDateTo");
+            params.addValue("createdDateTo", Timestamp.from(createdDateTo));
+        }
+        if (roleIds != null && !roleIds.isEmpty()) {
+            filters.append(" AND EXISTS (SELECT 1 FROM user_role ur WHERE ur.user_id = u.id AND ur.role_id IN (:roleIds))");
+            params.addValue("roleIds", roleIds);
+        }
+
+        // ts_filter(search_vector, '{a,b}') is the expression of idx_users_search_vector_strong
+        String sql = """
+                WITH candidates AS (
+                    (SELECT u.id
+                     FROM users u
+                     WHERE ts_filter(u.search_vector, '{a,b}') @@ to_tsquery('simple', :query)
+                """ + filters + """
+
+                     LIMIT :candidateLimit)
+                    UNION
+                    (SELECT u.id
+                     FROM users u
+                     WHERE u.search_vector @@ to_tsquery('simple', :query)
+                """ + filters + """
+
+                     LIMIT :candidateLimit)
+                ),
+                ranked AS (
+                    SELECT u.id, ts_rank(u.search_vector, to_tsquery('simple', :query)) AS rank
+                    FROM candidates c
+                    JOIN users u ON u.id = c.id
+                    ORDER BY rank DESC, u.id
+                    LIMIT :limit
+                )
+                SELECT u.id, u.username, u.email, u.auth0_user_id, u.name, u.activated, u.url_avatar,
+                       u.created_by, u.created_date, u.last_modified_by, u.last_modified_date, u.is_delete,
+                       ARRAY(SELECT r.id || ':' || r.code
+                             FROM user_role ur JOIN role r ON r.id = ur.role_id
+                             WHERE ur.user_id = u.id) AS roles
+                FROM ranked c
+                JOIN users u ON u.id = c.id
+                ORDER BY c.rank DESC, u.id
+                """;
+
+        return fullTextSearchTimer.record(() -> jdbcTemplate.query(sql, params, USER_RESPONSE_MAPPER));
+    }
+
+    /**
+     * Load the roles of a page of users with one aggregated query
+     * @param userIds Users of the page
+     * @return Roles per user id; users without roles are absent
+     */
+    public Map<UUID, Set<RoleBaseResponse>> findRolesByUserIds(Collection<UUID> userIds) {
+        Map<UUID, Set<RoleBaseResponse>> rolesByUser = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return rolesByUser;
+        }
+
+        String sql = """
+                SELECT ur.user_id, array_agg(r.id || ':' || r.code) AS roles
+                FROM user_role ur
+                JOIN role r ON r.id = ur.role_id
+                WHERE ur.user_id IN (:userIds)
+                GROUP BY ur.user_id
+                """;
+
+        rolesByUserIdsTimer.record(() -> jdbcTemplate.query(sql, new MapSqlParameterSource("userIds", userIds), rs -> {
+            rolesByUser.put(rs.getObject("user_id", UUID.class), mapRoles(rs.getArray("roles")));
+        }));
+        return rolesByUser;
+    }
+
+    private static Timer queryTimer(String method) {
+        return Timer.builder("user.directory.queries")
+                .description("Read-only directory queries")
+                .tag("method", method)
+                .register(Metrics.globalRegistry);
+    }
+
+    private static UserResponse mapUserResponse(ResultSet rs, int rowNum) throws SQLException {
+        return UserResponse.builder()
+                .id(rs.getObject("id", UUID.class))
+                .username(rs.getString("username"))
+                .email(rs.getString("email"))
+                .auth0UserId(rs.getString("auth0_user_id"))
+                .name(rs.getString("name"))
+                .activated(rs.getBoolean("activated"))
+                .urlAvatar(rs.getString("url_avatar"))
+                .roles(mapRoles(rs.getArray("roles")))
+                .createdBy(rs.getString("created_by"))
+                .createdDate(toInstant(rs.getTimestamp("created_date")))
+                .lastModifiedBy(rs.getString("last_modified_by"))
+                .lastModifiedDate(toInstant(rs.getTimestamp("last_modified_date")))
+                .isDelete(rs.getBoolean("is_delete"))
+                .build();
+    }
+
+    // Each element is "<role uuid>:<role code>"
+    private static Set<RoleBaseResponse> mapRoles(Array array) throws SQLException {
+        Set<RoleBaseResponse> roles = new HashSet<>();
+        if (array == null) {
+            return roles;
+        }
+        for (String role : (String[]) array.getArray()) {
+            int separator = role.indexOf(':');
+            roles.add(RoleBaseResponse.builder()
+                    .id(UUID.fromString(role.substring(0, separator)))
+                    .code(role.substring(separator + 1))
+                    .build());
+        }
+        return roles;
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
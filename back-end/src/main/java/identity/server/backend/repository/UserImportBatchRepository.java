@@ -0,0 +1,49 @@
+package identity.server.backend.repository;
+
+import identity.server.backend.domain.UserImportBatch;
+import identity.server.backend.framework.enums.UserImportBatchStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UserImportBatchRepository extends JpaRepository<UserImportBatch, UUID> {
+
+    List<UserImportBatch> findByJobIdOrderByBatchNumber(UUID jobId);
+
+    long countByStatusIn(Collection<UserImportBatchStatus> statuses);
+
+    @Query("SELECT b FROM UserImportBatch b WHERE b.status = :status ORDER BY b.createdDate, b.batchNumber")
+    List<UserImportBatch> findByStatus(@Param("status") UserImportBatchStatus status, Pageable pageable);
+
+    /**
+     * Lock the oldest batches in a status, skipping rows another instance already holds
+     * (SELECT ... FOR UPDATE SKIP LOCKED), so each batch is handled by one instance at a time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT b FROM UserImportBatch b WHERE b.status = :status ORDER BY b.createdDate, b.batchNumber")
+    List<UserImportBatch> lockByStatus(@Param("status") UserImportBatchStatus status, Pageable pageable);
+
+    /**
+     * Lock batches left in a status since before {@code submittedBefore}, skipping rows another instance holds
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT b FROM UserImportBatch b WHERE b.status = :status AND b.submittedAt < :submittedBefore")
+    List<UserImportBatch> lockBySubmittedAtBefore(@Param("status") UserImportBatchStatus status,
+                                                  @Param("submittedBefore") Instant submittedBefore,
+                                                  Pageable pageable);
+}
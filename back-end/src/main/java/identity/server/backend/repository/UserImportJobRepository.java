@@ -0,0 +1,11 @@
+package identity.server.backend.repository;
+
+import identity.server.backend.domain.UserImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface UserImportJobRepository extends JpaRepository<UserImportJob, UUID> {
+}
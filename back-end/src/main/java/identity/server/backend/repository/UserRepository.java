@@ -1,8 +1,6 @@
 package identity.server.backend.repository;
 
 import identity.server.backend.domain.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
@@ -11,11 +9,10 @@ import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserRepositoryCustom {
 
     /**
      * Find user by ID with pessimistic write lock (SELECT FOR UPDATE)
@@ -37,22 +34,4 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
 
     Optional<User> findByUsername(String username);
-
-    @Query("""
-       SELECT DISTINCT u FROM User u LEFT JOIN u.roles r
-       WHERE (:search IS NULL OR :search = ''
-              OR LOWER(CAST(u.email AS string)) LIKE LOWER(CONCAT('%', :search, '%'))
-              OR LOWER(CAST(u.username AS string)) LIKE LOWER(CONCAT('%', :search, '%')))
-       AND (:isDelete IS NULL OR u.isDelete = :isDelete)
-       AND (CAST(:createdDateFrom AS java.time.Instant) IS NULL OR u.createdDate >= :createdDateFrom)
-       AND (CAST(:createdDateTo AS java.time.Instant) IS NULL OR u.createdDate <= :createdDateTo)
-       AND (:roleIds IS NULL OR r.id IN :roleIds)
-       """)
-    Page<User> searchUsers(
-        @Param("search") String search,
-        @Param("isDelete") Boolean isDelete,
-        @Param("createdDateFrom") java.time.Instant createdDateFrom,
-        @Param("createdDateTo") java.time.Instant createdDateTo,
-        @Param("roleIds") Set<UUID> roleIds,
-        Pageable pageable);
 }
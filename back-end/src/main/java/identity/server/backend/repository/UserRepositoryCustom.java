@@ -0,0 +1,61 @@
+package identity.server.backend.repository;
+
+import identity.server.backend.model.request.user.SortByUser;
+import identity.server.backend.repository.projection.UserListItem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Search users for listing. Rows are projected to {@link UserListItem}; roles are loaded separately
+     * with {@link UserDirectoryQueryRepository#findRolesByUserIds}. Null (or empty) criteria are left out.
+     *
+     * @param search Lower-cased, escaped LIKE pattern ({@link identity.server.backend.framework.utils.SQLUtils#wildcardsLike})
+     *               matched against email and username, null for no search
+     * @param roleIds Users holding any of these roles, null for all users
+     */
+    Page<UserListItem> searchUsers(String search,
+                                   Boolean isDelete,
+                                   Instant createdDateFrom,
+                                   Instant createdDateTo,
+                                   Set<UUID> roleIds,
+                                   Pageable pageable);
+
+    /**
+     * Stream all users matching the search filter in id order for export. The PostgreSQL driver only uses a
+     * server-side cursor with the fetch size inside a transaction (auto-commit off), so call within one.
+     * Rows are projections and never enter the persistence context.
+     */
+    Stream<UserListItem> streamUsers(String search,
+                                     Boolean isDelete,
+                                     Instant createdDateFrom,
+                                     Instant createdDateTo,
+                                     Set<UUID> roleIds);
+
+    /**
+     * Keyset (seek) variant of {@link #searchUsers}: returns up to {@code limit} users ordered by
+     * {@code sortBy} then id, starting strictly after ({@code lastValue}, {@code lastId}). No count query is issued.
+     *
+     * @param search    Lower-cased LIKE pattern as for {@link #searchUsers}, null for no search
+     * @param lastValue Sort key of the last row of the previous slice, null for the first slice
+     * @param lastId    Id of the last row of the previous slice, null for the first slice
+     */
+    List<UserListItem> searchUsersAfter(String search,
+                                        Boolean isDelete,
+                                        Instant createdDateFrom,
+                                        Instant createdDateTo,
+                                        Set<UUID> roleIds,
+                                        SortByUser sortBy,
+                                        Sort.Direction direction,
+                                        Object lastValue,
+                                        UUID lastId,
+                                        int limit);
+}
@@ -0,0 +1,150 @@
+package identity.server.backend.repository;
+
+import identity.server.backend.model.request.user.SortByUser;
+import identity.server.backend.repository.projection.UserListItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<UserListItem> searchUsers(String search,
+                                          Boolean isDelete,
+                                          Instant createdDateFrom,
+                                          Instant createdDateTo,
+                                          Set<UUID> roleIds,
+                                          Pageable pageable) {
+        StringBuilder where = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        appendFilter(where, params, search, isDelete, createdDateFrom, createdDateTo, roleIds);
+
+        String jpql = QueryUtils.applySorting(UserListItem.SELECT + "FROM User u" + where, pageable.getSort(), "u");
+        TypedQuery<UserListItem> query = entityManager.createQuery(jpql, UserListItem.class);
+        params.forEach(query::setParameter);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+
+        // As for a derived query, the count is skipped when the page shows it is the last one
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> {
+            TypedQuery<Long> count = entityManager.createQuery("SELECT COUNT(u) FROM User u" + where, Long.class);
+            params.forEach(count::setParameter);
+            return count.getSingleResult();
+        });
+    }
+
+    @Override
+    public Stream<UserListItem> streamUsers(String search,
+                                            Boolean isDelete,
+                                            Instant createdDateFrom,
+                                            Instant createdDateTo,
+                                            Set<UUID> roleIds) {
+        StringBuilder jpql = new StringBuilder(UserListItem.SELECT).append("FROM User u");
+        Map<String, Object> params = new HashMap<>();
+        appendFilter(jpql, params, search, isDelete, createdDateFrom, createdDateTo, roleIds);
+        jpql.append(" ORDER BY u.id");
+
+        TypedQuery<UserListItem> query = entityManager.createQuery(jpql.toString(), UserListItem.class);
+        params.forEach(query::setParameter);
+        return query.setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE).getResultStream();
+    }
+
+    @Override
+    public List<UserListItem> searchUsersAfter(String search,
+                                               Boolean isDelete,
+                                               Instant createdDateFrom,
+                                               Instant createdDateTo,
+                                               Set<UUID> roleIds,
+                                               SortByUser sortBy,
+                                               Sort.Direction direction,
+                                               Object lastValue,
+                                               UUID lastId,
+                                               int limit) {
+        StringBuilder jpql = new StringBuilder(UserListItem.SELECT).append("FROM User u");
+        Map<String, Object> params = new HashMap<>();
+        appendFilter(jpql, params, search, isDelete, createdDateFrom, createdDateTo, roleIds);
+
+        String field = "u." + sortBy.getField();
+        boolean ascending = direction == null || direction.isAscending();
+        if (lastValue != null && lastId != null) {
+            // Written as a range on the sort key plus a tie-break filter rather than an OR of two ranges,
+            // so the (sort key, id) index can be used as the scan start point.
+            String seek = ascending ? ">" : "<";
+            jpql.append(params.isEmpty() ? " WHERE " : " AND ").append(field).append(' ').append(seek).append("= :lastValue")
+                    .append(" AND (").append(field).append(' ').append(seek).append(" :lastValue")
+                    .append(" OR u.id ").append(seek).append(" :lastId)");
+            params.put("lastValue", lastValue);
+            params.put("lastId", lastId);
+        }
+
+        String order = ascending ? " ASC" : " DESC";
+        jpql.append(" ORDER BY ").append(field).append(order).append(", u.id").append(order);
+
+        TypedQuery<UserListItem> query = entityManager.createQuery(jpql.toString(), UserListItem.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Shared filter of the user searches. Only the given criteria are rendered: a generic
+     * {@code :param IS NULL OR ...} leaves the planner guessing at the selectivity of both branches, and for the
+     * role filter that turns a scan of the few members of a rare role into a filtered walk of the whole sort index.
+     * The role filter is a semi-join, so each user appears once without DISTINCT and the count query does not run
+     * over the user_role join. {@code search} is compared against {@code LOWER(column)} so the pg_trgm GIN indexes on
+     * those expressions apply; the escape character is declared because Hibernate otherwise renders
+     * {@code escape ''}, which turns it off.
+     */
+    private static void appendFilter(StringBuilder jpql,
+                                     Map<String, Object> params,
+                                     String search,
+                                     Boolean isDelete,
+                                     Instant createdDateFrom,
+                                     Instant createdDateTo,
+                                     Set<UUID> roleIds) {
+        List<String> predicates = new ArrayList<>();
+        if (search != null && !search.isBlank()) {
+            predicates.add("(LOWER(u.email) LIKE :search ESCAPE '\\' OR LOWER(u.username) LIKE :search ESCAPE '\\')");
+            params.put("search", search);
+        }
+        if (isDelete != null) {
+            predicates.add("u.isDelete = :isDelete");
+            params.put("isDelete", isDelete);
+        }
+        if (createdDateFrom != null) {
+            predicates.add("u.createdDate >= :createdDateFrom");
+            params.put("createdDateFrom", createdDateFrom);
+        }
+        if (createdDateTo != null) {
+            predicates.add("u.createdDate <= :createdDateTo");
+            params.put("createdDateTo", createdDateTo);
+        }
+        if (roleIds != null && !roleIds.isEmpty()) {
+            predicates.add("EXISTS (SELECT 1 FROM u.roles r WHERE r.id IN :roleIds)");
+            params.put("roleIds", roleIds);
+        }
+        if (!predicates.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package identity.server.backend.repository.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Constructor projection of the user columns shown in user listings. Instances are not managed by the
+ * persistence context, so listing pages carry no dirty-checking snapshots and no lazy role collections.
+ */
+public record UserListItem(UUID id,
+                           String username,
+                           String email,
+                           String auth0UserId,
+                           String name,
+                           boolean activated,
+                           String urlAvatar,
+                           String createdBy,
+                           Instant createdDate,
+                           String lastModifiedBy,
+                           Instant lastModifiedDate,
+                           boolean isDelete) {
+
+    /**
+     * JPQL select clause for this projection over alias {@code u}
+     */
+    public static final String SELECT = """
+            SELECT new identity.server.backend.repository.projection.UserListItem(
+                u.id, u.username, u.email, u.auth0UserId, u.name, u.activated, u.urlAvatar,
+                u.createdBy, u.createdDate, u.lastModifiedBy, u.lastModifiedDate, u.isDelete)
+            """;
+}
@@ -0,0 +1,25 @@
+package identity.server.backend.service.authority;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class AuthorityCacheEvictionListener {
+
+    private final UserAuthorityCache userAuthorityCache;
+
+    /**
+     * Evict after commit so that a concurrent request cannot reload the old roles
+     * from a transaction that has not been committed yet
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorityChanged(AuthorityChangedEvent event) {
+        if (event.isAllUsers()) {
+            userAuthorityCache.evictAll();
+        } else {
+            userAuthorityCache.evict(event.getAuth0UserId());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package identity.server.backend.service.authority;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when the authorities of one user (or of every user, after a role change) may have changed.
+ * Listeners run after the surrounding transaction commits.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class AuthorityChangedEvent {
+
+    /**
+     * Auth0 user ID whose authorities changed, or null when all users are affected
+     */
+    private final String auth0UserId;
+
+    public static AuthorityChangedEvent forUser(String auth0UserId) {
+        return new AuthorityChangedEvent(auth0UserId);
+    }
+
+    public static AuthorityChangedEvent forAllUsers() {
+        return new AuthorityChangedEvent(null);
+    }
+
+    public boolean isAllUsers() {
+        return auth0UserId == null;
+    }
+}
@@ -0,0 +1,165 @@
+package identity.server.backend.service.authority;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Propagates {@link AuthorityChangedEvent}s to the other back-end instances through PostgreSQL LISTEN/NOTIFY.
+ *
+ * The NOTIFY is issued on the connection of the transaction that changed the roles, so PostgreSQL delivers it
+ * only if that transaction commits. Each instance keeps one dedicated connection (outside the Hikari pool)
+ * listening on the channel and evicts the affected entries from its {@link UserAuthorityCache}.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "security.authority-cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class AuthorityInvalidationBus implements SmartLifecycle {
+
+    static final String CHANNEL = "authority_changed";
+    private static final String ALL_USERS = "*";
+    private static final char SEPARATOR = ';';
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserAuthorityCache userAuthorityCache;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Duration pollInterval;
+    private final Duration reconnectDelay;
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread listenerThread;
+
+    public AuthorityInvalidationBus(JdbcTemplate jdbcTemplate,
+                                    UserAuthorityCache userAuthorityCache,
+                                    @Value("${spring.datasource.url}") String url,
+                                    @Value("${spring.datasource.username}") String username,
+                                    @Value("${spring.datasource.password}") String password,
+                                    @Value("${security.authority-cache.invalidation.poll-interval:500ms}") Duration pollInterval,
+                                    @Value("${security.authority-cache.invalidation.reconnect-delay:5s}") Duration reconnectDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userAuthorityCache = userAuthorityCache;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollInterval = pollInterval;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    /**
+     * Runs inside the publishing transaction (if any); PostgreSQL holds the notification until commit
+     */
+    @EventListener
+    public void onAuthorityChanged(AuthorityChangedEvent event) {
+        String key = event.isAllUsers() ? ALL_USERS : event.getAuth0UserId();
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, nodeId + SEPARATOR + key);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "authority-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Whether the LISTEN is in place, i.e. notifications of the other instances reach this one
+     */
+    boolean isListening() {
+        return listening;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Notifications sent while this node was not listening are lost
+                userAuthorityCache.evictAll();
+                listening = true;
+                log.info("Listening for authority changes on channel '{}' (node {})", CHANNEL, nodeId);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                listening = false;
+                if (running) {
+                    log.warn("Authority invalidation listener disconnected, retrying in {}: {}", reconnectDelay, e.getMessage());
+                    sleep(reconnectDelay);
+                }
+            }
+        }
+        listening = false;
+    }
+
+    private void handle(String payload) {
+        int separator = payload.indexOf(SEPARATOR);
+        if (separator < 0) {
+            log.warn("Ignoring malformed authority change notification: {}", payload);
+            return;
+        }
+        if (nodeId.equals(payload.substring(0, separator))) {
+            // Local cache is already evicted after commit by AuthorityCacheEvictionListener
+            return;
+        }
+
+        String key = payload.substring(separator + 1);
+        if (ALL_USERS.equals(key)) {
+            userAuthorityCache.evictAll();
+        } else {
+            userAuthorityCache.evict(key);
+        }
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package identity.server.backend.service.authority;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of the authorities computed for an Auth0 user ID (JWT sub claim).
+ * Entries expire after the configured TTL and are evicted on {@link AuthorityChangedEvent}.
+ *
+ * The loader runs on the calling thread outside of the cache's locks, so a JDBC query does not pin the carrier of a
+ * virtual thread; concurrent callers of the same user wait for that one load.
+ */
+@Component
+@Slf4j
+public class UserAuthorityCache {
+
+    private final AsyncCache<String, Set<GrantedAuthority>> cache;
+
+    public UserAuthorityCache(@Value("${security.authority-cache.ttl:5m}") Duration ttl,
+                              @Value("${security.authority-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, cache, "authority");
+    }
+
+    /**
+     * Get the cached authorities of a user, computing them with {@code loader} on a miss.
+     * Exceptions thrown by the loader are propagated and nothing is cached.
+     */
+    public Set<GrantedAuthority> get(String auth0UserId, Function<String, Set<GrantedAuthority>> loader) {
+        CompletableFuture<Set<GrantedAuthority>> pending = new CompletableFuture<>();
+        CompletableFuture<Set<GrantedAuthority>> future = cache.get(auth0UserId, (key, executor) -> pending);
+        if (future != pending) {
+            Set<GrantedAuthority> loaded = future.join();
+            // null: the load we waited for failed, try on our own
+            return loaded != null ? loaded : Set.copyOf(loader.apply(auth0UserId));
+        }
+        try {
+            Set<GrantedAuthority> authorities = Set.copyOf(loader.apply(auth0UserId));
+            pending.complete(authorities);
+            return authorities;
+        } catch (RuntimeException e) {
+            // Completing with null drops the entry; completing exceptionally would also have Caffeine log the error
+            pending.complete(null);
+            throw e;
+        }
+    }
+
+    public void evict(String auth0UserId) {
+        log.debug("Evicting cached authorities for Auth0 user ID: {}", auth0UserId);
+        cache.synchronous().invalidate(auth0UserId);
+    }
+
+    public void evictAll() {
+        log.debug("Evicting all cached authorities");
+        cache.synchronous().invalidateAll();
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    /**
+     * Hit ratio, load count and load latency (average load penalty in nanoseconds)
+     */
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public Cache<String, Set<GrantedAuthority>> getNativeCache() {
+        return cache.synchronous();
+    }
+}
@@ -0,0 +1,36 @@
+package identity.server.backend.service.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the Auth0 outbox. Entries are claimed with SELECT ... FOR UPDATE SKIP LOCKED, so every node
+ * can run the dispatcher.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "auth0.outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class Auth0OutboxDispatcher {
+
+    private final IAuth0OutboxService auth0OutboxService;
+
+    @Value("${auth0.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${auth0.outbox.poll-interval:1s}")
+    public void dispatch() {
+        try {
+            // Keep going while batches come back full so a backlog drains without waiting for the next tick
+            while (auth0OutboxService.dispatchPending() >= batchSize) {
+                log.debug("Auth0 outbox batch was full, dispatching the next one");
+            }
+        } catch (Exception e) {
+            log.error("Auth0 outbox dispatch failed", e);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package identity.server.backend.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import identity.server.backend.domain.Auth0OutboxEntry;
+import identity.server.backend.framework.enums.Auth0OutboxOperation;
+import identity.server.backend.framework.enums.Auth0OutboxStatus;
+import identity.server.backend.framework.exception.BadRequestException;
+import identity.server.backend.framework.exception.NotFoundException;
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0UserResponse;
+import identity.server.backend.framework.thirdparty.auth0.model.CreateUserAuth0Request;
+import identity.server.backend.framework.thirdparty.auth0.model.UpdateUserRequest;
+import identity.server.backend.framework.thirdparty.auth0.service.user.IReactiveAuth0UserService;
+import identity.server.backend.model.response.outbox.Auth0OutboxEntryResponse;
+import identity.server.backend.repository.Auth0OutboxRepository;
+import identity.server.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox for Auth0 Management API calls.
+ *
+ * User changes record the Auth0 call they need in the same transaction instead of calling Auth0 while holding
+ * a database connection. {@link Auth0OutboxDispatcher} delivers the entries afterwards: per user in commit
+ * order (different users concurrently), retried with exponential backoff on network errors, 429 and 5xx. Entries that fail permanently stay
+ * FAILED (and hold back later entries of the same user) until they are replayed or discarded; block and unblock
+ * entries are not held back by an entry Auth0 rejected with a 4xx. A payload keeps its password only while the
+ * entry may still be sent: it is dropped once the entry is sent, fails or is discarded.
+ *
+ * No transaction is open while Auth0 is called: due entries are claimed (SENDING) in one short transaction and
+ * the outcomes of the batch are recorded in another. A claim is a lease of claim-timeout; an entry still SENDING
+ * after it belongs to a dispatcher that died during its Auth0 call and is delivered again.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class Auth0OutboxServiceImpl implements IAuth0OutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final Auth0OutboxRepository auth0OutboxRepository;
+    private final UserRepository userRepository;
+    private final IReactiveAuth0UserService auth0UserService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${auth0.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${auth0.outbox.concurrency:8}")
+    private int concurrency;
+
+    @Value("${auth0.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${auth0.outbox.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${auth0.outbox.max-backoff:10m}")
+    private Duration maxBackoff;
+
+    @Value("${auth0.outbox.claim-timeout:5m}")
+    private Duration claimTimeout;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(UUID userId, String auth0UserId, Auth0OutboxOperation operation, Object payload) {
+        auth0OutboxRepository.save(Auth0OutboxEntry.builder()
+                .userId(userId)
+                .auth0UserId(auth0UserId)
+                .operation(operation)
+                .payload(payload != null ? toJson(payload) : null)
+                .status(Auth0OutboxStatus.PENDING)
+                .nextAttemptAt(Instant.now())
+                .build());
+        log.debug("Queued Auth0 {} for user {}", operation, auth0UserId);
+    }
+
+    @Override
+    public int dispatchPending() {
+        List<Auth0OutboxEntry> entries = transactionTemplate.execute(status -> claimDeliverable());
+        if (entries == null || entries.isEmpty()) {
+            return 0;
+        }
+
+        // A batch holds at most one entry per user, so its entries can be sent concurrently
+        List<Delivery> deliveries = Flux.fromIterable(entries)
+                .flatMap(entry -> deliver(entry)
+                        .map(picture -> new Delivery(entry, picture, null))
+                        .defaultIfEmpty(new Delivery(entry, null, null))
+                        .onErrorResume(e -> Mono.just(new Delivery(entry, null, e))),
+                        concurrency)
+                .collectList()
+                .block();
+
+        transactionTemplate.executeWithoutResult(status -> recordOutcomes(deliveries));
+        return entries.size();
+    }
+
+    /**
+     * Lock the due entries and mark them SENDING until now + claim-timeout
+     */
+    private List<Auth0OutboxEntry> claimDeliverable() {
+        Instant now = Instant.now();
+        List<Auth0OutboxEntry> entries = auth0OutboxRepository.lockDeliverable(now, batchSize);
+        for (Auth0OutboxEntry entry : entries) {
+            if (entry.getStatus() == Auth0OutboxStatus.SENDING) {
+                log.warn("Auth0 {} for user {} was claimed without a recorded outcome, sending it again",
+                        entry.getOperation(), entry.getAuth0UserId());
+            }
+            entry.setStatus(Auth0OutboxStatus.SENDING);
+            entry.setNextAttemptAt(now.plus(claimTimeout));
+        }
+        auth0OutboxRepository.saveAll(entries);
+        return entries;
+    }
+
+    private void recordOutcomes(List<Delivery> deliveries) {
+        Map<UUID, Auth0OutboxEntry> claimed = auth0OutboxRepository.findAllById(
+                        deliveries.stream().map(delivery -> delivery.entry().getId()).toList())
+                .stream()
+                .collect(Collectors.toMap(Auth0OutboxEntry::getId, Function.identity()));
+
+        for (Delivery delivery : deliveries) {
+            Auth0OutboxEntry entry = claimed.get(delivery.entry().getId());
+            if (entry == null || entry.getStatus() != Auth0OutboxStatus.SENDING) {
+                // The claim expired and another dispatcher took the entry over
+                continue;
+            }
+            entry.setAttempts(entry.getAttempts() + 1);
+            if (delivery.error() == null) {
+                entry.setStatus(Auth0OutboxStatus.SENT);
+                entry.setSentAt(Instant.now());
+                entry.setLastError(null);
+                entry.setLastStatus(null);
+                entry.setPayload(null);
+                if (delivery.picture() != null) {
+                    userRepository.findById(entry.getUserId()).ifPresent(user -> user.setUrlAvatar(delivery.picture()));
+                }
+                log.debug("Delivered Auth0 {} for user {}", entry.getOperation(), entry.getAuth0UserId());
+                continue;
+            }
+
+            Throwable e = delivery.error();
+            HttpStatusCode status = statusOf(e);
+            entry.setLastError(truncate(e.getMessage()));
+            entry.setLastStatus(status != null ? status.value() : null);
+            if (!isRetryable(e) || entry.getAttempts() >= maxAttempts) {
+                entry.setStatus(Auth0OutboxStatus.FAILED);
+                entry.setPayload(withoutPassword(entry.getPayload()));
+                log.error("Auth0 {} for user {} failed after {} attempt(s); later changes of this user are held until it is replayed or discarded",
+                        entry.getOperation(), entry.getAuth0UserId(), entry.getAttempts(), e);
+            } else {
+                entry.setStatus(Auth0OutboxStatus.PENDING);
+                entry.setNextAttemptAt(Instant.now().plus(backoff(entry.getAttempts())));
+                log.warn("Auth0 {} for user {} failed (attempt {}), retrying at {}: {}",
+                        entry.getOperation(), entry.getAuth0UserId(), entry.getAttempts(), entry.getNextAttemptAt(), e.getMessage());
+            }
+        }
+
+        auth0OutboxRepository.saveAll(claimed.values());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Auth0OutboxEntryResponse> getEntries(Auth0OutboxStatus status, int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "seq"));
+        Page<Auth0OutboxEntry> entries = status != null
+                ? auth0OutboxRepository.findByStatus(status, pageable)
+                : auth0OutboxRepository.findAll(pageable);
+        return entries.map(Auth0OutboxEntryResponse::mapToResponse);
+    }
+
+    @Override
+    @Transactional
+    public Auth0OutboxEntryResponse replay(UUID entryId) {
+        Auth0OutboxEntry entry = auth0OutboxRepository.findById(entryId)
+                .orElseThrow(() -> new NotFoundException("Outbox entry not found."));
+
+        if (entry.getStatus() != Auth0OutboxStatus.FAILED) {
+            throw new BadRequestException("Only failed outbox entries can be replayed.");
+        }
+
+        entry.setStatus(Auth0OutboxStatus.PENDING);
+        entry.setAttempts(0);
+        entry.setNextAttemptAt(Instant.now());
+        log.info("Replaying Auth0 {} for user {}", entry.getOperation(), entry.getAuth0UserId());
+        return Auth0OutboxEntryResponse.mapToResponse(auth0OutboxRepository.save(entry));
+    }
+
+    @Override
+    @Transactional
+    public Auth0OutboxEntryResponse discard(UUID entryId) {
+        Auth0OutboxEntry entry = auth0OutboxRepository.findById(entryId)
+                .orElseThrow(() -> new NotFoundException("Outbox entry not found."));
+
+        if (entry.getStatus() != Auth0OutboxStatus.FAILED) {
+            throw new BadRequestException("Only failed outbox entries can be discarded.");
+        }
+
+        entry.setStatus(Auth0OutboxStatus.DISCARDED);
+        entry.setPayload(null);
+        log.info("Discarded Auth0 {} for user {}", entry.getOperation(), entry.getAuth0UserId());
+        return Auth0OutboxEntryResponse.mapToResponse(auth0OutboxRepository.save(entry));
+    }
+
+    /**
+     * Make the Auth0 call of an entry
+     * @return The picture of a created user, empty for other operations
+     */
+    private Mono<String> deliver(Auth0OutboxEntry entry) {
+        return Mono.defer(() -> switch (entry.getOperation()) {
+            case CREATE_USER -> createUser(entry);
+            case REACTIVATE_USER -> auth0UserService.getUserFilterAuth0Id(entry.getAuth0UserId())
+                    .hasElement()
+                    .flatMap(exists -> {
+                        if (exists) {
+                            return auth0UserService.blockUser(entry.getAuth0UserId(), false).then(Mono.<String>empty());
+                        }
+                        log.warn("Auth0 user {} not found, creating it again", entry.getAuth0UserId());
+                        return createUser(entry);
+                    });
+            case UPDATE_USER -> auth0UserService.updateUser(entry.getAuth0UserId(),
+                    fromJson(entry.getPayload(), UpdateUserRequest.class)).then(Mono.empty());
+            case BLOCK_USER -> auth0UserService.blockUser(entry.getAuth0UserId(), true).then(Mono.empty());
+            case UNBLOCK_USER -> auth0UserService.blockUser(entry.getAuth0UserId(), false).then(Mono.empty());
+        });
+    }
+
+    private Mono<String> createUser(Auth0OutboxEntry entry) {
+        return auth0UserService.createUser(fromJson(entry.getPayload(), CreateUserAuth0Request.class))
+                .mapNotNull(Auth0UserResponse::getPicture)
+                .onErrorResume(e -> hasStatus(e, HttpStatus.CONFLICT), e -> {
+                    // A previous attempt created the user but its outcome was lost
+                    log.info("Auth0 user {} already exists", entry.getAuth0UserId());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Network errors, timeouts, 408, 429 and 5xx are retried; other 4xx responses will not succeed on retry
+     */
+    private static boolean isRetryable(Throwable e) {
+        HttpStatusCode status = statusOf(e);
+        return status == null
+                || status.is5xxServerError()
+                || status.value() == HttpStatus.TOO_MANY_REQUESTS.value()
+                || status.value() == HttpStatus.REQUEST_TIMEOUT.value();
+    }
+
+    private static boolean hasStatus(Throwable e, HttpStatus expected) {
+        HttpStatusCode status = statusOf(e);
+        return status != null && status.value() == expected.value();
+    }
+
+    private static HttpStatusCode statusOf(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientResponseException responseException) {
+                return responseException.getStatusCode();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Exponential backoff with jitter: half of the delay is fixed, the other half random
+     */
+    private Duration backoff(int attempts) {
+        long delay = initialBackoff.toMillis() << Math.min(attempts - 1, 30);
+        delay = Math.min(delay, maxBackoff.toMillis());
+        return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize Auth0 outbox payload", e);
+        }
+    }
+
+    /**
+     * The payload without its password, which is not kept for an entry that is no longer sent
+     */
+    private String withoutPassword(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(payload);
+            if (node instanceof ObjectNode objectNode && objectNode.remove("password") != null) {
+                return objectMapper.writeValueAsString(objectNode);
+            }
+            return payload;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read Auth0 outbox payload", e);
+        }
+    }
+
+    private <T> T fromJson(String payload, Class<T> type) {
+        if (payload == null) {
+            throw new RuntimeException("Outbox entry has no payload");
+        }
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read Auth0 outbox payload", e);
+        }
+    }
+
+    private record Delivery(Auth0OutboxEntry entry, String picture, Throwable error) {
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,39 @@
+package identity.server.backend.service.outbox;
+
+import identity.server.backend.framework.enums.Auth0OutboxOperation;
+import identity.server.backend.framework.enums.Auth0OutboxStatus;
+import identity.server.backend.model.response.outbox.Auth0OutboxEntryResponse;
+import org.springframework.data.domain.Page;
+
+import java.util.UUID;
+
+public interface IAuth0OutboxService {
+
+    /**
+     * Record an Auth0 call in the caller's transaction; it is delivered after the transaction commits
+     * @param userId Local user the call belongs to (entries of one user are delivered in order)
+     * @param auth0UserId Auth0 user the call targets
+     * @param operation The call to make
+     * @param payload Request body, or null for operations without one
+     */
+    void enqueue(UUID userId, String auth0UserId, Auth0OutboxOperation operation, Object payload);
+
+    /**
+     * Deliver one batch of due entries
+     * @return The number of entries processed
+     */
+    int dispatchPending();
+
+    Page<Auth0OutboxEntryResponse> getEntries(Auth0OutboxStatus status, int page, int size);
+
+    /**
+     * Put a failed entry back in the queue for immediate delivery. Its password was dropped when it failed, so it is
+     * sent without one and the user has to set a new password.
+     */
+    Auth0OutboxEntryResponse replay(UUID entryId);
+
+    /**
+     * Give up on a failed entry: it is never sent and stops holding back later entries of its user
+     */
+    Auth0OutboxEntryResponse discard(UUID entryId);
+}
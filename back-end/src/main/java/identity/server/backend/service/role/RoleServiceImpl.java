@@ -1,13 +1,16 @@
 package identity.server.backend.service.role;
 
 import identity.server.backend.domain.Role;
+import identity.server.backend.framework.utils.SQLUtils;
 import identity.server.backend.model.request.role.RoleFilter;
 import identity.server.backend.repository.RoleRepository;
 import identity.server.backend.model.request.role.CreateRoleRequest;
 import identity.server.backend.model.response.Role.RoleResponse;
 import identity.server.backend.model.request.role.UpdateRoleRequest;
+import identity.server.backend.service.authority.AuthorityChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -16,6 +19,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @Service
@@ -24,6 +28,7 @@ import java.util.UUID;
 public class RoleServiceImpl implements IRoleService {
 
     private final RoleRepository roleRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -111,14 +116,14 @@ public class RoleServiceImpl implements IRoleService {
         Pageable pageable = PageRequest.of(page, size, sort);
 
         String searchTerm = roleFilter.getSearchTerm();
-        String normalizedSearch = (searchTerm != null && !searchTerm.isBlank())
-            ? searchTerm.trim()
-            : null;
+        String searchPattern = (searchTerm != null && !searchTerm.isBlank())
+                ? SQLUtils.wildcardsLike(searchTerm.toLowerCase(Locale.ROOT))
+                : null;
 
         Boolean isDelete = roleFilter.getStatus();
 
         Page<Role> roles = roleRepository.searchRoles(
-                normalizedSearch,
+                searchPattern,
                 isDelete,
                 roleFilter.getCreatedDateFrom(),
                 roleFilter.getCreatedDateTo(),
@@ -145,6 +150,7 @@ public class RoleServiceImpl implements IRoleService {
 
         roleRepository.save(role);
         log.info("Role soft deleted successfully: {}", id);
+        eventPublisher.publishEvent(AuthorityChangedEvent.forAllUsers());
 
         RoleResponse.mapToResponse(role);
     }
@@ -168,6 +174,9 @@ public class RoleServiceImpl implements IRoleService {
         roleRepository.saveAll(rolesToDelete);
 
         int deletedCount = rolesToDelete.size();
+        if (deletedCount > 0) {
+            eventPublisher.publishEvent(AuthorityChangedEvent.forAllUsers());
+        }
         log.info("Successfully soft deleted {} role(s). {} role(s) were skipped (system roles or already deleted).",
                 deletedCount, ids.size() - deletedCount);
 
@@ -0,0 +1,16 @@
+package identity.server.backend.service.user;
+
+import identity.server.backend.model.request.user.UserExportFormat;
+import identity.server.backend.model.request.user.UserFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface IUserExportService {
+
+    /**
+     * Write every user matching the filter, with roles, to {@code outputStream}.
+     * Page, size and sort of the filter are ignored; users are written in id order.
+     */
+    void exportUsers(UserFilter userFilter, UserExportFormat format, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,28 @@
+package identity.server.backend.service.user;
+
+import identity.server.backend.model.request.user.UserImportFormat;
+import identity.server.backend.model.response.user.UserImportJobResponse;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface IUserImportService {
+
+    /**
+     * Validate and insert the users of an import file, then queue their Auth0 import jobs
+     * @return The import job; Auth0 progress is reported by {@link #getImportJob}
+     */
+    UserImportJobResponse importUsers(InputStream input, String fileName, UserImportFormat format);
+
+    UserImportJobResponse getImportJob(UUID jobId);
+
+    /**
+     * Create Auth0 import jobs for queued batches while fewer than the allowed number are running
+     */
+    void submitQueuedBatches();
+
+    /**
+     * Refresh the status of submitted Auth0 import jobs and complete finished imports
+     */
+    void pollSubmittedBatches();
+}
@@ -6,9 +6,11 @@ import identity.server.backend.model.request.user.UpdateRoleUserRequest;
 import identity.server.backend.model.request.user.UpdateUserProfileRequest;
 import identity.server.backend.model.request.user.CreateUserFromAuth0Request;
 import identity.server.backend.model.request.user.UserFilter;
+import identity.server.backend.model.response.KeysetPage;
 import identity.server.backend.model.response.user.UserResponse;
 import org.springframework.data.domain.Page;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface IUserService {
@@ -26,6 +28,10 @@ public interface IUserService {
 
     Page<UserResponse> searchUsers(UserFilter userFilter);
 
+    KeysetPage<UserResponse> searchUsersKeyset(UserFilter userFilter);
+
+    List<UserResponse> searchUsersFullText(UserFilter userFilter);
+
     UserResponse getUserDetail(UUID userId);
 
     UserResponse updateUserProfile(String auth0UserId, UpdateUserProfileRequest request);
@@ -0,0 +1,151 @@
+package identity.server.backend.service.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import identity.server.backend.framework.utils.SQLUtils;
+import identity.server.backend.model.request.user.UserExportFormat;
+import identity.server.backend.model.request.user.UserFilter;
+import identity.server.backend.model.response.Role.RoleBaseResponse;
+import identity.server.backend.model.response.user.UserResponse;
+import identity.server.backend.repository.UserDirectoryQueryRepository;
+import identity.server.backend.repository.UserRepository;
+import identity.server.backend.repository.projection.UserListItem;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams the user directory with constant memory: rows come from a forward-only cursor
+ * ({@link UserRepository#streamUsers}), roles are loaded per chunk and each chunk is flushed to the client
+ * before the next one is read.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserExportServiceImpl implements IUserExportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final String CSV_HEADER = "id,username,email,auth0_user_id,name,activated,is_delete,"
+            + "created_by,created_date,last_modified_by,last_modified_date,roles,url_avatar";
+
+    private final UserRepository userRepository;
+    private final UserDirectoryQueryRepository userDirectoryQueryRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(UserFilter userFilter, UserExportFormat format, OutputStream outputStream) throws IOException {
+        log.info("Exporting users as {}: search='{}', status={}, createdDateFrom={}, createdDateTo={}, roleIds={}",
+                format,
+                userFilter.getSearchTerm(),
+                userFilter.getStatus(),
+                userFilter.getCreatedDateFrom(),
+                userFilter.getCreatedDateTo(),
+                userFilter.getRoleIds());
+
+        String searchTerm = userFilter.getSearchTerm();
+        String searchPattern = (searchTerm != null && !searchTerm.isBlank())
+                ? SQLUtils.wildcardsLike(searchTerm.toLowerCase(Locale.ROOT))
+                : null;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == UserExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long exported = 0;
+        try (Stream<UserListItem> users = userRepository.streamUsers(
+                searchPattern,
+                userFilter.getStatus(),
+                userFilter.getCreatedDateFrom(),
+                userFilter.getCreatedDateTo(),
+                userFilter.getRoleIds())) {
+
+            Iterator<UserListItem> iterator = users.iterator();
+            List<UserListItem> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    writeChunk(chunk, format, writer);
+                    exported += chunk.size();
+                    chunk.clear();
+                }
+            }
+        }
+
+        writer.flush();
+        log.info("Exported {} users as {}", exported, format);
+    }
+
+    private void writeChunk(List<UserListItem> chunk, UserExportFormat format, Writer writer) throws IOException {
+        Map<UUID, Set<RoleBaseResponse>> roles = userDirectoryQueryRepository.findRolesByUserIds(
+                chunk.stream().map(UserListItem::id).toList());
+
+        for (UserListItem user : chunk) {
+            Set<RoleBaseResponse> userRoles = roles.getOrDefault(user.id(), Set.of());
+            if (format == UserExportFormat.CSV) {
+                writeCsvRow(user, userRoles, writer);
+            } else {
+                writer.write(objectMapper.writeValueAsString(UserResponse.mapToUserResponse(user, userRoles)));
+                writer.write('\n');
+            }
+        }
+        // Hand the chunk to the client so neither side buffers the whole export
+        writer.flush();
+    }
+
+    private static void writeCsvRow(UserListItem user, Set<RoleBaseResponse> roles, Writer writer) throws IOException {
+        String roleCodes = roles.stream()
+                .map(RoleBaseResponse::getCode)
+                .sorted()
+                .collect(Collectors.joining("|"));
+
+        writer.write(String.join(",",
+                csv(user.id()),
+                csv(user.username()),
+                csv(user.email()),
+                csv(user.auth0UserId()),
+                csv(user.name()),
+                csv(user.activated()),
+                csv(user.isDelete()),
+                csv(user.createdBy()),
+                csv(user.createdDate()),
+                csv(user.lastModifiedBy()),
+                csv(user.lastModifiedDate()),
+                csv(roleCodes),
+                csv(user.urlAvatar())));
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting; a leading formula character is prefixed with ' so spreadsheets do not evaluate it
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -0,0 +1,32 @@
+package identity.server.backend.service.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pushes queued import batches to Auth0 and tracks the running Auth0 import jobs.
+ *
+ * Queued batches are claimed with SELECT ... FOR UPDATE SKIP LOCKED, so several nodes can run the dispatcher
+ * without submitting the same batch twice. Polling only reads Auth0 and may overlap between nodes.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "user.import.auth0.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class UserImportDispatcher {
+
+    private final IUserImportService userImportService;
+
+    @Scheduled(fixedDelayString = "${user.import.auth0.poll-interval:10s}")
+    public void dispatch() {
+        try {
+            userImportService.pollSubmittedBatches();
+            userImportService.submitQueuedBatches();
+        } catch (Exception e) {
+            log.error("User import dispatch failed", e);
+        }
+    }
+}
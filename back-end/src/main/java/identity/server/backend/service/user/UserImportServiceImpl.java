@@ -0,0 +1,625 @@
+package identity.server.backend.service.user;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import identity.server.backend.domain.Role;
+import identity.server.backend.domain.UserImportBatch;
+import identity.server.backend.domain.UserImportJob;
+import identity.server.backend.framework.constants.AuthoritiesConstants;
+import identity.server.backend.framework.enums.UserImportBatchStatus;
+import identity.server.backend.framework.enums.UserImportStatus;
+import identity.server.backend.framework.exception.BadRequestException;
+import identity.server.backend.framework.exception.NotFoundException;
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0ImportUser;
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0JobResponse;
+import identity.server.backend.framework.thirdparty.auth0.service.user.IAuth0UserService;
+import identity.server.backend.model.request.user.UserImportFormat;
+import identity.server.backend.model.request.user.UserImportRow;
+import identity.server.backend.model.response.user.UserImportJobResponse;
+import identity.server.backend.repository.RoleRepository;
+import identity.server.backend.repository.UserImportBatchRepository;
+import identity.server.backend.repository.UserImportJobRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user import.
+ *
+ * The file is read row by row and validated as it streams. Valid rows are collected in chunks. For each chunk,
+ * existing emails and usernames are found with one query, new users are inserted with JDBC batch statements,
+ * and the Auth0 users files are queued. All of this happens in one transaction per chunk. Users get an
+ * application-generated id that doubles as their Auth0 user_id, so auth0_user_id is known at insert time and
+ * no per-user round trip to Auth0 is needed.
+ *
+ * Queued batches are pushed to the Management API user import job endpoint by
+ * {@link UserImportDispatcher}, which also polls the jobs and records their progress. No transaction is open
+ * while Auth0 is called: batches are claimed (SUBMITTING) in one short transaction and the outcome of each
+ * call is recorded in another.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserImportServiceImpl implements IUserImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final String AUTH0_USER_ID_PREFIX = "auth0|";
+    private static final String CSV_SEPARATOR = ";";
+
+    private static final String INSERT_USER_SQL = """
+            INSERT INTO users (id, username, email, auth0_user_id, name, activated, url_avatar,
+                               created_by, created_date, last_modified_by, last_modified_date, is_delete)
+            VALUES (:id, :username, :email, :auth0UserId, :name, :activated, :urlAvatar,
+                    :createdBy, :createdDate, :createdBy, :createdDate, false)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String INSERT_USER_ROLE_SQL = "INSERT INTO user_role (user_id, role_id) VALUES (:userId, :roleId)";
+
+    private final UserImportJobRepository userImportJobRepository;
+    private final UserImportBatchRepository userImportBatchRepository;
+    private final RoleRepository roleRepository;
+    private final IAuth0UserService auth0UserService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${user.import.chunk-size:2000}")
+    private int chunkSize;
+
+    @Value("${user.import.auth0.max-payload-bytes:450000}")
+    private int maxPayloadBytes;
+
+    @Value("${user.import.auth0.connection:Username-Password-Authentication}")
+    private String auth0Connection;
+
+    @Value("${user.import.auth0.max-concurrent-jobs:1}")
+    private int maxConcurrentJobs;
+
+    @Value("${user.import.auth0.max-attempts:10}")
+    private int maxSubmitAttempts;
+
+    @Value("${user.import.auth0.claim-timeout:5m}")
+    private Duration claimTimeout;
+
+    @Override
+    public UserImportJobResponse importUsers(InputStream input, String fileName, UserImportFormat format) {
+        log.info("Importing users from file: {} ({})", fileName, format);
+
+        Role userRole = roleRepository.findByCodeIgnoreCase(AuthoritiesConstants.USER)
+                .orElseThrow(() -> new BadRequestException("Default USER role not found"));
+
+        UserImportJob job = userImportJobRepository.save(UserImportJob.builder()
+                .fileName(fileName)
+                .status(UserImportStatus.READING)
+                .build());
+        ImportProgress progress = new ImportProgress(job.getId(), job.getCreatedBy());
+
+        try (RowReader rows = openReader(input, format)) {
+            List<UserImportRow> chunk = new ArrayList<>(chunkSize);
+            while (rows.hasNext()) {
+                UserImportRow row = rows.next();
+                progress.totalRows++;
+                if (accept(row, progress)) {
+                    chunk.add(row);
+                }
+                if (chunk.size() == chunkSize) {
+                    insertChunk(chunk, userRole, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                insertChunk(chunk, userRole, progress);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("User import {} stopped at row {}", job.getId(), progress.totalRows, e);
+            job.setStatus(UserImportStatus.FAILED);
+            progress.errors.add("Import stopped at row " + progress.totalRows + ": " + e.getMessage());
+        }
+
+        job.setTotalRows(progress.totalRows);
+        job.setInvalidRows(progress.invalidRows);
+        job.setDuplicateRows(progress.duplicateRows);
+        job.setInsertedRows(progress.insertedRows);
+        job.setValidationErrors(progress.errors.isEmpty() ? null : String.join("\n", progress.errors));
+        if (job.getStatus() == UserImportStatus.READING) {
+            job.setStatus(UserImportStatus.PROCESSING);
+        }
+        userImportJobRepository.save(job);
+        // Batches of early chunks may already have finished in Auth0 while the rest of the file was read
+        transactionTemplate.executeWithoutResult(status -> updateJobOutcome(job.getId()));
+
+        log.info("User import {} read {} rows: {} inserted, {} duplicates, {} invalid, {} Auth0 batches queued",
+                job.getId(), progress.totalRows, progress.insertedRows, progress.duplicateRows,
+                progress.invalidRows, progress.batchNumber);
+        return getImportJob(job.getId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserImportJobResponse getImportJob(UUID jobId) {
+        UserImportJob job = userImportJobRepository.findById(jobId)
+                .orElseThrow(() -> new NotFoundException("User import job not found."));
+        return UserImportJobResponse.mapToResponse(job, userImportBatchRepository.findByJobIdOrderByBatchNumber(jobId));
+    }
+
+    @Override
+    public void submitQueuedBatches() {
+        List<UserImportBatch> batches = transactionTemplate.execute(status -> claimQueuedBatches());
+        if (batches == null || batches.isEmpty()) {
+            return;
+        }
+
+        // The Auth0 calls run outside any transaction; each outcome is recorded in its own short one
+        Set<UUID> finishedJobs = new HashSet<>();
+        for (UserImportBatch batch : batches) {
+            try {
+                String connectionId = auth0UserService.getConnectionId(auth0Connection);
+                Auth0JobResponse auth0Job = auth0UserService.importUsers(connectionId,
+                        batch.getPayload().getBytes(StandardCharsets.UTF_8), batch.getId().toString());
+
+                updateBatch(batch.getId(), submitted -> {
+                    submitted.setStatus(UserImportBatchStatus.SUBMITTED);
+                    submitted.setAuth0JobId(auth0Job.getId());
+                    submitted.setAuth0Status(auth0Job.getStatus());
+                    submitted.setErrorMessage(null);
+                    // Auth0 has the password hashes now; do not keep them at rest
+                    submitted.setPayload(null);
+                });
+                log.info("Submitted batch {} of user import {} as Auth0 job {}",
+                        batch.getBatchNumber(), batch.getJobId(), auth0Job.getId());
+            } catch (Exception e) {
+                int attempts = batch.getAttempts() + 1;
+                boolean givenUp = attempts >= maxSubmitAttempts;
+                updateBatch(batch.getId(), failed -> {
+                    failed.setAttempts(attempts);
+                    failed.setErrorMessage(e.getMessage());
+                    if (givenUp) {
+                        failed.setStatus(UserImportBatchStatus.FAILED);
+                        failed.setFailed(failed.getUserCount());
+                        failed.setCompletedAt(Instant.now());
+                        failed.setPayload(null);
+                    } else {
+                        failed.setStatus(UserImportBatchStatus.QUEUED);
+                        failed.setSubmittedAt(null);
+                    }
+                });
+                if (givenUp) {
+                    log.error("Giving up on batch {} of user import {} after {} attempts",
+                            batch.getBatchNumber(), batch.getJobId(), attempts, e);
+                    finishedJobs.add(batch.getJobId());
+                } else {
+                    log.warn("Failed to submit batch {} of user import {} (attempt {}): {}",
+                            batch.getBatchNumber(), batch.getJobId(), attempts, e.getMessage());
+                }
+            }
+        }
+        finishedJobs.forEach(jobId -> transactionTemplate.executeWithoutResult(status -> updateJobOutcome(jobId)));
+    }
+
+    /**
+     * Move the oldest queued batches to SUBMITTING while fewer than the allowed number of Auth0 jobs are running.
+     * Claims older than the claim timeout belong to a dispatcher that died during its Auth0 call; they are queued
+     * again, so a batch whose job Auth0 did create is submitted twice and its users are reported as failed
+     * duplicates by the second job.
+     */
+    private List<UserImportBatch> claimQueuedBatches() {
+        Instant now = Instant.now();
+        for (UserImportBatch stale : userImportBatchRepository.lockBySubmittedAtBefore(UserImportBatchStatus.SUBMITTING,
+                now.minus(claimTimeout), PageRequest.of(0, 20))) {
+            log.warn("Requeueing batch {} of user import {}, claimed at {} without a recorded outcome",
+                    stale.getBatchNumber(), stale.getJobId(), stale.getSubmittedAt());
+            stale.setStatus(UserImportBatchStatus.QUEUED);
+            stale.setSubmittedAt(null);
+        }
+
+        int slots = maxConcurrentJobs - (int) userImportBatchRepository.countByStatusIn(
+                List.of(UserImportBatchStatus.SUBMITTING, UserImportBatchStatus.SUBMITTED));
+        if (slots <= 0) {
+            return List.of();
+        }
+
+        List<UserImportBatch> batches = userImportBatchRepository.lockByStatus(UserImportBatchStatus.QUEUED, PageRequest.of(0, slots));
+        for (UserImportBatch batch : batches) {
+            batch.setStatus(UserImportBatchStatus.SUBMITTING);
+            batch.setSubmittedAt(now);
+        }
+        return batches;
+    }
+
+    @Override
+    public void pollSubmittedBatches() {
+        List<UserImportBatch> batches = userImportBatchRepository.findByStatus(UserImportBatchStatus.SUBMITTED, PageRequest.of(0, 20));
+        if (batches.isEmpty()) {
+            return;
+        }
+
+        // Polling is read-only towards Auth0, so batches are not locked while their jobs are fetched
+        Set<UUID> touchedJobs = new HashSet<>();
+        for (UserImportBatch batch : batches) {
+            Auth0JobResponse auth0Job;
+            try {
+                auth0Job = auth0UserService.getJob(batch.getAuth0JobId());
+            } catch (Exception e) {
+                log.warn("Failed to refresh Auth0 job {} of user import {}: {}",
+                        batch.getAuth0JobId(), batch.getJobId(), e.getMessage());
+                continue;
+            }
+
+            boolean finished = auth0Job.isFinished();
+            updateBatch(batch.getId(), submitted -> {
+                submitted.setAuth0Status(auth0Job.getStatus());
+                submitted.setPercentageDone(auth0Job.getPercentageDone());
+                if (auth0Job.getSummary() != null) {
+                    submitted.setInserted(auth0Job.getSummary().getInserted());
+                    submitted.setUpdated(auth0Job.getSummary().getUpdated());
+                    submitted.setFailed(auth0Job.getSummary().getFailed());
+                }
+                if (finished) {
+                    boolean failed = Auth0JobResponse.STATUS_FAILED.equals(auth0Job.getStatus());
+                    submitted.setStatus(failed ? UserImportBatchStatus.FAILED : UserImportBatchStatus.COMPLETED);
+                    submitted.setCompletedAt(Instant.now());
+                }
+            });
+            if (finished) {
+                log.info("Auth0 job {} of user import {} finished: {}", auth0Job.getId(), batch.getJobId(), auth0Job.getStatus());
+            }
+            touchedJobs.add(batch.getJobId());
+        }
+        touchedJobs.forEach(jobId -> transactionTemplate.executeWithoutResult(status -> updateJobOutcome(jobId)));
+    }
+
+    /**
+     * Apply {@code change} to the current state of a batch in a short transaction of its own
+     */
+    private void updateBatch(UUID batchId, Consumer<UserImportBatch> change) {
+        transactionTemplate.executeWithoutResult(status -> userImportBatchRepository.findById(batchId).ifPresent(batch -> {
+            change.accept(batch);
+            userImportBatchRepository.save(batch);
+        }));
+    }
+
+    private void updateJobOutcome(UUID jobId) {
+        UserImportJob job = userImportJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        List<UserImportBatch> batches = userImportBatchRepository.findByJobIdOrderByBatchNumber(jobId);
+        job.setAuth0Inserted(batches.stream().mapToInt(UserImportBatch::getInserted).sum());
+        job.setAuth0Updated(batches.stream().mapToInt(UserImportBatch::getUpdated).sum());
+        job.setAuth0Failed(batches.stream().mapToInt(UserImportBatch::getFailed).sum());
+
+        boolean pending = batches.stream().anyMatch(batch -> batch.getStatus() == UserImportBatchStatus.QUEUED
+                || batch.getStatus() == UserImportBatchStatus.SUBMITTING
+                || batch.getStatus() == UserImportBatchStatus.SUBMITTED);
+        // READING jobs may still queue batches; importUsers completes them once the whole file is read
+        if (!pending && job.getStatus() == UserImportStatus.PROCESSING) {
+            boolean withErrors = job.getInvalidRows() > 0
+                    || job.getAuth0Failed() > 0
+                    || batches.stream().anyMatch(batch -> batch.getStatus() == UserImportBatchStatus.FAILED);
+            job.setStatus(withErrors ? UserImportStatus.COMPLETED_WITH_ERRORS : UserImportStatus.COMPLETED);
+            log.info("User import {} completed with status {}", jobId, job.getStatus());
+        }
+        userImportJobRepository.save(job);
+    }
+
+    /**
+     * Validate a row and drop duplicates within the file
+     */
+    private boolean accept(UserImportRow row, ImportProgress progress) {
+        normalize(row);
+
+        Set<ConstraintViolation<UserImportRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            progress.invalidRows++;
+            progress.addError("Row " + progress.totalRows + ": " + violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return false;
+        }
+
+        if (!progress.seenEmails.add(row.getEmail()) | !progress.seenLogins.add(lowerCase(row.getLogin()))) {
+            progress.duplicateRows++;
+            return false;
+        }
+        return true;
+    }
+
+    private static void normalize(UserImportRow row) {
+        row.setEmail(blankToNull(row.getEmail()) != null ? row.getEmail().trim().toLowerCase(Locale.ROOT) : null);
+        row.setLogin(blankToNull(row.getLogin()) != null ? row.getLogin().trim() : null);
+        row.setPasswordHash(blankToNull(row.getPasswordHash()));
+        row.setImageUrl(blankToNull(row.getImageUrl()));
+    }
+
+    private void insertChunk(List<UserImportRow> chunk, Role userRole, ImportProgress progress) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<UserImportRow> newRows = withoutExistingUsers(chunk, progress);
+            if (newRows.isEmpty()) {
+                return;
+            }
+
+            Timestamp now = Timestamp.from(Instant.now());
+            List<UUID> ids = new ArrayList<>(newRows.size());
+            MapSqlParameterSource[] userParams = new MapSqlParameterSource[newRows.size()];
+            for (int i = 0; i < newRows.size(); i++) {
+                UserImportRow row = newRows.get(i);
+                UUID id = UUID.randomUUID();
+                ids.add(id);
+                userParams[i] = new MapSqlParameterSource()
+                        .addValue("id", id)
+                        .addValue("username", row.getLogin())
+                        .addValue("email", row.getEmail())
+                        .addValue("auth0UserId", AUTH0_USER_ID_PREFIX + id)
+                        .addValue("name", row.getName())
+                        .addValue("activated", row.getActivated() == null || row.getActivated())
+                        .addValue("urlAvatar", row.getImageUrl())
+                        .addValue("createdBy", progress.auditor)
+                        .addValue("createdDate", now);
+            }
+            int[] counts = jdbcTemplate.batchUpdate(INSERT_USER_SQL, userParams);
+
+            // Rows that lost a race with a concurrent insert report 0 and are skipped
+            List<UUID> insertedIds = new ArrayList<>();
+            List<UserImportRow> insertedRows = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                    insertedIds.add(ids.get(i));
+                    insertedRows.add(newRows.get(i));
+                } else {
+                    progress.duplicateRows++;
+                }
+            }
+            if (insertedIds.isEmpty()) {
+                return;
+            }
+
+            jdbcTemplate.batchUpdate(INSERT_USER_ROLE_SQL, insertedIds.stream()
+                    .map(id -> new MapSqlParameterSource().addValue("userId", id).addValue("roleId", userRole.getId()))
+                    .toArray(MapSqlParameterSource[]::new));
+
+            queueAuth0Batches(insertedIds, insertedRows, progress);
+            progress.insertedRows += insertedIds.size();
+        });
+    }
+
+    /**
+     * Drop rows whose email or username already exists in any letter case, using one set-based query for the
+     * whole chunk (served by the lower(email) and lower(username) indexes)
+     */
+    private List<UserImportRow> withoutExistingUsers(List<UserImportRow> chunk, ImportProgress progress) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("emails", chunk.stream().map(UserImportRow::getEmail).toList())
+                .addValue("usernames", chunk.stream().map(row -> lowerCase(row.getLogin())).toList());
+
+        Set<String> existingEmails = new HashSet<>();
+        Set<String> existingUsernames = new HashSet<>();
+        jdbcTemplate.query("""
+                        SELECT lower(email) AS email, lower(username) AS username FROM users
+                        WHERE lower(email) IN (:emails) OR lower(username) IN (:usernames)
+                        """,
+                params, rs -> {
+                    existingEmails.add(rs.getString("email"));
+                    existingUsernames.add(rs.getString("username"));
+                });
+
+        List<UserImportRow> newRows = new ArrayList<>(chunk.size());
+        for (UserImportRow row : chunk) {
+            if (existingEmails.contains(row.getEmail()) || existingUsernames.contains(lowerCase(row.getLogin()))) {
+                progress.duplicateRows++;
+            } else {
+                newRows.add(row);
+            }
+        }
+        return newRows;
+    }
+
+    /**
+     * Split the users into Auth0 users files that stay under the endpoint's size limit and queue them
+     */
+    private void queueAuth0Batches(List<UUID> ids, List<UserImportRow> rows, ImportProgress progress) {
+        List<UserImportBatch> batches = new ArrayList<>();
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        int users = 0;
+
+        for (int i = 0; i < rows.size(); i++) {
+            byte[] user = toAuth0User(ids.get(i), rows.get(i));
+            // +2 for the closing bracket and separator
+            if (users > 0 && payload.size() + user.length + 2 > maxPayloadBytes) {
+                batches.add(newBatch(payload, users, progress));
+                payload.reset();
+                users = 0;
+            }
+            payload.write(users == 0 ? '[' : ',');
+            payload.writeBytes(user);
+            users++;
+        }
+        if (users > 0) {
+            batches.add(newBatch(payload, users, progress));
+        }
+        userImportBatchRepository.saveAll(batches);
+    }
+
+    private UserImportBatch newBatch(ByteArrayOutputStream payload, int users, ImportProgress progress) {
+        payload.write(']');
+        return UserImportBatch.builder()
+                .jobId(progress.jobId)
+                .batchNumber(++progress.batchNumber)
+                .userCount(users)
+                .payload(payload.toString(StandardCharsets.UTF_8))
+                .status(UserImportBatchStatus.QUEUED)
+                .build();
+    }
+
+    private byte[] toAuth0User(UUID id, UserImportRow row) {
+        Auth0ImportUser user = Auth0ImportUser.builder()
+                .userId(id.toString())
+                .email(row.getEmail())
+                .emailVerified(false)
+                .name(row.getName())
+                .picture(row.getImageUrl())
+                .blocked(row.getActivated() != null && !row.getActivated())
+                .customPasswordHash(row.getPasswordHash() != null
+                        ? Auth0ImportUser.CustomPasswordHash.bcrypt(row.getPasswordHash())
+                        : null)
+                .build();
+        try {
+            return objectMapper.writeValueAsBytes(user);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private RowReader openReader(InputStream input, UserImportFormat format) throws IOException {
+        if (format == UserImportFormat.JSON) {
+            MappingIterator<UserImportRow> iterator = objectMapper.readerFor(UserImportRow.class).readValues(input);
+            return new RowReader() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public UserImportRow next() {
+                    return iterator.next();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    iterator.close();
+                }
+            };
+        }
+        return new CsvRowReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), objectMapper);
+    }
+
+    private static String lowerCase(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private interface RowReader extends Iterator<UserImportRow>, AutoCloseable {
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Reads the semicolon separated format of liquibase/data/user.csv; columns are matched by header name
+     */
+    private static final class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private final String[] header;
+        private String nextLine;
+
+        private CsvRowReader(BufferedReader reader, ObjectMapper objectMapper) throws IOException {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new BadRequestException("Import file is empty.");
+            }
+            // Strip a UTF-8 byte order mark left by spreadsheet exports
+            this.header = headerLine.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT).split(CSV_SEPARATOR, -1);
+            this.nextLine = readDataLine();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextLine != null;
+        }
+
+        @Override
+        public UserImportRow next() {
+            if (nextLine == null) {
+                throw new NoSuchElementException();
+            }
+            String[] values = nextLine.split(CSV_SEPARATOR, -1);
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.length && i < values.length; i++) {
+                fields.put(header[i].trim(), blankToNull(values[i].trim()));
+            }
+            try {
+                nextLine = readDataLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return objectMapper.convertValue(fields, UserImportRow.class);
+        }
+
+        private String readDataLine() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+            return line;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class ImportProgress {
+        private final UUID jobId;
+        private final String auditor;
+        private final Set<String> seenEmails = new HashSet<>();
+        private final Set<String> seenLogins = new HashSet<>();
+        private final List<String> errors = new ArrayList<>();
+        private int totalRows;
+        private int invalidRows;
+        private int duplicateRows;
+        private int insertedRows;
+        private int batchNumber;
+
+        private ImportProgress(UUID jobId, String auditor) {
+            this.jobId = jobId;
+            this.auditor = auditor;
+        }
+
+        private void addError(String error) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+}
@@ -4,23 +4,34 @@ import identity.server.backend.domain.Role;
 import identity.server.backend.domain.User;
 import identity.server.backend.framework.constants.AuthoritiesConstants;
 import identity.server.backend.framework.constants.MessageConstants;
+import identity.server.backend.framework.enums.Auth0OutboxOperation;
 import identity.server.backend.framework.exception.BadRequestException;
 import identity.server.backend.framework.exception.NotFoundException;
-import identity.server.backend.framework.thirdparty.auth0.model.Auth0UserResponse;
+import identity.server.backend.framework.utils.SQLUtils;
 import identity.server.backend.framework.thirdparty.auth0.model.CreateUserAuth0Request;
 import identity.server.backend.framework.thirdparty.auth0.model.UpdateUserRequest;
-import identity.server.backend.framework.thirdparty.auth0.service.user.IAuth0UserService;
 import identity.server.backend.model.request.user.CreateUserFromAuth0Request;
 import identity.server.backend.model.request.user.CreateUserRequest;
 import identity.server.backend.model.request.user.UpdateRoleUserRequest;
+import identity.server.backend.model.request.user.SortByUser;
 import identity.server.backend.model.request.user.UpdateUserProfileRequest;
+import identity.server.backend.model.request.user.UserCursor;
 import identity.server.backend.model.request.user.UserFilter;
+import identity.server.backend.model.response.KeysetPage;
+import identity.server.backend.model.response.Role.RoleBaseResponse;
 import identity.server.backend.model.response.user.UserResponse;
 import identity.server.backend.repository.RoleRepository;
+import identity.server.backend.repository.UserDirectoryQueryRepository;
+import identity.server.backend.repository.projection.UserListItem;
 import identity.server.backend.repository.UserRepository;
+import identity.server.backend.service.authority.AuthorityChangedEvent;
+import identity.server.backend.service.outbox.IAuth0OutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -29,6 +40,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -41,9 +55,15 @@ public class UserServiceImpl implements IUserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final IAuth0UserService auth0UserService;
+    private final IAuth0OutboxService auth0OutboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserDirectoryQueryRepository userDirectoryQueryRepository;
+
+    @Value("${user.search.full-text.candidate-limit:1000}")
+    private int fullTextCandidateLimit;
 
     private static final String AUTH0_CONNECTION = "Username-Password-Authentication";
+    private static final String AUTH0_USER_ID_PREFIX = "auth0|";
 
     @Override
     @Transactional(readOnly = true)
@@ -64,6 +84,7 @@ public class UserServiceImpl implements IUserService {
 
         userRepository.save(user);
         log.info("Updated Auth0 user ID for user: {}. Auth0UserId: {}", user.getId(), auth0UserId);
+        publishAuthorityChanged(auth0UserId);
     }
 
     @Override
@@ -92,10 +113,14 @@ public class UserServiceImpl implements IUserService {
         Role userRole = roleRepository.findByCodeIgnoreCase(AuthoritiesConstants.USER)
                 .orElseThrow(() -> new BadRequestException("Default USER role not found"));
 
+        // The Auth0 user_id is chosen here, so the user is complete before Auth0 has been called
+        String auth0Id = UUID.randomUUID().toString();
+
         User user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
                 .name(request.getName())
+                .auth0UserId(AUTH0_USER_ID_PREFIX + auth0Id)
                 .activated(true)
                 .roles(new HashSet<>(Set.of(userRole)))
                 .isDelete(false)
@@ -104,36 +129,24 @@ public class UserServiceImpl implements IUserService {
         User savedUser = userRepository.save(user);
         log.info("User saved to database with ID: {}", savedUser.getId());
 
-        try {
-            CreateUserAuth0Request auth0Request = CreateUserAuth0Request.builder()
-                    .email(request.getEmail())
-                    // Don't send username to Auth0 as the connection doesn't support it
-                    // .username(request.getUsername())
-                    .password(request.getPassword())
-                    .name(request.getName())
-                    .givenName(null)
-                    .familyName(null)
-                    .connection(AUTH0_CONNECTION)
-                    .emailVerified(false)
-                    .blocked(false)
-                    .build();
-
-            Auth0UserResponse auth0Response = auth0UserService.createUser(auth0Request);
-            log.info("User created in Auth0 with ID: {}", auth0Response.getUserId());
-
-            savedUser.setAuth0UserId(auth0Response.getUserId());
-            savedUser.setUrlAvatar(auth0Response.getPicture());
-            savedUser.setLastModifiedDate(Instant.now());
-
-            savedUser = userRepository.save(savedUser);
-            log.info("User updated with Auth0 details");
+        CreateUserAuth0Request auth0Request = CreateUserAuth0Request.builder()
+                .userId(auth0Id)
+                .email(request.getEmail())
+                // Don't send username to Auth0 as the connection doesn't support it
+                // .username(request.getUsername())
+                .password(request.getPassword())
+                .name(request.getName())
+                .givenName(null)
+                .familyName(null)
+                .connection(AUTH0_CONNECTION)
+                .emailVerified(false)
+                .blocked(false)
+                .build();
 
-            return UserResponse.mapToUserResponse(savedUser, MessageConstants.CREATE_USER_SUCCESS);
+        auth0OutboxService.enqueue(savedUser.getId(), savedUser.getAuth0UserId(), Auth0OutboxOperation.CREATE_USER, auth0Request);
+        publishAuthorityChanged(savedUser.getAuth0UserId());
 
-        } catch (Exception e) {
-            log.error("Failed to create user in Auth0, rolling back database transaction", e);
-            throw new BadRequestException("Failed to create user in Auth0: " + e.getMessage());
-        }
+        return UserResponse.mapToUserResponse(savedUser, MessageConstants.CREATE_USER_SUCCESS);
     }
 
     private UserResponse reactivateUser(User user, CreateUserRequest request) {
@@ -143,36 +156,18 @@ public class UserServiceImpl implements IUserService {
         user.setActivated(true);
         user.setLastModifiedDate(Instant.now());
 
+        // Users that never reached Auth0 get their Auth0 user_id now; the outbox creates them
+        if (user.getAuth0UserId() == null) {
+            log.warn("No Auth0 user ID found, creating new Auth0 user");
+            user.setAuth0UserId(AUTH0_USER_ID_PREFIX + UUID.randomUUID());
+        }
+
         User savedUser = userRepository.save(user);
         log.info("User reactivated in database: {}", savedUser.getId());
 
-        try {
-            if (user.getAuth0UserId() != null) {
-                Auth0UserResponse existingAuth0User = auth0UserService.getUserFilterAuth0Id(user.getAuth0UserId());
-
-                if (existingAuth0User != null) {
-                    auth0UserService.blockUser(user.getAuth0UserId(), false);
-                    log.info("User unblocked in Auth0: {}", user.getAuth0UserId());
-                } else {
-                    log.warn("Auth0 user not found, creating new Auth0 user");
-                    createAuth0UserForReactivation(savedUser, request);
-                }
-            } else {
-                log.warn("No Auth0 user ID found, creating new Auth0 user");
-                createAuth0UserForReactivation(savedUser, request);
-            }
-
-            return UserResponse.mapToUserResponse(savedUser, MessageConstants.USER_REACTIVATED_SUCCESS);
-
-        } catch (Exception e) {
-            log.error("Failed to reactivate user in Auth0", e);
-            throw new BadRequestException("Failed to reactivate user in Auth0: " + e.getMessage());
-        }
-    }
-
-    private void createAuth0UserForReactivation(User user, CreateUserRequest request) {
-       CreateUserAuth0Request auth0Request = CreateUserAuth0Request.builder()
-                .email(user.getEmail())
+        CreateUserAuth0Request auth0Request = CreateUserAuth0Request.builder()
+                .userId(stripAuth0Prefix(savedUser.getAuth0UserId()))
+                .email(savedUser.getEmail())
                 .password(request.getPassword())
                 .name(request.getName())
                 .givenName(null)
@@ -182,14 +177,9 @@ public class UserServiceImpl implements IUserService {
                 .blocked(false)
                 .build();
 
-        Auth0UserResponse auth0Response = auth0UserService.createUser(auth0Request);
-        log.info("New Auth0 user created for reactivation: {}", auth0Response.getUserId());
-
-        user.setAuth0UserId(auth0Response.getUserId());
-        user.setUrlAvatar(auth0Response.getPicture());
-        user.setLastModifiedDate(Instant.now());
-
-        userRepository.save(user);
+        auth0OutboxService.enqueue(savedUser.getId(), savedUser.getAuth0UserId(), Auth0OutboxOperation.REACTIVATE_USER, auth0Request);
+        publishAuthorityChanged(savedUser.getAuth0UserId());
+        return UserResponse.mapToUserResponse(savedUser, MessageConstants.USER_REACTIVATED_SUCCESS);
     }
 
     @Override
@@ -232,6 +222,7 @@ public class UserServiceImpl implements IUserService {
         user.setLastModifiedDate(Instant.now());
         User savedUser = userRepository.save(user);
         log.info("User updated in database: {}", userId);
+        publishAuthorityChanged(savedUser.getAuth0UserId());
         return UserResponse.mapToUserResponse(savedUser, MessageConstants.UPDATE_USER_SUCCESS);
     }
 
@@ -254,15 +245,10 @@ public class UserServiceImpl implements IUserService {
 
         User savedUser = userRepository.save(user);
         log.info("User soft deleted in database: {}", userId);
+        publishAuthorityChanged(savedUser.getAuth0UserId());
 
         if (user.getAuth0UserId() != null) {
-            try {
-                auth0UserService.blockUser(user.getAuth0UserId(), true);
-                log.info("User blocked in Auth0: {}", user.getAuth0UserId());
-
-            } catch (Exception e) {
-                log.error("Failed to block user in Auth0, but database was updated", e);
-            }
+            auth0OutboxService.enqueue(savedUser.getId(), savedUser.getAuth0UserId(), Auth0OutboxOperation.BLOCK_USER, null);
         } else {
             log.warn("User has no Auth0 user ID, skipping Auth0 block");
         }
@@ -315,14 +301,14 @@ public class UserServiceImpl implements IUserService {
         Pageable pageable = PageRequest.of(page, size, sort);
 
         String searchTerm = userFilter.getSearchTerm();
-        String normalizedSearch = (searchTerm != null && !searchTerm.isBlank())
-                ? searchTerm.trim()
+        String searchPattern = (searchTerm != null && !searchTerm.isBlank())
+                ? SQLUtils.wildcardsLike(searchTerm.toLowerCase(Locale.ROOT))
                 : null;
 
         Boolean isDelete = userFilter.getStatus();
 
-        Page<User> users = userRepository.searchUsers(
-                normalizedSearch,
+        Page<UserListItem> users = userRepository.searchUsers(
+                searchPattern,
                 isDelete,
                 userFilter.getCreatedDateFrom(),
                 userFilter.getCreatedDateTo(),
@@ -330,7 +316,100 @@ public class UserServiceImpl implements IUserService {
                 pageable
         );
 
-        return users.map(user -> UserResponse.mapToUserResponse(user, null));
+        List<UserResponse> content = mapToUserResponses(users.getContent());
+        return new PageImpl<>(content, users.getPageable(), users.getTotalElements());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<UserResponse> searchUsersKeyset(UserFilter userFilter) {
+        log.debug("Searching users (keyset) with filter: search='{}', status={}, createdDateFrom={}, createdDateTo={}, cursor={}, size={}, sortBy={}, orderBy={}",
+                userFilter.getSearchTerm(),
+                userFilter.getStatus(),
+                userFilter.getCreatedDateFrom(),
+                userFilter.getCreatedDateTo(),
+                userFilter.getCursor(),
+                userFilter.getSize(),
+                userFilter.getSortByUser(),
+                userFilter.getOrderBy());
+
+        SortByUser sortBy = userFilter.getSortByUser() != null
+                ? userFilter.getSortByUser()
+                : SortByUser.EMAIL;
+
+        Sort.Direction direction = userFilter.getOrderBy() != null
+                ? userFilter.getOrderBy()
+                : Sort.Direction.ASC;
+
+        int size = userFilter.getSize() != null ? userFilter.getSize() : 20;
+
+        UserCursor cursor = null;
+        if (userFilter.getCursor() != null && !userFilter.getCursor().isBlank()) {
+            cursor = UserCursor.decode(userFilter.getCursor());
+            if (cursor.getSortBy() != sortBy || cursor.getOrderBy() != direction) {
+                throw new BadRequestException("Pagination cursor does not match the requested sort.");
+            }
+        }
+
+        String searchTerm = userFilter.getSearchTerm();
+        String searchPattern = (searchTerm != null && !searchTerm.isBlank())
+                ? SQLUtils.wildcardsLike(searchTerm.toLowerCase(Locale.ROOT))
+                : null;
+
+        // Fetch one extra row to know whether another slice exists without counting
+        List<UserListItem> users = userRepository.searchUsersAfter(
+                searchPattern,
+                userFilter.getStatus(),
+                userFilter.getCreatedDateFrom(),
+                userFilter.getCreatedDateTo(),
+                userFilter.getRoleIds(),
+                sortBy,
+                direction,
+                cursor != null ? cursor.getSortValue() : null,
+                cursor != null ? cursor.getId() : null,
+                size + 1
+        );
+
+        boolean hasNext = users.size() > size;
+        List<UserListItem> content = hasNext ? users.subList(0, size) : users;
+        String nextCursor = hasNext
+                ? UserCursor.of(sortBy, direction, content.get(content.size() - 1)).encode()
+                : null;
+
+        return KeysetPage.<UserResponse>builder()
+                .content(mapToUserResponses(content))
+                .size(size)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserResponse> searchUsersFullText(UserFilter userFilter) {
+        log.debug("Full-text searching users with filter: search='{}', status={}, createdDateFrom={}, createdDateTo={}, size={}",
+                userFilter.getSearchTerm(),
+                userFilter.getStatus(),
+                userFilter.getCreatedDateFrom(),
+                userFilter.getCreatedDateTo(),
+                userFilter.getSize());
+
+        String tsQuery = SQLUtils.prefixTsQuery(userFilter.getSearchTerm());
+        if (tsQuery == null) {
+            throw new BadRequestException("A search term with at least one letter or digit is required for full-text search.");
+        }
+
+        int size = userFilter.getSize() != null ? userFilter.getSize() : 20;
+
+        return userDirectoryQueryRepository.searchUsersFullText(
+                tsQuery,
+                userFilter.getStatus(),
+                userFilter.getCreatedDateFrom(),
+                userFilter.getCreatedDateTo(),
+                userFilter.getRoleIds(),
+                size,
+                fullTextCandidateLimit
+        );
     }
 
     @Override
@@ -365,19 +444,12 @@ public class UserServiceImpl implements IUserService {
         log.info("User profile updated in database: {}", user.getId());
 
         if (user.getAuth0UserId() != null) {
-            try {
-                UpdateUserRequest auth0UpdateRequest = UpdateUserRequest.builder()
-                        .name(request.getName())
-                        .password(request.getPassword())
-                        .build();
-
-                auth0UserService.updateUser(user.getAuth0UserId(), auth0UpdateRequest);
-                log.info("User profile updated in Auth0: {}", user.getAuth0UserId());
-
-            } catch (Exception e) {
-                log.error("Failed to update user profile in Auth0, but database was updated", e);
-                throw new BadRequestException("Failed to update user profile in Auth0: " + e.getMessage());
-            }
+            UpdateUserRequest auth0UpdateRequest = UpdateUserRequest.builder()
+                    .name(request.getName())
+                    .password(request.getPassword())
+                    .build();
+
+            auth0OutboxService.enqueue(savedUser.getId(), savedUser.getAuth0UserId(), Auth0OutboxOperation.UPDATE_USER, auth0UpdateRequest);
         } else {
             log.warn("User has no Auth0 user ID, skipping Auth0 update");
         }
@@ -404,15 +476,10 @@ public class UserServiceImpl implements IUserService {
 
         User savedUser = userRepository.save(user);
         log.info("User activated in database: {}", userId);
+        publishAuthorityChanged(savedUser.getAuth0UserId());
 
         if (user.getAuth0UserId() != null) {
-            try {
-                auth0UserService.blockUser(user.getAuth0UserId(), false);
-                log.info("User unblocked in Auth0: {}", user.getAuth0UserId());
-
-            } catch (Exception e) {
-                log.error("Failed to unblock user in Auth0, but database was updated", e);
-            }
+            auth0OutboxService.enqueue(savedUser.getId(), savedUser.getAuth0UserId(), Auth0OutboxOperation.UNBLOCK_USER, null);
         } else {
             log.warn("User has no Auth0 user ID, skipping Auth0 unblock");
         }
@@ -447,6 +514,33 @@ public class UserServiceImpl implements IUserService {
 
         userRepository.save(user);
         log.info("User created from Auth0 with ID: {}", user.getId());
+        publishAuthorityChanged(user.getAuth0UserId());
         return UserResponse.mapToUserResponse(user, MessageConstants.CREATE_USER_SUCCESS);
     }
+
+    private static String stripAuth0Prefix(String auth0UserId) {
+        return auth0UserId.startsWith(AUTH0_USER_ID_PREFIX)
+                ? auth0UserId.substring(AUTH0_USER_ID_PREFIX.length())
+                : auth0UserId;
+    }
+
+    /**
+     * Evict cached authorities of the user once the current transaction commits
+     */
+    private void publishAuthorityChanged(String auth0UserId) {
+        if (auth0UserId != null) {
+            eventPublisher.publishEvent(AuthorityChangedEvent.forUser(auth0UserId));
+        }
+    }
+
+    /**
+     * Build list responses, loading the roles of all users with one aggregated query
+     */
+    private List<UserResponse> mapToUserResponses(List<UserListItem> users) {
+        Map<UUID, Set<RoleBaseResponse>> roles = userDirectoryQueryRepository.findRolesByUserIds(
+                users.stream().map(UserListItem::id).toList());
+        return users.stream()
+                .map(user -> UserResponse.mapToUserResponse(user, roles.get(user.id())))
+                .toList();
+    }
 }
@@ -0,0 +1,87 @@
+package identity.server.backend.web.rest;
+
+import identity.server.backend.framework.enums.Auth0OutboxStatus;
+import identity.server.backend.framework.handler.model.ResponseData;
+import identity.server.backend.framework.support.ResponseSupport;
+import identity.server.backend.service.outbox.IAuth0OutboxService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping(path = "api/auth0-outbox")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Auth0 Outbox", description = "APIs to inspect, replay and discard Auth0 calls queued by user changes")
+public class Auth0OutboxController {
+    private final IAuth0OutboxService auth0OutboxService;
+    private final ResponseSupport responseSupport;
+
+    @GetMapping
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(
+        summary = "List outbox entries",
+        description = "List queued Auth0 calls, newest first. Use status=FAILED to find deliveries that need attention."
+    )
+    public ResponseEntity<ResponseData> getEntries(
+            @Parameter(description = "Status filter (PENDING, SENDING, SENT, FAILED, DISCARDED, null = all)")
+            @RequestParam(required = false) Auth0OutboxStatus status,
+
+            @Parameter(description = "Page number (0-indexed)")
+            @RequestParam(defaultValue = "0") int page,
+
+            @Parameter(description = "Page size")
+            @RequestParam(defaultValue = "20") int size) {
+
+        log.debug("REST request to get Auth0 outbox entries: status={}, page={}, size={}", status, page, size);
+        return responseSupport.success(ResponseData.builder()
+                .isSuccess(true)
+                .httpStatus(HttpStatus.OK.value())
+                .data(auth0OutboxService.getEntries(status, page, size))
+                .build());
+    }
+
+    @PostMapping("/{entryId}/replay")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(
+        summary = "Replay a failed outbox entry",
+        description = "Queue a FAILED entry for immediate delivery with a fresh retry budget"
+    )
+    public ResponseEntity<ResponseData> replay(
+            @Parameter(description = "Outbox entry ID", required = true)
+            @PathVariable UUID entryId) {
+
+        log.info("REST request to replay Auth0 outbox entry: {}", entryId);
+        return responseSupport.success(ResponseData.builder()
+                .isSuccess(true)
+                .httpStatus(HttpStatus.OK.value())
+                .data(auth0OutboxService.replay(entryId))
+                .build());
+    }
+
+    @PostMapping("/{entryId}/discard")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(
+        summary = "Discard a failed outbox entry",
+        description = "Give up on a FAILED entry that cannot succeed, so later changes of its user are delivered"
+    )
+    public ResponseEntity<ResponseData> discard(
+            @Parameter(description = "Outbox entry ID", required = true)
+            @PathVariable UUID entryId) {
+
+        log.info("REST request to discard Auth0 outbox entry: {}", entryId);
+        return responseSupport.success(ResponseData.builder()
+                .isSuccess(true)
+                .httpStatus(HttpStatus.OK.value())
+                .data(auth0OutboxService.discard(entryId))
+                .build());
+    }
+}
@@ -2,13 +2,19 @@ package identity.server.backend.web.rest;
 
 import identity.server.backend.framework.handler.model.ResponseData;
 import identity.server.backend.framework.support.ResponseSupport;
+import identity.server.backend.model.PaginationMode;
 import identity.server.backend.model.request.user.CreateUserRequest;
 import identity.server.backend.model.request.user.SortByUser;
 import identity.server.backend.model.request.user.UpdateRoleUserRequest;
+import identity.server.backend.model.request.user.UserExportFormat;
 import identity.server.backend.model.request.user.UserFilter;
+import identity.server.backend.model.request.user.UserImportFormat;
+import identity.server.backend.model.request.user.UserSearchMode;
 import identity.server.backend.model.response.user.UserResponse;
+import identity.server.backend.model.response.user.UserImportJobResponse;
+import identity.server.backend.service.user.IUserExportService;
+import identity.server.backend.service.user.IUserImportService;
 import identity.server.backend.service.user.IUserService;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,11 +26,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Set;
 import java.util.UUID;
 
@@ -35,6 +48,8 @@ import java.util.UUID;
 @Tag(name = "User Management", description = "APIs for user management")
 public class UserController {
     private final IUserService userService;
+    private final IUserExportService userExportService;
+    private final IUserImportService userImportService;
     private final ResponseSupport responseSupport;
 
     @PostMapping
@@ -176,7 +191,11 @@ public class UserController {
         summary = "Search users",
         description = "Search users by email or username with pagination. Default size is 20, sorted by email ascending. " +
                 "Dates should be sent in ISO-8601 format (e.g., 2024-01-01T00:00:00Z). " +
-                "The backend will automatically handle timezone conversion to UTC for database queries."
+                "The backend will automatically handle timezone conversion to UTC for database queries. " +
+                "With pagination=KEYSET the page parameter is ignored: pass the returned next_cursor as cursor to get the following slice " +
+                "(no total count is computed, and sortBy/orderBy must stay the same as for the first slice). " +
+                "With searchMode=FULL_TEXT the search term is matched by word prefix against username, email local part and name, " +
+                "and the top 'size' users are returned ordered by relevance (page, sort and pagination are ignored)."
     )
     public ResponseEntity<ResponseData> searchUsers(
             @Parameter(description = "Status filter (true = deleted, false = active, null = all)")
@@ -204,10 +223,19 @@ public class UserController {
             @RequestParam(required = false, defaultValue = "EMAIL") SortByUser sortBy,
 
             @Parameter(description = "Sort direction (ASC or DESC)")
-            @RequestParam(required = false, defaultValue = "ASC") Sort.Direction orderBy) {
+            @RequestParam(required = false, defaultValue = "ASC") Sort.Direction orderBy,
 
-        log.debug("REST request to search users: search='{}', status={}, createdDateFrom={}, createdDateTo={}, roleIds={}, page={}, size={}, sortBy={}, orderBy={}",
-                search, status, createdDateFrom, createdDateTo, roleIds, page, size, sortBy, orderBy);
+            @Parameter(description = "Pagination mode (OFFSET = page number with total count, KEYSET = cursor based)")
+            @RequestParam(required = false, defaultValue = "OFFSET") PaginationMode pagination,
+
+            @Parameter(description = "Continuation cursor from the previous KEYSET response (omit for the first slice)")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Search mode (CONTAINS = substring on email/username, FULL_TEXT = ranked word-prefix match)")
+            @RequestParam(required = false, defaultValue = "CONTAINS") UserSearchMode searchMode) {
+
+        log.debug("REST request to search users: search='{}', status={}, createdDateFrom={}, createdDateTo={}, roleIds={}, page={}, size={}, sortBy={}, orderBy={}, pagination={}, searchMode={}",
+                search, status, createdDateFrom, createdDateTo, roleIds, page, size, sortBy, orderBy, pagination, searchMode);
 
         UserFilter userFilter = UserFilter.builder()
                 .page(page)
@@ -219,9 +247,17 @@ public class UserController {
                 .createdDateFrom(createdDateFrom)
                 .createdDateTo(createdDateTo)
                 .roleIds(roleIds)
+                .cursor(cursor)
                 .build();
 
-        Page<UserResponse> users = userService.searchUsers(userFilter);
+        Object users;
+        if (searchMode == UserSearchMode.FULL_TEXT) {
+            users = userService.searchUsersFullText(userFilter);
+        } else if (pagination == PaginationMode.KEYSET) {
+            users = userService.searchUsersKeyset(userFilter);
+        } else {
+            users = userService.searchUsers(userFilter);
+        }
 
         return responseSupport.success(ResponseData.builder()
                 .isSuccess(true)
@@ -230,6 +266,100 @@ public class UserController {
                 .build());
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(
+        summary = "Export users",
+        description = "Stream every user matching the filters, with roles, as CSV or NDJSON (one JSON object per line). " +
+                "Rows are written while they are read from the database, so exports of any size use constant memory."
+    )
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "Status filter (true = deleted, false = active, null = all)")
+            @RequestParam(required = false) Boolean status,
+
+            @Parameter(description = "Search keyword (searches in email and username)")
+            @RequestParam(required = false) String search,
+
+            @Parameter(description = "Filter users created from this date (ISO-8601 format, e.g., 2024-01-01T00:00:00Z)")
+            @RequestParam(required = false) java.time.Instant createdDateFrom,
+
+            @Parameter(description = "Filter users created until this date (ISO-8601 format, e.g., 2024-12-31T23:59:59Z)")
+            @RequestParam(required = false) java.time.Instant createdDateTo,
+
+            @Parameter(description = "Filter by role IDs (users must have at least one of these roles)")
+            @RequestParam(required = false) Set<UUID> roleIds,
+
+            @Parameter(description = "Export format (CSV or NDJSON)")
+            @RequestParam(required = false, defaultValue = "CSV") UserExportFormat format) {
+
+        log.info("REST request to export users: search='{}', status={}, createdDateFrom={}, createdDateTo={}, roleIds={}, format={}",
+                search, status, createdDateFrom, createdDateTo, roleIds, format);
+
+        UserFilter userFilter = UserFilter.builder()
+                .searchTerm(search)
+                .status(status)
+                .createdDateFrom(createdDateFrom)
+                .createdDateTo(createdDateTo)
+                .roleIds(roleIds)
+                .build();
+
+        StreamingResponseBody body = outputStream -> userExportService.exportUsers(userFilter, format, outputStream);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + format.getExtension())
+                        .build()
+                        .toString())
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+
+    @PostMapping(path = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(
+        summary = "Import users",
+        description = "Bulk import users from a CSV file (semicolon separated, same columns as liquibase/data/user.csv) " +
+                "or a JSON array. Rows are validated and inserted in chunks; rows whose email or login already exists are skipped. " +
+                "Users are created in Auth0 afterwards through Auth0 user import jobs: poll GET /api/users/import/{jobId} for progress."
+    )
+    public ResponseEntity<ResponseData> importUsers(
+            @Parameter(description = "Import file", required = true)
+            @RequestPart("file") MultipartFile file,
+
+            @Parameter(description = "File format (CSV or JSON)")
+            @RequestParam(required = false, defaultValue = "CSV") UserImportFormat format
+    ) throws IOException {
+        log.info("REST request to import users from file: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+
+        UserImportJobResponse response;
+        try (InputStream input = file.getInputStream()) {
+            response = userImportService.importUsers(input, file.getOriginalFilename(), format);
+        }
+        return responseSupport.success(ResponseData.builder()
+                .isSuccess(true)
+                .data(response)
+                .httpStatus(HttpStatus.OK.value())
+                .build());
+    }
+
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(
+        summary = "Get user import job",
+        description = "Get the row counts of an import and the progress of its Auth0 import jobs"
+    )
+    public ResponseEntity<ResponseData> getImportJob(
+            @Parameter(description = "Import job ID", required = true)
+            @PathVariable UUID jobId
+    ) {
+        log.debug("REST request to get user import job: {}", jobId);
+        return responseSupport.success(ResponseData.builder()
+                .isSuccess(true)
+                .data(userImportService.getImportJob(jobId))
+                .httpStatus(HttpStatus.OK.value())
+                .build());
+    }
+
     @GetMapping("/{userId}")
     @PreAuthorize("hasAuthority('ADMIN')")
     @Operation(
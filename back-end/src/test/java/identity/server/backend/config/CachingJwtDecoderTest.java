@@ -0,0 +1,143 @@
+package identity.server.backend.config;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingJwtDecoderTest {
+
+    private static final String ISSUER = "https://tenant.example.com/";
+    private static final String AUDIENCE = "https://api.example.com";
+
+    private static RSAKey signingKey;
+    private static JwtDecoder verifyingDecoder;
+
+    private final AtomicLong ticker = new AtomicLong();
+    private final AtomicInteger decodes = new AtomicInteger();
+    private CachingJwtDecoder decoder;
+
+    @BeforeAll
+    static void createKey() throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        verifyingDecoder = JwtDecoderConfiguration.buildJwtDecoder(
+                new ImmutableJWKSet<>(new JWKSet(signingKey.toPublicJWK())),
+                JWSAlgorithm.RS256,
+                new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefaultWithIssuer(ISSUER),
+                        new AudienceValidator(AUDIENCE)));
+    }
+
+    @BeforeEach
+    void setUp() {
+        decoder = new CachingJwtDecoder(token -> {
+            decodes.incrementAndGet();
+            return verifyingDecoder.decode(token);
+        }, Duration.ofMinutes(5), 100, Clock.systemUTC(), ticker::get);
+    }
+
+    @Test
+    void verifiesRepeatTokenOnce() throws Exception {
+        String token = sign("auth0|1", JOSEObjectType.JWT, Instant.now().plusSeconds(3600));
+
+        Jwt first = decoder.decode(token);
+        Jwt second = decoder.decode(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getSubject()).isEqualTo("auth0|1");
+        assertThat(decodes.get()).isEqualTo(1);
+        assertThat(decoder.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void acceptsAccessTokenProfileType() throws Exception {
+        String token = sign("auth0|2", new JOSEObjectType("at+jwt"), Instant.now().plusSeconds(3600));
+
+        assertThat(decoder.decode(token).getSubject()).isEqualTo("auth0|2");
+    }
+
+    @Test
+    void expiresEntryAtTokenExpiry() throws Exception {
+        String token = sign("auth0|3", JOSEObjectType.JWT, Instant.now().plusSeconds(3600));
+        decoder = new CachingJwtDecoder(verifyingDecoder, Duration.ofMinutes(5), 100,
+                Clock.fixed(Instant.now().plusSeconds(3600 - 30), ZoneOffset.UTC), ticker::get);
+
+        decoder.decode(token);
+        ticker.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertThat(decoder.size()).isEqualTo(1);
+
+        ticker.addAndGet(Duration.ofSeconds(2).toNanos());
+        decoder.decode(token);
+        assertThat(decoder.stats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotCacheRejectedTokens() throws Exception {
+        String token = sign(new RSAKeyGenerator(2048).keyID("key-1").generate(),
+                claims("auth0|4", Instant.now().plusSeconds(3600)), JOSEObjectType.JWT);
+
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+
+        assertThat(decodes.get()).isEqualTo(2);
+        assertThat(decoder.size()).isZero();
+    }
+
+    @Test
+    void doesNotCacheTokensFailingClaimValidation() throws Exception {
+        String token = sign(signingKey, new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .audience("https://other-api.example.com")
+                .subject("auth0|5")
+                .expirationTime(Date.from(Instant.now().plusSeconds(3600)))
+                .build(), JOSEObjectType.JWT);
+
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtValidationException.class);
+        assertThat(decoder.size()).isZero();
+    }
+
+    private static String sign(String subject, JOSEObjectType type, Instant expiresAt) throws Exception {
+        return sign(signingKey, claims(subject, expiresAt), type);
+    }
+
+    private static String sign(RSAKey key, JWTClaimsSet claims, JOSEObjectType type) throws Exception {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).type(type).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    private static JWTClaimsSet claims(String subject, Instant expiresAt) {
+        return new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .audience(AUDIENCE)
+                .subject(subject)
+                .issueTime(new Date())
+                .expirationTime(Date.from(expiresAt))
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package identity.server.backend.config;
+
+import identity.server.backend.domain.Role;
+import identity.server.backend.domain.User;
+import identity.server.backend.repository.UserRepository;
+import identity.server.backend.service.authority.AuthorityCacheEvictionListener;
+import identity.server.backend.service.authority.AuthorityChangedEvent;
+import identity.server.backend.service.authority.UserAuthorityCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomJwtAuthenticationConverterTest {
+
+    private static final String SUB = "auth0|123";
+
+    private UserRepository userRepository;
+    private UserAuthorityCache cache;
+    private CustomJwtAuthenticationConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        cache = new UserAuthorityCache(Duration.ofMinutes(5), 100);
+        converter = new CustomJwtAuthenticationConverter(userRepository, cache);
+    }
+
+    @Test
+    void repeatedTokensForSameUserHitTheCache() {
+        when(userRepository.findByAuth0UserIdWithRoles(SUB)).thenReturn(Optional.of(userWithRoles("ADMIN", "USER")));
+
+        AbstractAuthenticationToken first = converter.convert(jwt());
+        AbstractAuthenticationToken second = converter.convert(jwt());
+
+        assertThat(authorityCodes(first)).containsExactlyInAnyOrder("ADMIN", "USER");
+        assertThat(authorityCodes(second)).containsExactlyInAnyOrder("ADMIN", "USER");
+        verify(userRepository, times(1)).findByAuth0UserIdWithRoles(SUB);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().loadSuccessCount()).isEqualTo(1);
+    }
+
+    @Test
+    void authorityChangeEvictsCachedAuthorities() {
+        when(userRepository.findByAuth0UserIdWithRoles(SUB))
+                .thenReturn(Optional.of(userWithRoles("USER")))
+                .thenReturn(Optional.of(userWithRoles("ADMIN", "USER")));
+        AuthorityCacheEvictionListener listener = new AuthorityCacheEvictionListener(cache);
+
+        converter.convert(jwt());
+        listener.onAuthorityChanged(AuthorityChangedEvent.forUser(SUB));
+
+        assertThat(authorityCodes(converter.convert(jwt()))).containsExactlyInAnyOrder("ADMIN", "USER");
+        verify(userRepository, times(2)).findByAuth0UserIdWithRoles(SUB);
+    }
+
+    @Test
+    void failedLookupIsNotCached() {
+        when(userRepository.findByAuth0UserIdWithRoles(SUB))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(Optional.of(userWithRoles("USER")));
+
+        assertThat(converter.convert(jwt()).getAuthorities()).isEmpty();
+        assertThat(authorityCodes(converter.convert(jwt()))).containsExactly("USER");
+    }
+
+    private static Jwt jwt() {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject(SUB)
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+    }
+
+    private static User userWithRoles(String... codes) {
+        Set<Role> roles = new HashSet<>();
+        for (String code : codes) {
+            roles.add(Role.builder().code(code).build());
+        }
+        return User.builder().auth0UserId(SUB).username("user").roles(roles).build();
+    }
+
+    private static Set<String> authorityCodes(AbstractAuthenticationToken token) {
+        Set<String> codes = new HashSet<>();
+        for (GrantedAuthority authority : token.getAuthorities()) {
+            codes.add(authority.getAuthority());
+        }
+        return codes;
+    }
+}
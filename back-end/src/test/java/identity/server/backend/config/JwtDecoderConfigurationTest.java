@@ -0,0 +1,126 @@
+package identity.server.backend.config;
+
+import identity.server.backend.support.auth0.Auth0StubBehavior;
+import identity.server.backend.support.auth0.Auth0StubServer;
+import identity.server.backend.support.auth0.LatencyDistribution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Creating the JwtDecoder makes no network call; keys are fetched on first use or read from a local file
+ */
+class JwtDecoderConfigurationTest {
+
+    private Auth0StubServer stub;
+    private ApplicationContextRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        stub = Auth0StubServer.start();
+        runner = new ApplicationContextRunner()
+                .withInitializer(context -> context.getBeanFactory()
+                        .setConversionService(ApplicationConversionService.getSharedInstance()))
+                .withUserConfiguration(JwtDecoderConfiguration.class)
+                .withPropertyValues(
+                        "okta.oauth2.issuer=" + stub.domain(),
+                        "okta.oauth2.audience=" + Auth0StubServer.API_AUDIENCE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void discoversIssuerOnFirstToken() {
+        runner.run(context -> {
+            JwtDecoder decoder = context.getBean(JwtDecoder.class);
+            assertThat(stub.totalRequests()).isZero();
+
+            assertThat(decoder.decode(stub.issueAccessToken("auth0|1", Duration.ofHours(1))).getSubject()).isEqualTo("auth0|1");
+            decoder.decode(stub.issueAccessToken("auth0|2", Duration.ofHours(1)));
+
+            assertThat(stub.requestCount("GET /.well-known/openid-configuration")).isEqualTo(1);
+            assertThat(stub.requestCount("GET /.well-known/jwks.json")).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void skipsDiscoveryWithConfiguredJwkSetUri() {
+        runner.withPropertyValues("security.jwt.jwk-set-uri=" + stub.domain() + ".well-known/jwks.json")
+                .run(context -> {
+                    context.getBean(JwtDecoder.class).decode(stub.issueAccessToken("auth0|1", Duration.ofHours(1)));
+
+                    assertThat(stub.requestCount("GET /.well-known/openid-configuration")).isZero();
+                    assertThat(stub.requestCount("GET /.well-known/jwks.json")).isEqualTo(1);
+                });
+    }
+
+    @Test
+    void verifiesWithLocalJwksFileWithoutNetwork(@TempDir Path directory) throws Exception {
+        Path jwks = Files.writeString(directory.resolve("jwks.json"), stub.jwkSet().toString());
+        String token = stub.issueAccessToken("auth0|1", Duration.ofHours(1));
+        stub.close();
+
+        runner.withPropertyValues("security.jwt.jwks.location=" + jwks.toUri())
+                .run(context -> assertThat(context.getBean(JwtDecoder.class).decode(token).getSubject())
+                        .isEqualTo("auth0|1"));
+    }
+
+    @Test
+    void startsWhileIssuerIsUnreachable() {
+        String token = stub.issueAccessToken("auth0|1", Duration.ofHours(1));
+        stub.close();
+
+        runner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThatThrownBy(() -> context.getBean(JwtDecoder.class).decode(token)).isInstanceOf(JwtException.class);
+        });
+    }
+
+    @Test
+    void discoveryGivesUpAfterTheJwksReadTimeout() {
+        stub.setBehavior(Auth0StubBehavior.healthy().withLatency(LatencyDistribution.fixed(Duration.ofSeconds(5))));
+        String token = stub.issueAccessToken("auth0|1", Duration.ofHours(1));
+
+        runner.withPropertyValues("security.jwt.jwks.read-timeout=200ms").run(context -> {
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> context.getBean(JwtDecoder.class).decode(token)).isInstanceOf(JwtException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+        });
+    }
+
+    @Test
+    void retriesFailedDiscoveryAtMostOncePerMinRefetchInterval() {
+        stub.setBehavior(Auth0StubBehavior.healthy().withLatency(LatencyDistribution.fixed(Duration.ofSeconds(5))));
+        String token = stub.issueAccessToken("auth0|1", Duration.ofHours(1));
+
+        runner.withPropertyValues("security.jwt.jwks.read-timeout=200ms", "security.jwt.jwks.min-refetch-interval=1s")
+                .run(context -> {
+                    JwtDecoder decoder = context.getBean(JwtDecoder.class);
+                    assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+                    stub.setBehavior(Auth0StubBehavior.healthy());
+
+                    // The issuer answers again, but is not asked until the interval has passed
+                    assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+
+                    await().atMost(Duration.ofSeconds(5)).ignoreExceptions().untilAsserted(() ->
+                            assertThat(decoder.decode(token).getSubject()).isEqualTo("auth0|1"));
+                    assertThat(stub.requestCount("GET /.well-known/openid-configuration")).isEqualTo(2);
+                });
+    }
+}
@@ -0,0 +1,93 @@
+package identity.server.backend.config;
+
+import identity.server.backend.support.auth0.Auth0StubBehavior;
+import identity.server.backend.support.auth0.Auth0StubServer;
+import identity.server.backend.support.auth0.LatencyDistribution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtDecoders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Time to create the JwtDecoder, and to decode the first token, against an issuer answering after
+ * ISSUER_LATENCY_MS (default 1000). The baseline is the discovery at startup the decoder used to do
+ * (JwtDecoders.fromOidcIssuerLocation). Runs offline; part of the performance suite (gradle performanceTest).
+ */
+@Tag("performance")
+class JwtDecoderStartupPerformanceTest {
+
+    private static final Duration ISSUER_LATENCY = Duration.ofMillis(
+            Long.parseLong(System.getenv().getOrDefault("ISSUER_LATENCY_MS", "1000")));
+
+    private Auth0StubServer stub;
+    private String token;
+    private boolean report;
+
+    @BeforeEach
+    void setUp() {
+        stub = Auth0StubServer.start(Auth0StubBehavior.healthy().withLatency(LatencyDistribution.fixed(ISSUER_LATENCY)));
+        token = stub.issueAccessToken("auth0|perf", Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void decoderStartup(@TempDir Path directory) throws Exception {
+        Path jwks = Files.writeString(directory.resolve("jwks.json"), stub.jwkSet().toString());
+        // The first round loads the classes of both decoders and the context; only the second one is printed
+        for (int round = 0; round < 2; round++) {
+            report = round == 1;
+            if (report) {
+                System.out.printf("JwtDecoder startup, issuer latency %d ms%n", ISSUER_LATENCY.toMillis());
+                System.out.printf("%-34s %12s %16s%n", "mode", "create (ms)", "first token (ms)");
+            }
+
+            long start = System.nanoTime();
+            JwtDecoder eager = JwtDecoders.fromOidcIssuerLocation(stub.domain());
+            long created = System.nanoTime();
+            eager.decode(token);
+            print("discovery at startup (before)", start, created, System.nanoTime());
+
+            measure("discovery on first token");
+            measure("configured jwk-set-uri", "security.jwt.jwk-set-uri=" + stub.domain() + ".well-known/jwks.json");
+            measure("local JWKS file", "security.jwt.jwks.location=" + jwks.toUri());
+        }
+    }
+
+    private void measure(String mode, String... properties) {
+        long start = System.nanoTime();
+        new ApplicationContextRunner()
+                .withInitializer(context -> context.getBeanFactory()
+                        .setConversionService(ApplicationConversionService.getSharedInstance()))
+                .withUserConfiguration(JwtDecoderConfiguration.class)
+                .withPropertyValues(
+                        "okta.oauth2.issuer=" + stub.domain(),
+                        "okta.oauth2.audience=" + Auth0StubServer.API_AUDIENCE)
+                .withPropertyValues(properties)
+                .run(context -> {
+                    JwtDecoder decoder = context.getBean(JwtDecoder.class);
+                    long created = System.nanoTime();
+                    decoder.decode(token);
+                    print(mode, start, created, System.nanoTime());
+                });
+    }
+
+    private void print(String mode, long start, long created, long decoded) {
+        if (!report) {
+            return;
+        }
+        System.out.printf("%-34s %12d %16d%n", mode, (created - start) / 1_000_000, (decoded - created) / 1_000_000);
+    }
+}
@@ -0,0 +1,215 @@
+package identity.server.backend.config;
+
+import identity.server.backend.framework.thirdparty.auth0.service.user.IAuth0UserService;
+import identity.server.backend.support.auth0.Auth0ClientContext;
+import identity.server.backend.support.auth0.Auth0StubBehavior;
+import identity.server.backend.support.auth0.Auth0StubServer;
+import identity.server.backend.support.auth0.LatencyDistribution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.codec.CodecsAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Throughput of the servlet stack with platform versus virtual request threads, when every request blocks on a slow
+ * Auth0 call (a user lookup through the whole Auth0 client stack against the local Auth0 stub).
+ * Runs offline; part of the performance suite (gradle performanceTest). The virtual-thread run needs Java 21.
+ *
+ * LOAD_CONCURRENCY (default 2000) requests in flight, LOAD_REQUESTS (default 10000) in total,
+ * Auth0 answering after LOAD_AUTH0_LATENCY_MS (default 200).
+ */
+@Tag("performance")
+class VirtualThreadLoadPerformanceTest {
+
+    private static final int CONCURRENCY = Integer.parseInt(System.getenv().getOrDefault("LOAD_CONCURRENCY", "2000"));
+    private static final int REQUESTS = Integer.parseInt(System.getenv().getOrDefault("LOAD_REQUESTS", "10000"));
+    private static final Duration AUTH0_LATENCY = Duration.ofMillis(
+            Long.parseLong(System.getenv().getOrDefault("LOAD_AUTH0_LATENCY_MS", "200")));
+    // Users of the warm-up round, looked up once so that the measured round does not hit the user cache
+    private static final int WARMUP_REQUESTS = CONCURRENCY;
+
+    private Auth0StubServer stub;
+
+    @BeforeEach
+    void setUp() {
+        stub = Auth0StubServer.start(Auth0StubBehavior.healthy().withLatency(LatencyDistribution.fixed(AUTH0_LATENCY)));
+        // Every request looks up a different user: neither the user cache nor single flight can absorb the load
+        for (int i = 0; i < REQUESTS + WARMUP_REQUESTS; i++) {
+            stub.addUser("auth0|load-" + i, "load-" + i + "@example.com");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void platformThreads() {
+        load(false);
+    }
+
+    @Test
+    void virtualThreads() {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21");
+        load(true);
+    }
+
+    private void load(boolean virtualThreads) {
+        Map<String, String> properties = new HashMap<>(stub.properties());
+        properties.put("server.port", "0");
+        // No profile file: the local one logs every request at DEBUG
+        properties.put("spring.profiles.active", "load-test");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+        // Auth0 itself must not be the limit: no client-side budget, pool and bulkhead sized for the load
+        properties.put("auth0.rate-limit.enabled", "false");
+        properties.put("auth0.resilience.bulkhead.max-concurrent-calls", String.valueOf(CONCURRENCY));
+        properties.put("auth0.http.max-connections", String.valueOf(CONCURRENCY));
+        properties.put("auth0.http.pending-acquire-max-count", String.valueOf(CONCURRENCY * 2));
+
+        // As arguments: they take precedence over application.properties and the profile files
+        String[] arguments = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        try (ConfigurableApplicationContext application = new SpringApplicationBuilder(LoadTestApplication.class)
+                .sources(Auth0ClientContext.COMPONENTS)
+                .run(arguments)) {
+            String baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+            int failures = run(virtualThreads ? "virtual threads" : "platform threads", baseUrl);
+            if (virtualThreads) {
+                // Platform threads are expected to time out past the Tomcat pool; virtual threads must keep up
+                assertThat(failures).isLessThanOrEqualTo(REQUESTS / 100);
+            }
+        }
+    }
+
+    private int run(String mode, String baseUrl) {
+        ConnectionProvider connections = ConnectionProvider.builder("load-test")
+                .maxConnections(CONCURRENCY)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        HttpClient client = HttpClient.create(connections).baseUrl(baseUrl).responseTimeout(Duration.ofSeconds(60));
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+
+        // Warm up the connection pools, the request threads and the JIT with a full round before measuring,
+        // so that the result does not depend on which mode runs first
+        Flux.range(REQUESTS, WARMUP_REQUESTS)
+                .flatMap(user -> send(client, user).onErrorReturn("error"), CONCURRENCY)
+                .blockLast();
+
+        long started = System.nanoTime();
+        Flux.range(0, REQUESTS)
+                .flatMap(user -> {
+                    long sent = System.nanoTime();
+                    return send(client, user)
+                            .onErrorReturn("error")
+                            .doOnNext(body -> {
+                                latencies.add(System.nanoTime() - sent);
+                                if (!"found".equals(body)) {
+                                    failures.incrementAndGet();
+                                }
+                            });
+                }, CONCURRENCY)
+                .blockLast();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        connections.disposeLater().block();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.printf("%s: %d requests, %d in flight, Auth0 latency %d ms: %.0f req/s, p50 %.0f ms, "
+                        + "p99 %.0f ms, %d failed%n",
+                mode, REQUESTS, CONCURRENCY, AUTH0_LATENCY.toMillis(), REQUESTS / (elapsed.toMillis() / 1000.0),
+                percentile(sorted, 0.50), percentile(sorted, 0.99), failures.get());
+        return failures.get();
+    }
+
+    private static Mono<String> send(HttpClient client, int user) {
+        return client.get()
+                .uri("/load/users/auth0%7Cload-" + user)
+                .responseSingle((response, body) -> response.status().code() == 200
+                        ? body.asString()
+                        : Mono.just(String.valueOf(response.status().code())));
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1_000_000.0;
+    }
+
+    /**
+     * Web layer and Auth0 client stack only, without the database
+     */
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({
+            PropertyPlaceholderAutoConfiguration.class,
+            ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class,
+            TaskExecutionAutoConfiguration.class,
+            CodecsAutoConfiguration.class,
+            WebClientAutoConfiguration.class})
+    static class LoadTestApplication {
+
+        @Bean
+        LookupController lookupController(IAuth0UserService auth0UserService) {
+            return new LookupController(auth0UserService);
+        }
+    }
+
+    @RestController
+    static class LookupController {
+
+        private final IAuth0UserService auth0UserService;
+
+        LookupController(IAuth0UserService auth0UserService) {
+            this.auth0UserService = auth0UserService;
+        }
+
+        @GetMapping("/load/users/{id}")
+        String lookup(@PathVariable String id) {
+            return auth0UserService.getUserFilterAuth0Id(id) != null ? "found" : "missing";
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package identity.server.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives concurrent load through the Auth0 WebClient against a local stub and checks that connections are pooled
+ */
+class WebClientConfigTest {
+
+    private static final int REQUESTS = 500;
+    private static final int CONCURRENCY = 20;
+    private static final int MAX_CONNECTIONS = 8;
+
+    private final AtomicInteger connectionsOpened = new AtomicInteger();
+    private final AtomicInteger requestsServed = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DisposableServer stub;
+
+    @BeforeEach
+    void setUp() {
+        Metrics.addRegistry(meterRegistry);
+        stub = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                // Called once per accepted TCP connection (doOnConnection fires per request on keep-alive)
+                .doOnChannelInit((observer, channel, remoteAddress) -> connectionsOpened.incrementAndGet())
+                .handle((request, response) -> {
+                    requestsServed.incrementAndGet();
+                    return response.header("Content-Type", "application/json")
+                            .sendString(Mono.delay(Duration.ofMillis(2)).thenReturn("{\"blocked\":true}"));
+                })
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.disposeNow();
+        Metrics.removeRegistry(meterRegistry);
+    }
+
+    @Test
+    void reusesPooledConnectionsUnderConcurrentLoad() {
+        new ApplicationContextRunner()
+                // Binds "30s" style durations in @Value like the application does
+                .withInitializer(context -> context.getBeanFactory()
+                        .setConversionService(ApplicationConversionService.getSharedInstance()))
+                .withUserConfiguration(WebClientConfig.class)
+                .withBean(WebClient.Builder.class, WebClient::builder)
+                .withPropertyValues("auth0.http.max-connections=" + MAX_CONNECTIONS)
+                .run(context -> {
+                    WebClient webClient = context.getBean(WebClient.class);
+                    String baseUrl = "http://localhost:" + stub.port() + "/api/v2/users/";
+
+                    List<String> responses = Flux.range(0, REQUESTS)
+                            .flatMap(i -> webClient.patch()
+                                    .uri(baseUrl + "auth0|" + i)
+                                    .bodyValue("{\"blocked\":true}")
+                                    .retrieve()
+                                    .bodyToMono(String.class), CONCURRENCY)
+                            .collectList()
+                            .block(Duration.ofSeconds(30));
+
+                    assertThat(responses).hasSize(REQUESTS);
+                    assertThat(requestsServed.get()).isEqualTo(REQUESTS);
+                    // 500 requests over at most 8 keep-alive connections instead of one connection each
+                    assertThat(connectionsOpened.get()).isBetween(1, MAX_CONNECTIONS);
+
+                    // The global registry also carries pools of earlier tests; pick the one connected to this stub
+                    Gauge totalConnections = meterRegistry.find("reactor.netty.connection.provider.total.connections")
+                            .tag("name", "auth0")
+                            .gauges().stream()
+                            .filter(gauge -> gauge.getId().getTag("remote.address").endsWith(":" + stub.port()))
+                            .findFirst()
+                            .orElse(null);
+                    assertThat(totalConnections).isNotNull();
+                    assertThat(totalConnections.value()).isBetween(1.0, (double) MAX_CONNECTIONS);
+                    assertThat(meterRegistry.find("reactor.netty.http.client.data.sent")
+                            .tag("uri", "/api/v2/users/{id}")
+                            .meters()).isNotEmpty();
+                });
+    }
+}
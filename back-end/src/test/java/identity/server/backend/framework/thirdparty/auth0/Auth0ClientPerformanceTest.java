@@ -0,0 +1,143 @@
+package identity.server.backend.framework.thirdparty.auth0;
+
+import identity.server.backend.framework.thirdparty.auth0.model.CreateUserAuth0Request;
+import identity.server.backend.framework.thirdparty.auth0.model.UpdateUserRequest;
+import identity.server.backend.framework.thirdparty.auth0.service.user.IAuth0UserService;
+import identity.server.backend.support.auth0.Auth0ClientContext;
+import identity.server.backend.support.auth0.Auth0StubBehavior;
+import identity.server.backend.support.auth0.Auth0StubServer;
+import identity.server.backend.support.auth0.LatencyDistribution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the write paths UserController and ProfileController trigger in Auth0 (create, update, block, lookups)
+ * through the whole Auth0 client stack against the local Auth0 stub, with long-tailed latency, 500s and 429s.
+ * Runs offline; part of the performance suite (gradle performanceTest).
+ *
+ * Size and faults: AUTH0_PERF_USERS (default 500), AUTH0_PERF_CONCURRENCY (default 32).
+ */
+@Tag("performance")
+class Auth0ClientPerformanceTest {
+
+    private static final int USERS = Integer.parseInt(System.getenv().getOrDefault("AUTH0_PERF_USERS", "500"));
+    private static final int CONCURRENCY = Integer.parseInt(System.getenv().getOrDefault("AUTH0_PERF_CONCURRENCY", "32"));
+
+    private Auth0StubServer stub;
+
+    @BeforeEach
+    void setUp() {
+        stub = Auth0StubServer.start(Auth0StubBehavior.healthy()
+                .withLatency(LatencyDistribution.logNormal(Duration.ofMillis(30), Duration.ofMillis(250)))
+                .withErrorRate(0.01)
+                .withRateLimitRate(0.005));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void userWritePathsUnderFaults() {
+        Auth0ClientContext.runner(stub)
+                .withPropertyValues(
+                        // Budget sized for the stub, not a real tenant
+                        "auth0.rate-limit.users-read.rate=500",
+                        "auth0.rate-limit.users-read.capacity=100",
+                        "auth0.rate-limit.users-write.rate=500",
+                        "auth0.rate-limit.users-write.capacity=100",
+                        "auth0.rate-limit.max-wait=5s",
+                        "auth0.resilience.bulkhead.max-concurrent-calls=" + CONCURRENCY * 2,
+                        "auth0.http.max-connections=" + CONCURRENCY)
+                .run(context -> {
+                    IAuth0UserService userService = context.getBean(IAuth0UserService.class);
+                    List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+                    AtomicInteger failures = new AtomicInteger();
+
+                    ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+                    long started = System.nanoTime();
+                    List<Future<?>> futures = new ArrayList<>();
+                    for (int i = 0; i < USERS; i++) {
+                        int index = i;
+                        futures.add(executor.submit(() -> {
+                            try {
+                                userLifecycle(userService, index, latencies);
+                            } catch (RuntimeException e) {
+                                failures.incrementAndGet();
+                            }
+                        }));
+                    }
+                    for (Future<?> future : futures) {
+                        future.get();
+                    }
+                    Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+                    executor.shutdown();
+                    executor.awaitTermination(10, TimeUnit.SECONDS);
+
+                    List<Long> sorted = new ArrayList<>(latencies);
+                    Collections.sort(sorted);
+                    System.out.printf("Auth0 client: %d user lifecycles (%d calls, %d stub requests) in %d ms, "
+                                    + "%.0f calls/s, p50 %.1f ms, p99 %.1f ms, %d failed lifecycles%n",
+                            USERS, sorted.size(), stub.totalRequests(), elapsed.toMillis(),
+                            sorted.size() / (elapsed.toMillis() / 1000.0),
+                            percentile(sorted, 0.50), percentile(sorted, 0.99), failures.get());
+
+                    // Only a create hit by a 500 is lost: POST is not retried on server errors
+                    assertThat(failures.get()).isLessThanOrEqualTo(Math.max(5, USERS / 20));
+                });
+    }
+
+    private void userLifecycle(IAuth0UserService userService, int index, List<Long> latencies) {
+        String email = "perf-" + index + "@example.com";
+        String userId = timed(latencies, () -> userService.createUser(CreateUserAuth0Request.builder()
+                .userId(UUID.randomUUID().toString())
+                .email(email)
+                .password("Secret-123")
+                .connection("Username-Password-Authentication")
+                .build())).getUserId();
+        timed(latencies, () -> userService.getUserFilterEmail(email));
+        timed(latencies, () -> {
+            userService.updateUser(userId, UpdateUserRequest.builder().name("Perf User " + index).build());
+            return null;
+        });
+        timed(latencies, () -> userService.getUserFilterAuth0Id(userId));
+        timed(latencies, () -> {
+            userService.blockUser(userId, true);
+            return null;
+        });
+    }
+
+    private static <T> T timed(List<Long> latencies, Supplier<T> call) {
+        long started = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            latencies.add(System.nanoTime() - started);
+        }
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1_000_000.0;
+    }
+}
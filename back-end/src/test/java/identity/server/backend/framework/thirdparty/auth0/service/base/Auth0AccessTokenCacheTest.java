@@ -0,0 +1,147 @@
+package identity.server.backend.framework.thirdparty.auth0.service.base;
+
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0M2MConfig;
+import identity.server.backend.framework.thirdparty.auth0.model.TokenResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Auth0AccessTokenCacheTest {
+
+    private MutableClock clock;
+    private Auth0AccessTokenCache cache;
+    private Auth0M2MConfig config;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        cache = new Auth0AccessTokenCache(Duration.ofMinutes(5), Duration.ofSeconds(30), clock);
+        config = new Auth0M2MConfig();
+        config.setAuth0Domain("https://tenant.example.com/");
+        config.setClientId("client");
+        config.setClientSecret("secret");
+        config.setAudience("https://tenant.example.com/api/v2/");
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void reusesTokenUntilRefreshWindow() {
+        assertThat(cache.getToken(config, this::load)).isEqualTo("token-1");
+        assertThat(cache.getToken(config, this::load)).isEqualTo("token-1");
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void servesCurrentTokenWhileRefreshingAhead() {
+        cache.getToken(config, this::load);
+
+        clock.advance(Duration.ofSeconds(86400 - 30 - 60));
+        assertThat(cache.getToken(config, this::load)).isEqualTo("token-1");
+        assertThat(loads.get()).isEqualTo(2);
+
+        assertThat(cache.getToken(config, this::load)).isEqualTo("token-2");
+        assertThat(cache.getRefreshCount()).isEqualTo(2);
+    }
+
+    @Test
+    void loadsNewTokenAfterExpiry() {
+        cache.getToken(config, this::load);
+
+        clock.advance(Duration.ofDays(1));
+        assertThat(cache.getToken(config, this::load)).isEqualTo("token-2");
+        assertThat(cache.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentCallersShareOneInFlightRequest() {
+        CompletableFuture<TokenResponse> response = new CompletableFuture<>();
+        List<CompletableFuture<String>> callers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            callers.add(cache.getTokenAsync(config, c -> {
+                loads.incrementAndGet();
+                return response;
+            }));
+        }
+
+        response.complete(TokenResponse.builder().accessToken("shared").expiresIn(86400).build());
+
+        assertThat(callers).allSatisfy(caller -> assertThat(caller.join()).isEqualTo("shared"));
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getCoalescedCount()).isEqualTo(9);
+    }
+
+    @Test
+    void publishesCountsAsCounters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.getToken(config, this::load);
+        cache.getToken(config, this::load);
+        cache.getToken(config, this::load);
+
+        assertThat(registry.get("auth0.token-cache.requests").tag("result", "hit").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("auth0.token-cache.requests").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("auth0.token-cache.refreshes").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("auth0.token-cache.coalesced").functionCounter().count()).isZero();
+    }
+
+    @Test
+    void failedRefreshIsNotCached() {
+        assertThatThrownBy(() -> cache.getToken(config,
+                c -> CompletableFuture.failedFuture(new RuntimeException("token endpoint down"))))
+                .hasMessage("token endpoint down");
+
+        assertThat(cache.getToken(config, this::load)).isEqualTo("token-1");
+    }
+
+    private CompletableFuture<TokenResponse> load(Auth0M2MConfig ignored) {
+        int count = loads.incrementAndGet();
+        return CompletableFuture.completedFuture(TokenResponse.builder()
+                .accessToken("token-" + count)
+                .expiresIn(86400)
+                .build());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
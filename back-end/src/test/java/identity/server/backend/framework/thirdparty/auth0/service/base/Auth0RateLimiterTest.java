@@ -0,0 +1,139 @@
+package identity.server.backend.framework.thirdparty.auth0.service.base;
+
+import identity.server.backend.framework.enums.Auth0EndpointClass;
+import identity.server.backend.framework.enums.Auth0RateLimitPolicy;
+import identity.server.backend.framework.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Auth0RateLimiterTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    @Test
+    void queuesCallersBeyondBurstAtRefillRate() {
+        Auth0RateLimiter limiter = limiter(Auth0RateLimitPolicy.QUEUE, Duration.ofSeconds(5));
+
+        limiter.acquire(Auth0EndpointClass.USERS_WRITE).block();
+        limiter.acquire(Auth0EndpointClass.USERS_WRITE).block();
+
+        // Bucket of 2 is empty, refill is 10/s: the third caller waits 100ms, the fourth 200ms
+        assertThat(timed(() -> limiter.acquire(Auth0EndpointClass.USERS_WRITE).block()))
+                .isBetween(Duration.ofMillis(90), Duration.ofMillis(190));
+        assertThat(timed(() -> limiter.acquire(Auth0EndpointClass.USERS_WRITE).block()))
+                .isGreaterThanOrEqualTo(Duration.ofMillis(190));
+    }
+
+    @Test
+    void shedsCallersWhenBucketIsEmpty() {
+        Auth0RateLimiter limiter = limiter(Auth0RateLimitPolicy.SHED, Duration.ofSeconds(5));
+
+        limiter.acquire(Auth0EndpointClass.USERS_READ).block();
+        limiter.acquire(Auth0EndpointClass.USERS_READ).block();
+        assertThatThrownBy(() -> limiter.acquire(Auth0EndpointClass.USERS_READ).block())
+                .isInstanceOf(TooManyRequestsException.class);
+
+        // Buckets are independent per endpoint class
+        limiter.acquire(Auth0EndpointClass.USERS_WRITE).block();
+
+        nanoTime.addAndGet(Duration.ofMillis(100).toNanos());
+        limiter.acquire(Auth0EndpointClass.USERS_READ).block();
+    }
+
+    @Test
+    void slowsDownToSpreadRemainingQuotaUntilReset() {
+        Auth0RateLimiter limiter = limiter(Auth0RateLimitPolicy.QUEUE, Duration.ofSeconds(5));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Remaining", "1");
+        headers.set("X-RateLimit-Reset", String.valueOf(NOW.plusSeconds(4).getEpochSecond()));
+        limiter.onResponse(Auth0EndpointClass.USERS_READ, HttpStatus.OK, headers);
+        assertThat(limiter.getRate(Auth0EndpointClass.USERS_READ)).isEqualTo(1.0);
+
+        headers.set("X-RateLimit-Remaining", "50");
+        limiter.onResponse(Auth0EndpointClass.USERS_READ, HttpStatus.OK, headers);
+        assertThat(limiter.getRate(Auth0EndpointClass.USERS_READ)).isEqualTo(10.0);
+    }
+
+    @Test
+    void restoresConfiguredRateAfterReset() {
+        Auth0RateLimiter limiter = limiter(Auth0RateLimitPolicy.QUEUE, Duration.ofSeconds(5));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Remaining", "1");
+        headers.set("X-RateLimit-Reset", String.valueOf(NOW.plusSeconds(4).getEpochSecond()));
+        limiter.onResponse(Auth0EndpointClass.USERS_READ, HttpStatus.OK, headers);
+        assertThat(limiter.getRate(Auth0EndpointClass.USERS_READ)).isEqualTo(1.0);
+
+        // No further response reports the reset; the bucket restores the rate on its own
+        nanoTime.addAndGet(Duration.ofSeconds(4).toNanos());
+        limiter.acquire(Auth0EndpointClass.USERS_READ).block();
+        assertThat(limiter.getRate(Auth0EndpointClass.USERS_READ)).isEqualTo(10.0);
+    }
+
+    @Test
+    void pausesBucketAfterRateLimitedResponse() {
+        Auth0RateLimiter limiter = limiter(Auth0RateLimitPolicy.QUEUE, Duration.ofSeconds(1));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "3");
+        limiter.onResponse(Auth0EndpointClass.USERS_WRITE, HttpStatus.TOO_MANY_REQUESTS, headers);
+
+        assertThatThrownBy(() -> limiter.acquire(Auth0EndpointClass.USERS_WRITE).block())
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void resumesAtConfiguredRateOnceRetryAfterHasPassed() {
+        Auth0RateLimiter limiter = limiter(Auth0RateLimitPolicy.QUEUE, Duration.ofSeconds(1));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "3");
+        limiter.onResponse(Auth0EndpointClass.USERS_WRITE, HttpStatus.TOO_MANY_REQUESTS, headers);
+        assertThat(limiter.getRate(Auth0EndpointClass.USERS_WRITE)).isEqualTo(10.0);
+
+        // Just after the wait, callers are spaced at the configured 10/s again, not at the minimum rate
+        nanoTime.addAndGet(Duration.ofMillis(3100).toNanos());
+        limiter.acquire(Auth0EndpointClass.USERS_WRITE).block();
+        assertThat(timed(() -> limiter.acquire(Auth0EndpointClass.USERS_WRITE).block()))
+                .isLessThan(Duration.ofMillis(500));
+    }
+
+    @Test
+    void classifiesEndpoints() {
+        assertThat(Auth0EndpointClass.of(HttpMethod.POST, "https://tenant.auth0.com/oauth/token"))
+                .isEqualTo(Auth0EndpointClass.TOKEN);
+        assertThat(Auth0EndpointClass.of(HttpMethod.GET, "https://tenant.auth0.com/api/v2/users/auth0|1"))
+                .isEqualTo(Auth0EndpointClass.USERS_READ);
+        assertThat(Auth0EndpointClass.of(HttpMethod.PATCH, "https://tenant.auth0.com/api/v2/users/auth0|1"))
+                .isEqualTo(Auth0EndpointClass.USERS_WRITE);
+    }
+
+    private static Duration timed(Runnable runnable) {
+        long started = System.nanoTime();
+        runnable.run();
+        return Duration.ofNanos(System.nanoTime() - started);
+    }
+
+    private Auth0RateLimiter limiter(Auth0RateLimitPolicy policy, Duration maxWait) {
+        Auth0RateLimiter.Limit limit = new Auth0RateLimiter.Limit(2, 10);
+        return new Auth0RateLimiter(
+                Map.of(Auth0EndpointClass.USERS_READ, limit, Auth0EndpointClass.USERS_WRITE, limit),
+                1, policy, maxWait, null, 1, nanoTime::get, clock);
+    }
+}
@@ -0,0 +1,65 @@
+package identity.server.backend.framework.thirdparty.auth0.service.base;
+
+import identity.server.backend.framework.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Auth0RequestMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Auth0RequestMetrics requestMetrics = new Auth0RequestMetrics();
+
+    @BeforeEach
+    void setUp() {
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    void uriTemplatesCollapseIdsHostAndQuery() {
+        assertThat(Auth0RequestMetrics.uriTemplate("https://tenant.auth0.com/api/v2/users/auth0|123?fields=email"))
+                .isEqualTo("/api/v2/users/{id}");
+        assertThat(Auth0RequestMetrics.uriTemplate("https://tenant.auth0.com/api/v2/users?q=email%3A%22a%40b.c%22"))
+                .isEqualTo("/api/v2/users");
+        assertThat(Auth0RequestMetrics.uriTemplate("/api/v2/jobs/job_abc")).isEqualTo("/api/v2/jobs/{id}");
+        assertThat(Auth0RequestMetrics.uriTemplate("https://tenant.auth0.com/oauth/token")).isEqualTo("/oauth/token");
+    }
+
+    @Test
+    void tagsResponsesAndFailuresByStatus() {
+        requestMetrics.timed(HttpMethod.GET, "https://tenant.auth0.com/api/v2/users/auth0|1",
+                Mono.just(ResponseEntity.ok("user"))).block();
+        requestMetrics.timed(HttpMethod.GET, "https://tenant.auth0.com/api/v2/users/auth0|2",
+                Mono.just(ResponseEntity.ok("user"))).block();
+        assertThatThrownBy(() -> requestMetrics.timed(HttpMethod.GET, "https://tenant.auth0.com/api/v2/users/auth0|3",
+                Mono.<ResponseEntity<String>>error(WebClientResponseException.create(
+                        HttpStatus.NOT_FOUND.value(), "Not Found", HttpHeaders.EMPTY, null, null))).block())
+                .isInstanceOf(WebClientResponseException.class);
+        assertThatThrownBy(() -> requestMetrics.timed(HttpMethod.POST, "https://tenant.auth0.com/api/v2/users",
+                Mono.<ResponseEntity<String>>error(new TooManyRequestsException("budget exhausted"))).block())
+                .isInstanceOf(TooManyRequestsException.class);
+
+        assertThat(registry.get(Auth0RequestMetrics.METRIC_NAME)
+                .tags("method", "GET", "uri", "/api/v2/users/{id}", "status", "200").timer().count()).isEqualTo(2);
+        assertThat(registry.get(Auth0RequestMetrics.METRIC_NAME)
+                .tags("method", "GET", "uri", "/api/v2/users/{id}", "status", "404").timer().count()).isEqualTo(1);
+        assertThat(registry.get(Auth0RequestMetrics.METRIC_NAME)
+                .tags("method", "POST", "uri", "/api/v2/users", "status", "THROTTLED").timer().count()).isEqualTo(1);
+    }
+}
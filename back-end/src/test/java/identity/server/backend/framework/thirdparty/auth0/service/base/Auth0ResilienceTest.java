@@ -0,0 +1,198 @@
+package identity.server.backend.framework.thirdparty.auth0.service.base;
+
+import identity.server.backend.framework.enums.Auth0RateLimitPolicy;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.retry.Retry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs Auth0 calls through the resilience layer against a local stub that injects latency, 429s and 5xx
+ */
+class Auth0ResilienceTest {
+
+    private final Queue<Integer> scriptedStatuses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requestsServed = new AtomicInteger();
+    private DisposableServer stub;
+    private CircuitBreaker circuitBreaker;
+    private ReactiveBaseAuth0Impl client;
+
+    @BeforeEach
+    void setUp() {
+        stub = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .handle((request, response) -> {
+                    requestsServed.incrementAndGet();
+                    Integer status = scriptedStatuses.poll();
+                    if (status == null || status == 200) {
+                        return response.header("Content-Type", "application/json")
+                                .sendString(Mono.delay(Duration.ofMillis(20)).thenReturn("{\"ok\":true}"));
+                    }
+                    if (status == 429) {
+                        response.header(HttpHeaders.RETRY_AFTER, "1");
+                    }
+                    return response.status(status).send();
+                })
+                .bindNow();
+
+        circuitBreaker = CircuitBreaker.of("auth0", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordException(Auth0Resilience::isTransient)
+                .build());
+        Bulkhead bulkhead = Bulkhead.of("auth0", BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        Auth0Resilience resilience = new Auth0Resilience(circuitBreaker, bulkhead,
+                Retry.of("auth0-idempotent", Auth0Resilience.retryConfig(
+                        3, Duration.ofMillis(10), Duration.ofSeconds(5), Auth0Resilience::isTransient)),
+                Retry.of("auth0-rate-limited", Auth0Resilience.retryConfig(
+                        3, Duration.ofMillis(10), Duration.ofSeconds(5), Auth0Resilience::isRateLimited)));
+
+        client = new ReactiveBaseAuth0Impl(WebClient.create(),
+                new Auth0AccessTokenCache(Duration.ofMinutes(5), Duration.ofSeconds(30)), resilience,
+                new Auth0RateLimiter(Map.of(), 1, Auth0RateLimitPolicy.QUEUE, Duration.ZERO, null, 1),
+                // Identical concurrent calls must each reach the bulkhead here
+                new Auth0SingleFlight(false, Duration.ZERO),
+                new Auth0RequestMetrics());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.disposeNow();
+    }
+
+    @Test
+    void retriesRateLimitedCallAfterRetryAfter() {
+        scriptedStatuses.add(429);
+
+        long started = System.nanoTime();
+        Map<?, ?> response = client.executeGet(url(), Map.class, null).block();
+
+        assertThat(response.get("ok")).isEqualTo(true);
+        assertThat(requestsServed.get()).isEqualTo(2);
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+    }
+
+    @Test
+    void doesNotRetryNonIdempotentCallOnServerError() {
+        scriptedStatuses.add(500);
+
+        assertThatThrownBy(() -> client.executePost(url(), Map.of("name", "x"), Map.class, null).block())
+                .isInstanceOf(WebClientResponseException.InternalServerError.class);
+        assertThat(requestsServed.get()).isEqualTo(1);
+    }
+
+    @Test
+    void retriesPatchOnServerError() {
+        scriptedStatuses.add(503);
+
+        Map<?, ?> response = client.executePatch(url() + "/auth0|1", Map.of("blocked", true), Map.class, null).block();
+
+        assertThat(response.get("ok")).isEqualTo(true);
+        assertThat(requestsServed.get()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotRetryDeleteOnServerError() {
+        // The first attempt may have deleted the user; a retry would answer 404
+        scriptedStatuses.add(503);
+
+        assertThatThrownBy(() -> client.executeDelete(url() + "/auth0|1", Void.class, null).block())
+                .isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+        assertThat(requestsServed.get()).isEqualTo(1);
+    }
+
+    @Test
+    void retriesDeleteOnRateLimit() {
+        // A rate-limited request was not processed, so repeating it is safe for every method
+        scriptedStatuses.add(429);
+
+        client.executeDelete(url() + "/auth0|1", Void.class, null).block();
+
+        assertThat(requestsServed.get()).isEqualTo(2);
+    }
+
+    @Test
+    void opensCircuitAndFailsFastWhenAuth0KeepsFailing() {
+        for (int i = 0; i < 20; i++) {
+            scriptedStatuses.add(503);
+        }
+
+        // Three attempts of the first call fail, the fourth failure opens the circuit and stops the retries
+        assertThatThrownBy(() -> client.executeGet(url(), Map.class, null).block())
+                .isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+        assertThatThrownBy(() -> client.executeGet(url(), Map.class, null).block())
+                .isInstanceOf(CallNotPermittedException.class);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(requestsServed.get()).isEqualTo(4);
+
+        assertThatThrownBy(() -> client.executeGet(url(), Map.class, null).block())
+                .isInstanceOf(CallNotPermittedException.class);
+        assertThat(requestsServed.get()).isEqualTo(4);
+    }
+
+    @Test
+    void rejectsCallsBeyondBulkhead() {
+        Mono<Map> slow = client.executeGet(url(), Map.class, null);
+
+        assertThatThrownBy(() -> Mono.zip(slow, slow, slow).block())
+                .isInstanceOf(BulkheadFullException.class);
+    }
+
+    @Test
+    void readsWaitFromRateLimitHeaders() {
+        Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+        HttpHeaders retryAfterDate = new HttpHeaders();
+        retryAfterDate.set(HttpHeaders.RETRY_AFTER, DateTimeFormatter.RFC_1123_DATE_TIME
+                .format(ZonedDateTime.parse("2026-01-01T00:00:07Z")));
+        HttpHeaders rateLimitReset = new HttpHeaders();
+        rateLimitReset.set("X-RateLimit-Reset", String.valueOf(Instant.parse("2026-01-01T00:00:03Z").getEpochSecond()));
+
+        assertThat(Auth0Resilience.rateLimitWait(tooManyRequests(retryAfterDate), clock)).contains(Duration.ofSeconds(7));
+        assertThat(Auth0Resilience.rateLimitWait(tooManyRequests(rateLimitReset), clock)).contains(Duration.ofSeconds(3));
+        assertThat(Auth0Resilience.rateLimitWait(tooManyRequests(new HttpHeaders()), clock)).isEmpty();
+    }
+
+    private WebClientResponseException tooManyRequests(HttpHeaders headers) {
+        return WebClientResponseException.create(HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests",
+                headers, new byte[0], StandardCharsets.UTF_8);
+    }
+
+    private String url() {
+        return "http://localhost:" + stub.port() + "/api/v2/users";
+    }
+}
@@ -0,0 +1,68 @@
+package identity.server.backend.framework.thirdparty.auth0.service.base;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Auth0SingleFlightTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void concurrentCallersShareOneCall() {
+        Auth0SingleFlight singleFlight = new Auth0SingleFlight(true, Duration.ofSeconds(5));
+        Mono<String> call = Mono.fromCallable(calls::incrementAndGet)
+                .delayElement(Duration.ofMillis(100))
+                .map(count -> "user-" + count);
+
+        List<String> results = Flux.range(0, 10)
+                .flatMap(i -> singleFlight.execute("GET /api/v2/users/1", call))
+                .collectList()
+                .block();
+
+        assertThat(results).hasSize(10).containsOnly("user-1");
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+
+        // Nothing is kept once the flight lands
+        assertThat(singleFlight.execute("GET /api/v2/users/1", call).block()).isEqualTo("user-2");
+    }
+
+    @Test
+    void sharesFailuresAndEmptyResultsWithoutKeepingThem() {
+        Auth0SingleFlight singleFlight = new Auth0SingleFlight(true, Duration.ofSeconds(5));
+        Mono<String> failing = Mono.delay(Duration.ofMillis(50))
+                .doOnNext(tick -> calls.incrementAndGet())
+                .then(Mono.error(new RuntimeException("Auth0 unavailable")));
+
+        assertThatThrownBy(() -> Flux.range(0, 5)
+                .flatMap(i -> singleFlight.execute("key", failing))
+                .blockLast())
+                .hasMessage("Auth0 unavailable");
+        assertThat(calls.get()).isEqualTo(1);
+
+        assertThat(singleFlight.execute("key", Mono.<String>empty()).blockOptional()).isEmpty();
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void followerStopsWaitingAfterMaxWait() {
+        Auth0SingleFlight singleFlight = new Auth0SingleFlight(true, Duration.ofMillis(50));
+        Mono<String> call = Mono.fromCallable(calls::incrementAndGet)
+                .flatMap(count -> count == 1
+                        ? Mono.delay(Duration.ofSeconds(5)).thenReturn("stuck")
+                        : Mono.just("own"));
+
+        singleFlight.execute("key", call).subscribe();
+
+        assertThat(singleFlight.execute("key", call).block(Duration.ofSeconds(1))).isEqualTo("own");
+        assertThat(calls.get()).isEqualTo(2);
+    }
+}
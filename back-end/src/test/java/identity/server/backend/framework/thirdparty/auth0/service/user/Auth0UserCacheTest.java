@@ -0,0 +1,97 @@
+package identity.server.backend.framework.thirdparty.auth0.service.user;
+
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0UserResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Auth0UserCacheTest {
+
+    private Auth0UserCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new Auth0UserCache(Duration.ofMinutes(1), Duration.ofSeconds(10), 100);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void cachesFoundAndMissingUsers() {
+        assertThat(cache.getByEmail("Jane@Example.com", this::load)).isNotNull();
+        assertThat(cache.getByEmail("jane@example.com ", this::load)).isNotNull();
+        assertThat(cache.getById("auth0|missing", id -> {
+            loads.incrementAndGet();
+            return null;
+        })).isNull();
+        assertThat(cache.getById("auth0|missing", this::load)).isNull();
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.getRequestsAvoided()).isEqualTo(2);
+        assertThat(cache.statsByEmail().hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void evictingByIdAlsoEvictsCachedEmail() {
+        cache.getById("auth0|jane", this::load);
+        cache.getByEmail("jane@example.com", this::load);
+
+        cache.evict("auth0|jane", null);
+        cache.getByEmail("jane@example.com", this::load);
+
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    void failedLookupsAreNotCached() {
+        assertThatThrownBy(() -> cache.getById("auth0|jane", id -> {
+            throw new RuntimeException("Auth0 unavailable");
+        })).hasMessage("Auth0 unavailable");
+
+        assertThat(cache.getById("auth0|jane", this::load)).isNotNull();
+    }
+
+    @Test
+    void concurrentLookupsShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Auth0UserResponse> first = CompletableFuture.supplyAsync(() -> cache.getById("auth0|jane", id -> {
+            loading.countDown();
+            await(release);
+            return load(id);
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Auth0UserResponse> second = CompletableFuture.supplyAsync(() -> cache.getById("auth0|jane", this::load));
+        // A load in progress holds no lock: other keys are served meanwhile
+        assertThat(cache.getById("auth0|john", this::load)).isNotNull();
+        release.countDown();
+
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Auth0UserResponse load(String key) {
+        loads.incrementAndGet();
+        Auth0UserResponse user = new Auth0UserResponse();
+        user.setUserId("auth0|jane");
+        user.setEmail("jane@example.com");
+        return user;
+    }
+}
@@ -0,0 +1,98 @@
+package identity.server.backend.framework.thirdparty.auth0.service.user;
+
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0UserResponse;
+import identity.server.backend.framework.thirdparty.auth0.model.CreateUserAuth0Request;
+import identity.server.backend.framework.thirdparty.auth0.model.UpdateUserRequest;
+import identity.server.backend.support.auth0.Auth0ClientContext;
+import identity.server.backend.support.auth0.Auth0StubBehavior;
+import identity.server.backend.support.auth0.Auth0StubServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs Auth0UserService through the full Auth0 client stack against the local Auth0 stub
+ */
+class Auth0UserServiceStubTest {
+
+    private Auth0StubServer stub;
+
+    @BeforeEach
+    void setUp() {
+        stub = Auth0StubServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void managesUserLifecycle() {
+        Auth0ClientContext.runner(stub).run(context -> {
+            IAuth0UserService userService = context.getBean(IAuth0UserService.class);
+            String id = UUID.randomUUID().toString();
+
+            Auth0UserResponse created = userService.createUser(CreateUserAuth0Request.builder()
+                    .userId(id)
+                    .email("jane@example.com")
+                    .password("Secret-123")
+                    .connection("Username-Password-Authentication")
+                    .build());
+            assertThat(created.getUserId()).isEqualTo("auth0|" + id);
+
+            assertThat(userService.getUserFilterEmail("jane@example.com").getUserId()).isEqualTo(created.getUserId());
+            userService.updateUser(created.getUserId(), UpdateUserRequest.builder().name("Jane Doe").build());
+            userService.blockUser(created.getUserId(), true);
+
+            Auth0UserResponse updated = userService.getUserFilterAuth0Id(created.getUserId());
+            assertThat(updated.getName()).isEqualTo("Jane Doe");
+            assertThat(updated.getBlocked()).isTrue();
+
+            assertThat(userService.deleteUser(created.getUserId())).isTrue();
+            assertThat(userService.getUserFilterAuth0Id(created.getUserId())).isNull();
+            assertThat(stub.tokensIssued()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void looksUpConnectionIdOnce() {
+        Auth0ClientContext.runner(stub).run(context -> {
+            IAuth0UserService userService = context.getBean(IAuth0UserService.class);
+
+            assertThat(userService.getConnectionId("Username-Password-Authentication")).isEqualTo("con_stub");
+            assertThat(userService.getConnectionId("Username-Password-Authentication")).isEqualTo("con_stub");
+
+            assertThat(stub.requestCount("GET /api/v2/connections")).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void ridesOutInjectedRateLimitsAndErrorsOnReads() {
+        stub.setBehavior(Auth0StubBehavior.healthy()
+                .withRateLimitRate(0.2)
+                .withErrorRate(0.1)
+                .withRetryAfter(Duration.ofSeconds(1)));
+
+        Auth0ClientContext.runner(stub)
+                .withPropertyValues(
+                        "auth0.resilience.retry.max-attempts=10",
+                        "auth0.resilience.retry.initial-backoff=10ms",
+                        // Isolate the retry behaviour: keep the breaker closed and the client-side budget out of the way
+                        "auth0.resilience.circuit-breaker.failure-rate-threshold=100",
+                        "auth0.rate-limit.enabled=false")
+                .run(context -> {
+                    IAuth0UserService userService = context.getBean(IAuth0UserService.class);
+                    // Unlike the lookup by id, the email search propagates failures
+                    for (int i = 0; i < 10; i++) {
+                        assertThat(userService.getUserFilterEmail("missing-" + i + "@example.com")).isNull();
+                    }
+                    assertThat(stub.requestCount("GET /api/v2/users")).isGreaterThan(10);
+                });
+    }
+}
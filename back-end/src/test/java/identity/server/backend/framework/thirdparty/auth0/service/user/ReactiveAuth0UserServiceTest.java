@@ -0,0 +1,116 @@
+package identity.server.backend.framework.thirdparty.auth0.service.user;
+
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0BulkResult;
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0M2MConfig;
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0UserResponse;
+import identity.server.backend.framework.thirdparty.auth0.service.base.BaseAuth0Impl;
+import identity.server.backend.framework.thirdparty.auth0.service.base.IReactiveBaseAuth0;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveAuth0UserServiceTest {
+
+    private IReactiveBaseAuth0 baseAuth0;
+    private Auth0M2MConfig config;
+    private Auth0UserCache userCache;
+    private ReactiveAuth0UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        baseAuth0 = mock(IReactiveBaseAuth0.class);
+        config = new Auth0M2MConfig();
+        config.setAuth0Domain("https://tenant.example.com/");
+        userCache = new Auth0UserCache(Duration.ofMinutes(1), Duration.ofSeconds(10), 100);
+        userService = new ReactiveAuth0UserService(baseAuth0, config, userCache);
+        when(baseAuth0.getAccessToken(any())).thenReturn(Mono.just("token"));
+        when(baseAuth0.executePatch(anyString(), any(), eq(Auth0UserResponse.class), any(), any(String[].class)))
+                .thenCallRealMethod();
+        when(baseAuth0.executeGet(anyString(), eq(Auth0UserResponse.class), any(), any(String[].class)))
+                .thenCallRealMethod();
+    }
+
+    @Test
+    void blockUsersBoundsConcurrencyAndReportsFailures() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(baseAuth0.execute(eq(HttpMethod.PATCH), anyString(), any(), eq(Auth0UserResponse.class), any(), any(String[].class)))
+                .thenAnswer(invocation -> {
+                    String uri = invocation.getArgument(1);
+                    Mono<Auth0UserResponse> call = uri.endsWith("user-3")
+                            ? Mono.error(WebClientResponseException.create(500, "Error", null, null, null))
+                            : Mono.just(new Auth0UserResponse());
+                    return Mono.delay(Duration.ofMillis(20))
+                            .then(call)
+                            .doOnSubscribe(s -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                            .doOnTerminate(inFlight::decrementAndGet);
+                });
+
+        List<String> ids = IntStream.range(0, 20).mapToObj(i -> "user-" + i).toList();
+        List<Auth0BulkResult> results = userService.blockUsers(ids, true, 4).collectList().block();
+
+        assertThat(results).hasSize(20);
+        assertThat(results).filteredOn(result -> !result.isSuccess())
+                .extracting(Auth0BulkResult::auth0UserId)
+                .containsExactly("user-3");
+        assertThat(maxInFlight.get()).isBetween(2, 4);
+    }
+
+    @Test
+    void missingUserIsEmpty() {
+        when(baseAuth0.execute(eq(HttpMethod.GET), anyString(), any(), eq(Auth0UserResponse.class), any(), any(String[].class)))
+                .thenReturn(Mono.error(WebClientResponseException.create(404, "Not Found", null, null, null)));
+
+        assertThat(userService.getUserFilterAuth0Id("auth0|missing").blockOptional()).isEmpty();
+        assertThat(userService.getUserFilterAuth0Id("auth0|missing").blockOptional()).isEmpty();
+
+        // The second lookup is answered by the negative cache entry
+        verify(baseAuth0, times(1))
+                .execute(eq(HttpMethod.GET), anyString(), any(), eq(Auth0UserResponse.class), any(), any(String[].class));
+        assertThat(userCache.getRequestsAvoided()).isEqualTo(1);
+    }
+
+    @Test
+    void writesEvictCachedUser() {
+        Auth0UserResponse user = new Auth0UserResponse();
+        user.setUserId("auth0|1");
+        when(baseAuth0.execute(eq(HttpMethod.GET), anyString(), any(), eq(Auth0UserResponse.class), any(), any(String[].class)))
+                .thenReturn(Mono.just(user));
+        when(baseAuth0.execute(eq(HttpMethod.PATCH), anyString(), any(), eq(Auth0UserResponse.class), any(), any(String[].class)))
+                .thenReturn(Mono.just(user));
+
+        userService.getUserFilterAuth0Id("auth0|1").block();
+        userService.getUserFilterAuth0Id("auth0|1").block();
+        userService.blockUser("auth0|1", true).block();
+        userService.getUserFilterAuth0Id("auth0|1").block();
+
+        verify(baseAuth0, times(2))
+                .execute(eq(HttpMethod.GET), anyString(), any(), eq(Auth0UserResponse.class), any(), any(String[].class));
+    }
+
+    @Test
+    void blockingDeleteSucceedsOnEmptyResponse() {
+        // Auth0 answers DELETE with 204 and no body
+        when(baseAuth0.execute(eq(HttpMethod.DELETE), anyString(), any(), eq(Void.class), any(), any(String[].class)))
+                .thenReturn(Mono.empty());
+        Auth0UserService blockingUserService = new Auth0UserService(new BaseAuth0Impl(baseAuth0), config, userCache);
+
+        assertThat(blockingUserService.deleteUser("auth0|1")).isTrue();
+    }
+}
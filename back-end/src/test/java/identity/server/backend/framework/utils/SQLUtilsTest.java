@@ -0,0 +1,31 @@
+package identity.server.backend.framework.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SQLUtilsTest {
+
+    @Test
+    void escapesLikeMetacharacters() {
+        assertThat(SQLUtils.wildcards(" 50%_off ")).isEqualTo("50\\%\\_off");
+    }
+
+    @Test
+    void escapesEscapeCharacterFirst() {
+        assertThat(SQLUtils.wildcards("a\\%")).isEqualTo("a\\\\\\%");
+    }
+
+    @Test
+    void leavesOtherCharactersUntouched() {
+        assertThat(SQLUtils.wildcardsLike("o'neil-smith@example.com")).isEqualTo("%o'neil-smith@example.com%");
+        assertThat(SQLUtils.wildcardsLike(null)).isNull();
+    }
+
+    @Test
+    void buildsPrefixTsQueryFromWords() {
+        assertThat(SQLUtils.prefixTsQuery("John D.")).isEqualTo("john:* & d:*");
+        assertThat(SQLUtils.prefixTsQuery("o'neil & !x:*")).isEqualTo("o:* & neil:* & x:*");
+        assertThat(SQLUtils.prefixTsQuery(" -- ")).isNull();
+    }
+}
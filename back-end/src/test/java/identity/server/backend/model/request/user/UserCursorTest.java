@@ -0,0 +1,45 @@
+package identity.server.backend.model.request.user;
+
+import identity.server.backend.framework.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserCursorTest {
+
+    @Test
+    void roundTripsTypedSortValue() {
+        UUID id = UUID.randomUUID();
+        Instant createdDate = Instant.parse("2026-03-01T10:15:30.123456Z");
+        UserCursor cursor = new UserCursor(SortByUser.CREATED_DATE, Sort.Direction.DESC, createdDate.toString(), id);
+
+        UserCursor decoded = UserCursor.decode(cursor.encode());
+
+        assertThat(decoded.getSortBy()).isEqualTo(SortByUser.CREATED_DATE);
+        assertThat(decoded.getOrderBy()).isEqualTo(Sort.Direction.DESC);
+        assertThat(decoded.getSortValue()).isEqualTo(createdDate);
+        assertThat(decoded.getId()).isEqualTo(id);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        UserCursor cursor = new UserCursor(SortByUser.EMAIL, Sort.Direction.ASC, "a+b/c?@example.com", UUID.randomUUID());
+
+        assertThat(cursor.encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsTamperedCursor() {
+        assertThatThrownBy(() -> UserCursor.decode("not-a-cursor"))
+                .isInstanceOf(BadRequestException.class);
+
+        String incomplete = new UserCursor(SortByUser.STATUS, Sort.Direction.ASC, "true", null).encode();
+        assertThatThrownBy(() -> UserCursor.decode(incomplete))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
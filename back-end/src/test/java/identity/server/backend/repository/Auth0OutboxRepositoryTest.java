@@ -0,0 +1,101 @@
+package identity.server.backend.repository;
+
+import identity.server.backend.domain.Auth0OutboxEntry;
+import identity.server.backend.framework.enums.Auth0OutboxOperation;
+import identity.server.backend.framework.enums.Auth0OutboxStatus;
+import identity.server.backend.service.sync.UserSyncService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the Liquibase-migrated PostgreSQL schema: which entries {@link Auth0OutboxRepository#lockDeliverable}
+ * hands out while an earlier entry of the same user is undelivered.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = "jdbc:postgresql:.+")
+class Auth0OutboxRepositoryTest {
+
+    // Needed by the BackEndApplication command line runner, which calls Auth0
+    @MockitoBean
+    private UserSyncService userSyncService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Auth0OutboxRepository auth0OutboxRepository;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        // Only this test's entries are due
+        jdbcTemplate.update("UPDATE auth0_outbox SET next_attempt_at = 'infinity' WHERE status IN ('PENDING', 'SENDING')");
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void holdsBackEntriesBehindAnUndeliveredOne() {
+        insert(Auth0OutboxOperation.UPDATE_USER, Auth0OutboxStatus.PENDING, null);
+        insert(Auth0OutboxOperation.BLOCK_USER, Auth0OutboxStatus.PENDING, null);
+
+        assertThat(deliverable()).containsExactly(Auth0OutboxOperation.UPDATE_USER);
+    }
+
+    @Test
+    void blockPassesAnEntryRejectedWithAClientError() {
+        insert(Auth0OutboxOperation.UPDATE_USER, Auth0OutboxStatus.FAILED, 400);
+        insert(Auth0OutboxOperation.BLOCK_USER, Auth0OutboxStatus.PENDING, null);
+
+        assertThat(deliverable()).containsExactly(Auth0OutboxOperation.BLOCK_USER);
+    }
+
+    @Test
+    void updateStaysBehindAnEntryRejectedWithAClientError() {
+        insert(Auth0OutboxOperation.UPDATE_USER, Auth0OutboxStatus.FAILED, 400);
+        insert(Auth0OutboxOperation.UPDATE_USER, Auth0OutboxStatus.PENDING, null);
+
+        assertThat(deliverable()).isEmpty();
+    }
+
+    @Test
+    void blockStaysBehindAnEntryThatRanOutOfRetries() {
+        insert(Auth0OutboxOperation.UPDATE_USER, Auth0OutboxStatus.FAILED, 503);
+        insert(Auth0OutboxOperation.BLOCK_USER, Auth0OutboxStatus.PENDING, null);
+
+        assertThat(deliverable()).isEmpty();
+    }
+
+    @Test
+    void discardedEntriesHoldNothingBack() {
+        insert(Auth0OutboxOperation.UPDATE_USER, Auth0OutboxStatus.DISCARDED, 503);
+        insert(Auth0OutboxOperation.UPDATE_USER, Auth0OutboxStatus.PENDING, null);
+
+        assertThat(deliverable()).containsExactly(Auth0OutboxOperation.UPDATE_USER);
+    }
+
+    private Auth0OutboxOperation[] deliverable() {
+        return auth0OutboxRepository.lockDeliverable(Instant.now(), 50).stream()
+                .map(Auth0OutboxEntry::getOperation)
+                .toArray(Auth0OutboxOperation[]::new);
+    }
+
+    private void insert(Auth0OutboxOperation operation, Auth0OutboxStatus status, Integer lastStatus) {
+        jdbcTemplate.update("""
+                INSERT INTO auth0_outbox (id, user_id, auth0_user_id, operation, status, last_status, next_attempt_at, created_by)
+                VALUES (?, ?, 'auth0|outbox-test', ?, ?, ?, now() - interval '1 second', 'test')
+                """, UUID.randomUUID(), userId, operation.name(), status.name(), lastStatus);
+    }
+}
@@ -0,0 +1,120 @@
+package identity.server.backend.repository;
+
+import identity.server.backend.framework.utils.SQLUtils;
+import identity.server.backend.repository.projection.UserListItem;
+import identity.server.backend.service.sync.UserSyncService;
+import identity.server.backend.support.jdbc.StatementRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the Liquibase-migrated PostgreSQL schema. The page and count statements Hibernate generates for
+ * {@link UserRepository#searchUsers} and {@link RoleRepository#searchRoles} are recorded and EXPLAINed with their
+ * bind values. Sequential scans are disabled for the test transaction so the plan shows whether the search
+ * predicates can be served by the trigram indexes at all; on tiny tables the planner would otherwise always prefer
+ * a sequential scan.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(StatementRecorder.class)
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = "jdbc:postgresql:.+")
+class TrigramSearchIndexTest {
+
+    // Needed by the BackEndApplication command line runner, which calls Auth0
+    @MockitoBean
+    private UserSyncService userSyncService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @BeforeEach
+    void disableSequentialScans() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void userSearchQueriesUseTrigramIndexes() {
+        insertUser("trgm-probe-1", "trgm-probe-1@example.com");
+        insertUser("trgm-probe-2", "trgm-probe-2@example.com");
+        statementRecorder.clear();
+
+        // A page smaller than the matches, so the count query runs too
+        userRepository.searchUsers(SQLUtils.wildcardsLike("trgm-probe"), null, null, null, null, PageRequest.of(0, 1));
+
+        List<StatementRecorder.RecordedStatement> statements = statementRecorder.statementsContaining(" from users ");
+        assertThat(statements).hasSize(2);
+        assertThat(statements).allSatisfy(statement ->
+                assertThat(explain(statement)).contains("idx_users_email_trgm").contains("idx_users_username_trgm"));
+    }
+
+    @Test
+    void roleSearchQueryUsesTrigramIndexes() {
+        statementRecorder.clear();
+
+        // RoleServiceImpl's default page with no status filter: sorted by code, 20 rows
+        roleRepository.searchRoles(SQLUtils.wildcardsLike("adm"), null, null, null,
+                PageRequest.of(0, 20, Sort.by("code")));
+
+        assertThat(statementRecorder.statementsContaining(" from role ")).isNotEmpty().allSatisfy(statement ->
+                assertThat(explain(statement)).contains("idx_role_code_trgm").contains("idx_role_description_trgm"));
+    }
+
+    @Test
+    void escapedWildcardsMatchLiterally() {
+        insertUser("under_score", "under_score@example.com");
+        insertUser("underxscore", "underxscore@example.com");
+
+        List<UserListItem> users = userRepository.searchUsers(SQLUtils.wildcardsLike("under_score"),
+                null, null, null, null, PageRequest.of(0, 10)).getContent();
+
+        assertThat(users).extracting(UserListItem::username).containsExactly("under_score");
+    }
+
+    /**
+     * EXPLAIN a recorded statement with its bind values, on the test transaction's connection
+     */
+    private String explain(StatementRecorder.RecordedStatement statement) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            List<String> lines = new ArrayList<>();
+            try (PreparedStatement explain = statement.replay(connection, "EXPLAIN ");
+                 ResultSet resultSet = explain.executeQuery()) {
+                while (resultSet.next()) {
+                    lines.add(resultSet.getString(1));
+                }
+            }
+            return String.join("\n", lines);
+        });
+    }
+
+    private void insertUser(String username, String email) {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, created_by) VALUES (?, ?, ?, 'test')",
+                UUID.randomUUID(), username, email);
+    }
+}
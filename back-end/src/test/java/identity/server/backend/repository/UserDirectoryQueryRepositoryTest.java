@@ -0,0 +1,112 @@
+package identity.server.backend.repository;
+
+import identity.server.backend.framework.utils.SQLUtils;
+import identity.server.backend.model.response.Role.RoleBaseResponse;
+import identity.server.backend.model.response.user.UserResponse;
+import identity.server.backend.service.sync.UserSyncService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the Liquibase-migrated PostgreSQL schema, so the users.search_vector trigger, its backfill and
+ * the GIN index are the ones the application uses.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(UserDirectoryQueryRepository.class)
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = "jdbc:postgresql:.+")
+class UserDirectoryQueryRepositoryTest {
+
+    // Needed by the BackEndApplication command line runner, which calls Auth0
+    @MockitoBean
+    private UserSyncService userSyncService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserDirectoryQueryRepository userDirectoryQueryRepository;
+
+    private static final int CANDIDATE_LIMIT = 100;
+
+    @Test
+    void strongMatchIsRankedEvenBehindMoreWeakMatchesThanTheCandidateCap() {
+        // More weak matches (name, weight C) than the candidate cap, inserted before the only strong one
+        // (username, weight A)
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, name, created_by)
+                SELECT gen_random_uuid(), 'fts-weak-' || i, 'fts-weak-' || i || '@example.com', 'Ftsrankprobe ' || i, 'test'
+                FROM generate_series(1, 1500) AS i
+                """);
+        UUID strongest = insertUser("ftsrankprobe", "someone@example.com", null);
+
+        List<UserResponse> users = search("ftsrankprobe", null, null, 1);
+
+        assertThat(users).extracting(UserResponse::getId).containsExactly(strongest);
+    }
+
+    @Test
+    void appliesStatusAndRoleFiltersAndReturnsRoles() {
+        UUID active = insertUser("fts-filter-active", "fts-filter-active@example.com", null);
+        UUID deleted = insertUser("fts-filter-deleted", "fts-filter-deleted@example.com", null);
+        jdbcTemplate.update("UPDATE users SET is_delete = true WHERE id = ?", deleted);
+        UUID roleId = jdbcTemplate.queryForObject("SELECT id FROM role WHERE code = 'USER'", UUID.class);
+        jdbcTemplate.update("INSERT INTO user_role (user_id, role_id) VALUES (?, ?)", active, roleId);
+        jdbcTemplate.update("INSERT INTO user_role (user_id, role_id) VALUES (?, ?)", deleted, roleId);
+
+        assertThat(search("fts-filter", null, null, 10)).extracting(UserResponse::getId)
+                .containsExactlyInAnyOrder(active, deleted);
+        assertThat(search("fts-filter", false, Set.of(roleId), 10)).singleElement().satisfies(user -> {
+            assertThat(user.getId()).isEqualTo(active);
+            assertThat(user.getRoles()).extracting(RoleBaseResponse::getCode).containsExactly("USER");
+        });
+        assertThat(search("fts-filter", null, Set.of(UUID.randomUUID()), 10)).isEmpty();
+    }
+
+    @Test
+    void triggerKeepsTheSearchVectorInStep() {
+        UUID id = insertUser("fts.trigger_probe", "first.last+tag@example.com", "Ada Lovelace");
+
+        // Username and email local part also match on their parts
+        assertThat(search("probe", null, null, 10)).extracting(UserResponse::getId).contains(id);
+        assertThat(search("last", null, null, 10)).extracting(UserResponse::getId).contains(id);
+        assertThat(search("lovelace", null, null, 10)).extracting(UserResponse::getId).contains(id);
+
+        jdbcTemplate.update("UPDATE users SET name = 'Grace Hopper' WHERE id = ?", id);
+
+        assertThat(search("hopper", null, null, 10)).extracting(UserResponse::getId).contains(id);
+        assertThat(search("lovelace", null, null, 10)).extracting(UserResponse::getId).doesNotContain(id);
+    }
+
+    @Test
+    void backfillIndexedUsersCreatedBeforeTheTrigger() {
+        // The initial changeset inserts the admin user before changeset 00000000000008 adds the trigger
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE search_vector IS NULL", Long.class))
+                .isZero();
+        assertThat(search("admin", null, null, 10)).extracting(UserResponse::getUsername).contains("admin");
+    }
+
+    private List<UserResponse> search(String term, Boolean isDelete, Set<UUID> roleIds, int limit) {
+        return userDirectoryQueryRepository.searchUsersFullText(SQLUtils.prefixTsQuery(term), isDelete,
+                null, null, roleIds, limit, CANDIDATE_LIMIT);
+    }
+
+    private UUID insertUser(String username, String email, String name) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, username, email, name, created_by) VALUES (?, ?, ?, ?, 'test')",
+                id, username, email, name);
+        return id;
+    }
+}
@@ -0,0 +1,115 @@
+package identity.server.backend.repository;
+
+import identity.server.backend.service.sync.UserSyncService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Latency of {@link UserRepository#searchUsers} with a role filter, page query and count query together, as the
+ * user list runs it (first page of 20, sorted by email). Every call runs in its own transaction, like a request.
+ *
+ * Runs on the directory loaded by gradle generateDataset (DatasetGenerator), whose Zipf-distributed memberships give
+ * both very popular and long-tail roles. Opt-in: SPRING_DATASOURCE_URL pointing at that database, run with
+ * gradle performanceTest.
+ */
+@Tag("performance")
+// SQL and debug logging of the dev profile would dominate the timings
+@DataJpaTest(showSql = false, properties = {
+        "logging.level.identity.server.backend=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = "jdbc:postgresql:.+")
+class UserSearchQueryBenchmarkTest {
+
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 20;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "email"));
+
+    // Needed by the BackEndApplication command line runner, which calls Auth0
+    @MockitoBean
+    private UserSyncService userSyncService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long users;
+
+    @BeforeEach
+    void requireDataset() {
+        users = jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE created_by = 'dataset'", Long.class);
+        assumeTrue(users > 0, "No generated users; load them with gradle generateDataset");
+    }
+
+    @Test
+    void searchUsersByRole() {
+        // Generated roles by membership, most held first
+        List<UUID> roles = jdbcTemplate.queryForList("""
+                SELECT r.id FROM role r JOIN user_role ur ON ur.role_id = r.id
+                WHERE r.created_by = 'dataset' AND r.is_delete = false
+                GROUP BY r.id ORDER BY count(*) DESC, r.id
+                """, UUID.class);
+
+        System.out.printf("searchUsers with role filter on %d generated users, median of %d runs%n",
+                users, MEASURED_RUNS);
+        System.out.printf("  %-34s %10s %10s%n", "filter", "matches", "ms");
+        measure("2 most held roles", Set.of(roles.get(0), roles.get(1)));
+        if (roles.size() >= 10) {
+            measure("role ranked 10th", Set.of(roles.get(9)));
+        }
+        measure("least held role", Set.of(roles.get(roles.size() - 1)));
+        // Seeded role that the generator gives to rare users only
+        measure("ADMIN", Set.of(jdbcTemplate.queryForObject("SELECT id FROM role WHERE code = 'ADMIN'", UUID.class)));
+        measure("no role filter", null);
+    }
+
+    private void measure(String filter, Set<UUID> roleIds) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            search(roleIds);
+        }
+        long[] samples = new long[MEASURED_RUNS];
+        Page<?> page = null;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            page = search(roleIds);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        System.out.printf("  %-34s %10d %10.1f%n", filter, page.getTotalElements(),
+                samples[samples.length / 2] / 1_000_000.0);
+
+        assertThat(page.getContent()).isNotEmpty();
+    }
+
+    private Page<?> search(Set<UUID> roleIds) {
+        return userRepository.searchUsers(null, null, null, null, roleIds == null ? null : new HashSet<>(roleIds),
+                FIRST_PAGE);
+    }
+}
@@ -0,0 +1,177 @@
+package identity.server.backend.service.authority;
+
+import identity.server.backend.config.AuditingConfiguration;
+import identity.server.backend.domain.User;
+import identity.server.backend.model.request.user.UpdateRoleUserRequest;
+import identity.server.backend.repository.UserDirectoryQueryRepository;
+import identity.server.backend.repository.UserRepository;
+import identity.server.backend.service.outbox.IAuth0OutboxService;
+import identity.server.backend.service.user.IUserService;
+import identity.server.backend.service.user.UserServiceImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Two application contexts stand in for two back-end instances sharing one PostgreSQL database: a role change
+ * committed through {@link UserServiceImpl} on node A must evict the cached authorities on node B.
+ * Runs only when SPRING_DATASOURCE_URL points at a reachable database.
+ */
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = "jdbc:postgresql:.+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AuthorityInvalidationBusTest {
+
+    private static final String SUB = "auth0|bus-test";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+    private UserAuthorityCache cacheA;
+    private UserAuthorityCache cacheB;
+    private JdbcTemplate jdbcTemplate;
+    private UUID userId;
+
+    @BeforeAll
+    void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+        cacheA = nodeA.getBean(UserAuthorityCache.class);
+        cacheB = nodeB.getBean(UserAuthorityCache.class);
+        jdbcTemplate = nodeA.getBean(JdbcTemplate.class);
+    }
+
+    @AfterAll
+    void stopNodes() {
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Each listener evicts everything once its LISTEN is in place, so caches are filled only afterwards
+        await().atMost(TIMEOUT).until(() -> nodeA.getBean(AuthorityInvalidationBus.class).isListening()
+                && nodeB.getBean(AuthorityInvalidationBus.class).isListening());
+
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, auth0_user_id, created_by)
+                VALUES (?, 'bus-test', 'bus-test@example.com', ?, 'test')
+                """, userId, SUB);
+        jdbcTemplate.update("INSERT INTO user_role (user_id, role_id) SELECT ?, id FROM role WHERE code = 'USER'", userId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_role WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        cacheA.evictAll();
+        cacheB.evictAll();
+    }
+
+    @Test
+    void roleChangeOnOneNodeEvictsTheUserOnTheOtherNode() {
+        cacheA.get(SUB, key -> authorities("USER"));
+        cacheB.get(SUB, key -> authorities("USER"));
+        cacheB.get("auth0|other", key -> authorities("USER"));
+        UUID adminRoleId = jdbcTemplate.queryForObject("SELECT id FROM role WHERE code = 'ADMIN'", UUID.class);
+
+        nodeA.getBean(IUserService.class).updateRoleUser(userId, new UpdateRoleUserRequest(Set.of(adminRoleId)));
+
+        await().atMost(TIMEOUT).until(() -> !cached(cacheB, SUB));
+        assertThat(cached(cacheA, SUB)).isFalse();
+        assertThat(cached(cacheB, "auth0|other")).isTrue();
+    }
+
+    @Test
+    void roleChangeEvictsEveryUserOnTheOtherNode() {
+        cacheB.get(SUB, key -> authorities("USER"));
+        cacheB.get("auth0|other", key -> authorities("ADMIN"));
+
+        nodeA.getBean(AuthorityInvalidationBus.class).onAuthorityChanged(AuthorityChangedEvent.forAllUsers());
+
+        await().atMost(TIMEOUT).until(() -> !cached(cacheB, SUB) && !cached(cacheB, "auth0|other"));
+    }
+
+    @Test
+    void ownNotificationsAreIgnored() {
+        cacheA.get(SUB, key -> authorities("USER"));
+        cacheA.get("auth0|marker", key -> authorities("USER"));
+
+        nodeA.getBean(AuthorityInvalidationBus.class).onAuthorityChanged(AuthorityChangedEvent.forUser(SUB));
+        // Sent after node A's own notification, so once node A acts on it, it has handled its own one too
+        nodeB.getBean(AuthorityInvalidationBus.class).onAuthorityChanged(AuthorityChangedEvent.forUser("auth0|marker"));
+
+        await().atMost(TIMEOUT).until(() -> !cached(cacheA, "auth0|marker"));
+        assertThat(cached(cacheA, SUB)).isTrue();
+    }
+
+    private static boolean cached(UserAuthorityCache cache, String auth0UserId) {
+        return cache.getNativeCache().getIfPresent(auth0UserId) != null;
+    }
+
+    private static Set<GrantedAuthority> authorities(String code) {
+        return Set.of(new SimpleGrantedAuthority(code));
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(NodeConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.main.banner-mode=off",
+                        "spring.datasource.hikari.minimum-idle=1",
+                        "security.authority-cache.invalidation.poll-interval=50ms")
+                .run();
+    }
+
+    /**
+     * The persistence layer, UserServiceImpl and the authority cache with its invalidation, as one instance runs them
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class, HibernateJpaAutoConfiguration.class, LiquibaseAutoConfiguration.class,
+            TransactionAutoConfiguration.class})
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    @EntityScan(basePackageClasses = User.class)
+    @Import({AuditingConfiguration.class, UserDirectoryQueryRepository.class, UserServiceImpl.class,
+            UserAuthorityCache.class, AuthorityCacheEvictionListener.class, AuthorityInvalidationBus.class})
+    static class NodeConfiguration {
+
+        @Bean
+        IAuth0OutboxService auth0OutboxService() {
+            return mock(IAuth0OutboxService.class);
+        }
+    }
+}
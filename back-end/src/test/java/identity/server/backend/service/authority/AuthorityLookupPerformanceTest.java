@@ -0,0 +1,146 @@
+package identity.server.backend.service.authority;
+
+import identity.server.backend.config.CustomJwtAuthenticationConverter;
+import identity.server.backend.repository.UserRepository;
+import identity.server.backend.service.sync.UserSyncService;
+import identity.server.backend.support.jdbc.StatementRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Authority lookup of {@link CustomJwtAuthenticationConverter} against PostgreSQL, with the authority cache evicted
+ * before every token (each request queries users and roles) and with a warm cache. The user is committed, as it
+ * would be for a real request, and removed afterwards.
+ *
+ * Opt-in: SPRING_DATASOURCE_URL pointing at PostgreSQL, run with gradle performanceTest.
+ */
+@Tag("performance")
+// SQL and debug logging of the dev profile would dominate the timings
+@DataJpaTest(showSql = false, properties = {
+        "logging.level.identity.server.backend=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(StatementRecorder.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = "jdbc:postgresql:.+")
+class AuthorityLookupPerformanceTest {
+
+    private static final String SUB = "auth0|authority-lookup-perf";
+    private static final int WARMUP_RUNS = 500;
+    private static final int MEASURED_RUNS = 2000;
+
+    // Needed by the BackEndApplication command line runner, which calls Auth0
+    @MockitoBean
+    private UserSyncService userSyncService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    private UUID userId;
+    private int roles;
+
+    @BeforeEach
+    void seedUser() {
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, auth0_user_id, created_by)
+                VALUES (?, 'authority-lookup-perf', 'authority-lookup-perf@example.com', ?, 'test')
+                """, userId, SUB);
+        roles = jdbcTemplate.update("""
+                INSERT INTO user_role (user_id, role_id)
+                SELECT ?, id FROM role WHERE is_delete = false ORDER BY code LIMIT 5
+                """, userId);
+    }
+
+    @AfterEach
+    void removeUser() {
+        jdbcTemplate.update("DELETE FROM user_role WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void cachedLookupsSkipTheDatabase() {
+        UserAuthorityCache cache = new UserAuthorityCache(Duration.ofMinutes(5), 10_000);
+        CustomJwtAuthenticationConverter converter = new CustomJwtAuthenticationConverter(userRepository, cache);
+        Jwt jwt = jwt();
+
+        long[] uncached = measure(() -> {
+            cache.evictAll();
+            return converter.convert(jwt);
+        });
+        statementRecorder.clear();
+        long[] cached = measure(() -> converter.convert(jwt));
+
+        System.out.printf("""
+                Authority lookup per token, %d roles, %d runs (microseconds):
+                  mode          median     p99
+                  uncached    %8.1f %8.1f
+                  cached      %8.1f %8.1f
+                %n""", roles, MEASURED_RUNS,
+                percentile(uncached, 50), percentile(uncached, 99),
+                percentile(cached, 50), percentile(cached, 99));
+
+        assertThat(converter.convert(jwt).getAuthorities()).hasSize(roles);
+        assertThat(statementRecorder.statements()).isEmpty();
+        assertThat(percentile(cached, 50)).isLessThan(percentile(uncached, 50));
+    }
+
+    private long[] measure(Supplier<AbstractAuthenticationToken> conversion) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            conversion.get();
+        }
+        long[] samples = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            conversion.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static double percentile(long[] sortedNanos, int percentile) {
+        int index = Math.min(sortedNanos.length - 1, sortedNanos.length * percentile / 100);
+        return sortedNanos[index] / 1_000.0;
+    }
+
+    private static Jwt jwt() {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject(SUB)
+                .audience(List.of("https://api.example.com"))
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build();
+    }
+}
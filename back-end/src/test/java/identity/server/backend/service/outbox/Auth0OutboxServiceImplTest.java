@@ -0,0 +1,235 @@
+package identity.server.backend.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import identity.server.backend.domain.Auth0OutboxEntry;
+import identity.server.backend.framework.exception.BadRequestException;
+import identity.server.backend.framework.enums.Auth0OutboxOperation;
+import identity.server.backend.framework.enums.Auth0OutboxStatus;
+import identity.server.backend.framework.thirdparty.auth0.service.user.IReactiveAuth0UserService;
+import identity.server.backend.repository.Auth0OutboxRepository;
+import identity.server.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class Auth0OutboxServiceImplTest {
+
+    private Auth0OutboxRepository auth0OutboxRepository;
+    private IReactiveAuth0UserService auth0UserService;
+    private PlatformTransactionManager transactionManager;
+    private Auth0OutboxServiceImpl outboxService;
+    private List<Auth0OutboxEntry> stored;
+
+    @BeforeEach
+    void setUp() {
+        auth0OutboxRepository = mock(Auth0OutboxRepository.class);
+        auth0UserService = mock(IReactiveAuth0UserService.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        outboxService = new Auth0OutboxServiceImpl(auth0OutboxRepository, mock(UserRepository.class),
+                auth0UserService, new ObjectMapper(), new TransactionTemplate(transactionManager));
+        stored = List.of();
+        when(auth0OutboxRepository.findAllById(anyIterable())).thenAnswer(invocation -> stored);
+        ReflectionTestUtils.setField(outboxService, "batchSize", 50);
+        ReflectionTestUtils.setField(outboxService, "concurrency", 4);
+        ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxService, "initialBackoff", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(outboxService, "maxBackoff", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(outboxService, "claimTimeout", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void marksDeliveredEntryAsSentAndDropsPayload() {
+        Auth0OutboxEntry entry = entry(Auth0OutboxOperation.UPDATE_USER, "{\"name\":\"Jane\",\"password\":\"secret\"}");
+        deliverable(entry);
+        when(auth0UserService.updateUser(any(), any())).thenReturn(Mono.empty());
+
+        outboxService.dispatchPending();
+
+        assertThat(entry.getStatus()).isEqualTo(Auth0OutboxStatus.SENT);
+        assertThat(entry.getPayload()).isNull();
+        assertThat(entry.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void retriesServerErrorsWithBackoffUntilMaxAttempts() {
+        Auth0OutboxEntry entry = entry(Auth0OutboxOperation.BLOCK_USER, null);
+        deliverable(entry);
+        when(auth0UserService.blockUser(entry.getAuth0UserId(), true))
+                .thenReturn(Mono.error(WebClientResponseException.create(503, "Unavailable", null, null, null)));
+
+        Instant before = Instant.now();
+        outboxService.dispatchPending();
+
+        assertThat(entry.getStatus()).isEqualTo(Auth0OutboxStatus.PENDING);
+        assertThat(entry.getNextAttemptAt()).isAfterOrEqualTo(before.plusMillis(500));
+
+        outboxService.dispatchPending();
+        outboxService.dispatchPending();
+
+        assertThat(entry.getStatus()).isEqualTo(Auth0OutboxStatus.FAILED);
+        assertThat(entry.getAttempts()).isEqualTo(3);
+        assertThat(entry.getLastError()).startsWith("503 Unavailable");
+    }
+
+    @Test
+    void failsClientErrorsWithoutRetry() {
+        Auth0OutboxEntry entry = entry(Auth0OutboxOperation.UNBLOCK_USER, null);
+        deliverable(entry);
+        when(auth0UserService.blockUser(entry.getAuth0UserId(), false))
+                .thenReturn(Mono.error(WebClientResponseException.create(400, "Bad Request", null, null, null)));
+
+        outboxService.dispatchPending();
+
+        assertThat(entry.getStatus()).isEqualTo(Auth0OutboxStatus.FAILED);
+        assertThat(entry.getAttempts()).isEqualTo(1);
+        assertThat(entry.getLastStatus()).isEqualTo(400);
+    }
+
+    @Test
+    void dropsPasswordOfFailedEntry() {
+        Auth0OutboxEntry entry = entry(Auth0OutboxOperation.UPDATE_USER, "{\"name\":\"Jane\",\"password\":\"secret\"}");
+        deliverable(entry);
+        when(auth0UserService.updateUser(any(), any()))
+                .thenReturn(Mono.error(WebClientResponseException.create(400, "Bad Request", null, null, null)));
+
+        outboxService.dispatchPending();
+
+        assertThat(entry.getStatus()).isEqualTo(Auth0OutboxStatus.FAILED);
+        assertThat(entry.getPayload()).isEqualTo("{\"name\":\"Jane\"}");
+    }
+
+    @Test
+    void keepsPasswordOfEntryAwaitingRetry() {
+        Auth0OutboxEntry entry = entry(Auth0OutboxOperation.UPDATE_USER, "{\"name\":\"Jane\",\"password\":\"secret\"}");
+        deliverable(entry);
+        when(auth0UserService.updateUser(any(), any()))
+                .thenReturn(Mono.error(WebClientResponseException.create(503, "Unavailable", null, null, null)));
+
+        outboxService.dispatchPending();
+
+        assertThat(entry.getStatus()).isEqualTo(Auth0OutboxStatus.PENDING);
+        assertThat(entry.getPayload()).contains("secret");
+    }
+
+    @Test
+    void treatsConflictOnCreateAsDelivered() {
+        Auth0OutboxEntry entry = entry(Auth0OutboxOperation.CREATE_USER, "{\"user_id\":\"abc\",\"email\":\"a@example.com\"}");
+        deliverable(entry);
+        when(auth0UserService.createUser(any()))
+                .thenReturn(Mono.error(WebClientResponseException.create(409, "Conflict", null, null, null)));
+
+        outboxService.dispatchPending();
+
+        assertThat(entry.getStatus()).isEqualTo(Auth0OutboxStatus.SENT);
+    }
+
+    @Test
+    void callsAuth0OutsideTheClaimAndRecordTransactions() {
+        Auth0OutboxEntry entry = entry(Auth0OutboxOperation.BLOCK_USER, null);
+        deliverable(entry);
+        when(auth0UserService.blockUser(entry.getAuth0UserId(), true)).thenReturn(Mono.empty());
+
+        outboxService.dispatchPending();
+
+        InOrder inOrder = inOrder(transactionManager, auth0UserService);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(auth0UserService).blockUser(entry.getAuth0UserId(), true);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(transactionManager).commit(any());
+        assertThat(entry.getStatus()).isEqualTo(Auth0OutboxStatus.SENT);
+    }
+
+    @Test
+    void claimsEntriesAsSendingUntilTheClaimTimeout() {
+        Auth0OutboxEntry entry = entry(Auth0OutboxOperation.BLOCK_USER, null);
+        deliverable(entry);
+        Instant before = Instant.now();
+        when(auth0UserService.blockUser(entry.getAuth0UserId(), true)).thenAnswer(invocation -> {
+            assertThat(entry.getStatus()).isEqualTo(Auth0OutboxStatus.SENDING);
+            assertThat(entry.getNextAttemptAt()).isAfterOrEqualTo(before.plus(Duration.ofMinutes(5)));
+            return Mono.empty();
+        });
+
+        outboxService.dispatchPending();
+
+        assertThat(entry.getStatus()).isEqualTo(Auth0OutboxStatus.SENT);
+    }
+
+    @Test
+    void skipsOutcomeOfEntryClaimedByAnotherDispatcher() {
+        Auth0OutboxEntry entry = entry(Auth0OutboxOperation.BLOCK_USER, null);
+        when(auth0OutboxRepository.lockDeliverable(any(), anyInt())).thenReturn(List.of(entry));
+        when(auth0UserService.blockUser(entry.getAuth0UserId(), true)).thenReturn(Mono.empty());
+        // The claim expired during the call and another dispatcher already delivered the entry
+        Auth0OutboxEntry current = entry(Auth0OutboxOperation.BLOCK_USER, null);
+        current.setId(entry.getId());
+        current.setStatus(Auth0OutboxStatus.SENT);
+        current.setAttempts(1);
+        stored = List.of(current);
+
+        outboxService.dispatchPending();
+
+        assertThat(current.getAttempts()).isEqualTo(1);
+        assertThat(current.getSentAt()).isNull();
+    }
+
+    @Test
+    void discardsFailedEntryAndDropsPayload() {
+        Auth0OutboxEntry entry = entry(Auth0OutboxOperation.UPDATE_USER, "{\"name\":\"Jane\"}");
+        entry.setStatus(Auth0OutboxStatus.FAILED);
+        when(auth0OutboxRepository.findById(entry.getId())).thenReturn(Optional.of(entry));
+        when(auth0OutboxRepository.save(entry)).thenReturn(entry);
+
+        outboxService.discard(entry.getId());
+
+        assertThat(entry.getStatus()).isEqualTo(Auth0OutboxStatus.DISCARDED);
+        assertThat(entry.getPayload()).isNull();
+    }
+
+    @Test
+    void refusesToDiscardEntryThatHasNotFailed() {
+        Auth0OutboxEntry entry = entry(Auth0OutboxOperation.UPDATE_USER, "{\"name\":\"Jane\"}");
+        when(auth0OutboxRepository.findById(entry.getId())).thenReturn(Optional.of(entry));
+
+        assertThatThrownBy(() -> outboxService.discard(entry.getId())).isInstanceOf(BadRequestException.class);
+        assertThat(entry.getStatus()).isEqualTo(Auth0OutboxStatus.PENDING);
+    }
+
+    private void deliverable(Auth0OutboxEntry entry) {
+        when(auth0OutboxRepository.lockDeliverable(any(), anyInt())).thenReturn(List.of(entry));
+        stored = List.of(entry);
+    }
+
+    private static Auth0OutboxEntry entry(Auth0OutboxOperation operation, String payload) {
+        return Auth0OutboxEntry.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .auth0UserId("auth0|" + UUID.randomUUID())
+                .operation(operation)
+                .payload(payload)
+                .status(Auth0OutboxStatus.PENDING)
+                .nextAttemptAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package identity.server.backend.service.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import identity.server.backend.model.request.user.UserExportFormat;
+import identity.server.backend.model.request.user.UserFilter;
+import identity.server.backend.model.response.Role.RoleBaseResponse;
+import identity.server.backend.repository.UserDirectoryQueryRepository;
+import identity.server.backend.repository.UserRepository;
+import identity.server.backend.repository.projection.UserListItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserExportServiceImplTest {
+
+    private static final Instant CREATED = Instant.parse("2026-01-01T00:00:00Z");
+
+    private UserRepository userRepository;
+    private UserDirectoryQueryRepository userDirectoryQueryRepository;
+    private UserExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userDirectoryQueryRepository = mock(UserDirectoryQueryRepository.class);
+        exportService = new UserExportServiceImpl(userRepository, userDirectoryQueryRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+        when(userDirectoryQueryRepository.findRolesByUserIds(anyCollection())).thenReturn(Map.of());
+    }
+
+    @Test
+    void loadsRolesOncePerChunk() throws Exception {
+        when(userRepository.streamUsers(any(), any(), any(), any(), any()))
+                .thenReturn(IntStream.range(0, 2500).mapToObj(i -> user("user" + i, null)));
+
+        String csv = export(UserExportFormat.CSV);
+
+        assertThat(csv.lines()).hasSize(2501);
+        verify(userDirectoryQueryRepository, times(3)).findRolesByUserIds(anyCollection());
+    }
+
+    @Test
+    void quotesCsvFieldsAndNeutralisesFormulas() throws Exception {
+        UserListItem user = user("=cmd", "Doe, \"JD\"");
+        when(userRepository.streamUsers(any(), any(), any(), any(), any())).thenReturn(Stream.of(user));
+        when(userDirectoryQueryRepository.findRolesByUserIds(anyCollection())).thenReturn(Map.of(user.id(), Set.of(
+                RoleBaseResponse.builder().id(UUID.randomUUID()).code("USER").build(),
+                RoleBaseResponse.builder().id(UUID.randomUUID()).code("ADMIN").build())));
+
+        String row = export(UserExportFormat.CSV).lines().skip(1).findFirst().orElseThrow();
+
+        assertThat(row).startsWith(user.id() + ",'=cmd,'=cmd@example.com,,\"Doe, \"\"JD\"\"\",true,false,");
+        assertThat(row).contains(",ADMIN|USER,");
+    }
+
+    @Test
+    void writesOneJsonObjectPerLine() throws Exception {
+        when(userRepository.streamUsers(any(), any(), any(), any(), any()))
+                .thenReturn(Stream.of(user("alice", null), user("bob", null)));
+
+        String ndjson = export(UserExportFormat.NDJSON);
+
+        assertThat(ndjson.lines()).hasSize(2)
+                .allSatisfy(line -> assertThat(line).startsWith("{").endsWith("}"));
+        assertThat(ndjson).contains("\"username\":\"alice\"").contains("\"username\":\"bob\"");
+    }
+
+    private String export(UserExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportUsers(new UserFilter(), format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static UserListItem user(String username, String name) {
+        return new UserListItem(UUID.randomUUID(), username, username + "@example.com", null, name,
+                true, null, "system", CREATED, null, CREATED, false);
+    }
+}
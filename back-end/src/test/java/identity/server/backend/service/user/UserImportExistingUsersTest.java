@@ -0,0 +1,99 @@
+package identity.server.backend.service.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import identity.server.backend.config.AuditingConfiguration;
+import identity.server.backend.framework.thirdparty.auth0.service.user.IAuth0UserService;
+import identity.server.backend.model.request.user.UserImportFormat;
+import identity.server.backend.model.response.user.UserImportJobResponse;
+import identity.server.backend.repository.RoleRepository;
+import identity.server.backend.repository.UserImportBatchRepository;
+import identity.server.backend.repository.UserImportJobRepository;
+import identity.server.backend.service.sync.UserSyncService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The duplicate check of the import runs against the real users table, where existing rows may hold mixed-case
+ * emails and usernames. Runs only when SPRING_DATASOURCE_URL points at a PostgreSQL database.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AuditingConfiguration.class)
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = "jdbc:postgresql:.+")
+class UserImportExistingUsersTest {
+
+    // Needed by the BackEndApplication command line runner, which calls Auth0
+    @MockitoBean
+    private UserSyncService userSyncService;
+
+    @Autowired
+    private UserImportJobRepository userImportJobRepository;
+
+    @Autowired
+    private UserImportBatchRepository userImportBatchRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UserImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new UserImportServiceImpl(userImportJobRepository, userImportBatchRepository, roleRepository,
+                mock(IAuth0UserService.class), jdbcTemplate, transactionTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper());
+        ReflectionTestUtils.setField(importService, "chunkSize", 2000);
+        ReflectionTestUtils.setField(importService, "maxPayloadBytes", 450_000);
+
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, created_by)
+                VALUES (:id, 'John_Mixed', 'John.Mixed@Example.com', 'test')
+                """, Map.of("id", UUID.randomUUID()));
+    }
+
+    @Test
+    void skipsRowsMatchingAnExistingUserInAnotherCase() {
+        String csv = """
+                login;email
+                john_mixed;other.john@example.com
+                someone_else;john.mixed@example.com
+                fresh_user;fresh.user@example.com
+                """;
+
+        UserImportJobResponse response = importService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "users.csv", UserImportFormat.CSV);
+
+        assertThat(response.getDuplicateRows()).isEqualTo(2);
+        assertThat(response.getInsertedRows()).isEqualTo(1);
+        List<String> imported = jdbcTemplate.queryForList(
+                "SELECT username FROM users WHERE lower(email) IN (:emails)",
+                Map.of("emails", List.of("other.john@example.com", "john.mixed@example.com", "fresh.user@example.com")),
+                String.class);
+        assertThat(imported).containsExactlyInAnyOrder("John_Mixed", "fresh_user");
+    }
+}
@@ -0,0 +1,224 @@
+package identity.server.backend.service.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import identity.server.backend.domain.Role;
+import identity.server.backend.domain.UserImportBatch;
+import identity.server.backend.domain.UserImportJob;
+import identity.server.backend.framework.enums.UserImportBatchStatus;
+import identity.server.backend.framework.enums.UserImportStatus;
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0JobResponse;
+import identity.server.backend.framework.thirdparty.auth0.service.user.IAuth0UserService;
+import identity.server.backend.model.request.user.UserImportFormat;
+import identity.server.backend.model.response.user.UserImportJobResponse;
+import identity.server.backend.repository.RoleRepository;
+import identity.server.backend.repository.UserImportBatchRepository;
+import identity.server.backend.repository.UserImportJobRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserImportServiceImplTest {
+
+    private static final String BCRYPT = "$2a$10$gSAhZrxMllrbgj/kkK9UceBPpChGWJA7SYIb1Mqo.n5aNLq1/oRrC";
+
+    private final List<UserImportBatch> savedBatches = new ArrayList<>();
+
+    private UserImportJob savedJob;
+    private UserImportJobRepository jobRepository;
+    private UserImportBatchRepository batchRepository;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+    private IAuth0UserService auth0UserService;
+    private UserImportServiceImpl importService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jobRepository = mock(UserImportJobRepository.class);
+        batchRepository = mock(UserImportBatchRepository.class);
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        auth0UserService = mock(IAuth0UserService.class);
+        RoleRepository roleRepository = mock(RoleRepository.class);
+
+        UUID jobId = UUID.randomUUID();
+        when(jobRepository.save(any())).thenAnswer(invocation -> {
+            UserImportJob job = invocation.getArgument(0);
+            job.setId(jobId);
+            savedJob = job;
+            return job;
+        });
+        when(jobRepository.findById(jobId)).thenAnswer(invocation -> Optional.ofNullable(savedJob));
+        when(batchRepository.findByJobIdOrderByBatchNumber(jobId)).thenReturn(savedBatches);
+        when(batchRepository.saveAll(any())).thenAnswer(invocation -> {
+            ((Iterable<UserImportBatch>) invocation.getArgument(0)).forEach(savedBatches::add);
+            return invocation.getArgument(0);
+        });
+        when(roleRepository.findByCodeIgnoreCase("USER"))
+                .thenReturn(Optional.of(Role.builder().id(UUID.randomUUID()).code("USER").build()));
+
+        importService = new UserImportServiceImpl(jobRepository, batchRepository, roleRepository,
+                auth0UserService, jdbcTemplate, new TransactionTemplate(transactionManager),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper());
+        ReflectionTestUtils.setField(importService, "chunkSize", 2000);
+        ReflectionTestUtils.setField(importService, "maxPayloadBytes", 450_000);
+        ReflectionTestUtils.setField(importService, "auth0Connection", "Username-Password-Authentication");
+        ReflectionTestUtils.setField(importService, "maxConcurrentJobs", 1);
+        ReflectionTestUtils.setField(importService, "maxSubmitAttempts", 10);
+        ReflectionTestUtils.setField(importService, "claimTimeout", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void rejectsInvalidRowsAndDuplicatesWithinTheFile() {
+        insertedRowsReport(1);
+        String csv = """
+                id;login;password_hash;first_name;last_name;email;image_url;activated
+                1;alice;%s;Alice;Doe;Alice@Example.com;;true
+                2;bob;;Bob;;not-an-email;;true
+                3;alice2;;;;alice@example.com;;true
+                """.formatted(BCRYPT);
+
+        UserImportJobResponse response = run(csv);
+
+        assertThat(response.getInsertedRows()).isEqualTo(1);
+        UserImportJob job = savedJob;
+        assertThat(job.getTotalRows()).isEqualTo(3);
+        assertThat(job.getInvalidRows()).isEqualTo(1);
+        assertThat(job.getDuplicateRows()).isEqualTo(1);
+        assertThat(job.getInsertedRows()).isEqualTo(1);
+        assertThat(job.getStatus()).isEqualTo(UserImportStatus.PROCESSING);
+        assertThat(job.getValidationErrors()).startsWith("Row 2: Email must be a valid email address");
+
+        assertThat(savedBatches).singleElement().satisfies(batch -> {
+            assertThat(batch.getUserCount()).isEqualTo(1);
+            assertThat(batch.getPayload())
+                    .contains("\"email\":\"alice@example.com\"")
+                    .contains("\"name\":\"Alice Doe\"")
+                    .contains("\"algorithm\":\"bcrypt\"");
+        });
+    }
+
+    @Test
+    void splitsAuth0UsersFilesAtThePayloadLimit() {
+        ReflectionTestUtils.setField(importService, "maxPayloadBytes", 1000);
+        insertedRowsReport(50);
+        StringBuilder csv = new StringBuilder("login;email\n");
+        for (int i = 0; i < 50; i++) {
+            csv.append("user").append(i).append(";user").append(i).append("@example.com\n");
+        }
+
+        run(csv.toString());
+
+        assertThat(savedBatches).hasSizeGreaterThan(1);
+        assertThat(savedBatches).allSatisfy(batch ->
+                assertThat(batch.getPayload().getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(1000));
+        assertThat(savedBatches.stream().mapToInt(UserImportBatch::getUserCount).sum()).isEqualTo(50);
+        verify(jdbcTemplate, times(1)).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void readsTheHeaderOfAFileWithAByteOrderMark() {
+        insertedRowsReport(1);
+
+        run("\uFEFFlogin;email\nalice;alice@example.com\n");
+
+        assertThat(savedJob.getInvalidRows()).isZero();
+        assertThat(savedJob.getInsertedRows()).isEqualTo(1);
+    }
+
+    @Test
+    void claimsBatchesBeforeCallingAuth0AndRecordsTheJobAfterwards() {
+        UserImportBatch batch = queuedBatch();
+        when(auth0UserService.getConnectionId("Username-Password-Authentication")).thenReturn("con_1");
+        when(auth0UserService.importUsers(eq("con_1"), any(), eq(batch.getId().toString())))
+                .thenReturn(new Auth0JobResponse("job_1", "pending", "users_import", "con_1", null, 0, null, null));
+
+        importService.submitQueuedBatches();
+
+        // Claim committed, then the Auth0 call with no transaction open, then the outcome in a new transaction
+        InOrder inOrder = inOrder(transactionManager, auth0UserService);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(auth0UserService).importUsers(any(), any(), any());
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(transactionManager).commit(any());
+
+        assertThat(batch.getStatus()).isEqualTo(UserImportBatchStatus.SUBMITTED);
+        assertThat(batch.getAuth0JobId()).isEqualTo("job_1");
+        assertThat(batch.getSubmittedAt()).isNotNull();
+        assertThat(batch.getPayload()).isNull();
+    }
+
+    @Test
+    void requeuesTheClaimWhenAuth0RejectsTheSubmission() {
+        UserImportBatch batch = queuedBatch();
+        when(auth0UserService.getConnectionId(any())).thenThrow(new IllegalStateException("Auth0 unavailable"));
+
+        importService.submitQueuedBatches();
+
+        assertThat(batch.getStatus()).isEqualTo(UserImportBatchStatus.QUEUED);
+        assertThat(batch.getAttempts()).isEqualTo(1);
+        assertThat(batch.getSubmittedAt()).isNull();
+        assertThat(batch.getErrorMessage()).isEqualTo("Auth0 unavailable");
+        assertThat(batch.getPayload()).isNotNull();
+    }
+
+    /**
+     * A queued batch that the claim query returns and findById reloads as the same instance
+     */
+    private UserImportBatch queuedBatch() {
+        UserImportBatch batch = UserImportBatch.builder()
+                .id(UUID.randomUUID())
+                .jobId(UUID.randomUUID())
+                .batchNumber(1)
+                .userCount(1)
+                .payload("[{\"email\":\"alice@example.com\"}]")
+                .status(UserImportBatchStatus.QUEUED)
+                .build();
+        when(batchRepository.lockBySubmittedAtBefore(eq(UserImportBatchStatus.SUBMITTING), any(), any())).thenReturn(List.of());
+        when(batchRepository.lockByStatus(eq(UserImportBatchStatus.QUEUED), any())).thenReturn(List.of(batch));
+        when(batchRepository.findById(batch.getId())).thenReturn(Optional.of(batch));
+        return batch;
+    }
+
+    private void insertedRowsReport(int rows) {
+        int[] counts = new int[rows];
+        Arrays.fill(counts, 1);
+        when(jdbcTemplate.batchUpdate(eq(insertUserSql()), any(SqlParameterSource[].class))).thenReturn(counts);
+    }
+
+    private static String insertUserSql() {
+        return (String) ReflectionTestUtils.getField(UserImportServiceImpl.class, "INSERT_USER_SQL");
+    }
+
+    private UserImportJobResponse run(String content) {
+        return importService.importUsers(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                "users.csv", UserImportFormat.CSV);
+    }
+}
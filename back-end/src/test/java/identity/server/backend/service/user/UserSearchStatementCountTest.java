@@ -0,0 +1,111 @@
+package identity.server.backend.service.user;
+
+import identity.server.backend.model.request.user.SortByUser;
+import identity.server.backend.model.request.user.UserFilter;
+import identity.server.backend.model.response.user.UserResponse;
+import identity.server.backend.repository.RoleRepository;
+import identity.server.backend.repository.UserDirectoryQueryRepository;
+import identity.server.backend.repository.UserRepository;
+import identity.server.backend.service.outbox.IAuth0OutboxService;
+import identity.server.backend.service.sync.UserSyncService;
+import identity.server.backend.support.jdbc.StatementRecorder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A listing page must cost a fixed number of statements (page, count, roles) regardless of page size,
+ * and must not put any entity into the persistence context.
+ * Runs only when SPRING_DATASOURCE_URL points at a PostgreSQL database.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserDirectoryQueryRepository.class, StatementRecorder.class})
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = "jdbc:postgresql:.+")
+class UserSearchStatementCountTest {
+
+    private static final int PAGE_SIZE = 50;
+
+    // Needed by the BackEndApplication command line runner, which calls Auth0
+    @MockitoBean
+    private UserSyncService userSyncService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserDirectoryQueryRepository userDirectoryQueryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    private UserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserServiceImpl(userRepository, roleRepository, mock(IAuth0OutboxService.class),
+                mock(ApplicationEventPublisher.class), userDirectoryQueryRepository);
+
+        for (int i = 0; i < PAGE_SIZE * 2; i++) {
+            UUID userId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO users (id, username, email, created_by) VALUES (?, ?, ?, 'test')",
+                    userId, "stmt-count-" + i, "stmt-count-" + i + "@example.com");
+            jdbcTemplate.update("INSERT INTO user_role (user_id, role_id) SELECT ?, id FROM role", userId);
+        }
+    }
+
+    @Test
+    void listingPageUsesThreeStatementsAndNoEntities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statementRecorder.clear();
+
+        Page<UserResponse> page = userService.searchUsers(UserFilter.builder()
+                .searchTerm("stmt-count-")
+                .page(0)
+                .size(PAGE_SIZE)
+                .sortByUser(SortByUser.USERNAME)
+                .orderBy(Sort.Direction.ASC)
+                .build());
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getTotalElements()).isEqualTo(PAGE_SIZE * 2);
+        assertThat(page.getContent()).allSatisfy(user -> assertThat(user.getRoles()).isNotEmpty());
+        List<String> statements = statementRecorder.statements().stream()
+                .map(StatementRecorder.RecordedStatement::sql)
+                .toList();
+        assertThat(statements).hasSize(3);
+        assertThat(statements.get(0)).contains(" from users ").contains("fetch first");
+        assertThat(statements.get(1)).contains("select count(");
+        assertThat(statements.get(2)).contains("array_agg(");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+}
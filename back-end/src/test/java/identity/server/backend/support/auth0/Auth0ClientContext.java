@@ -0,0 +1,57 @@
+package identity.server.backend.support.auth0;
+
+import identity.server.backend.config.Auth0RateLimitConfiguration;
+import identity.server.backend.config.Auth0ResilienceConfiguration;
+import identity.server.backend.config.WebClientConfig;
+import identity.server.backend.framework.thirdparty.auth0.model.Auth0M2MConfig;
+import identity.server.backend.framework.thirdparty.auth0.service.base.Auth0AccessTokenCache;
+import identity.server.backend.framework.thirdparty.auth0.service.base.Auth0RequestMetrics;
+import identity.server.backend.framework.thirdparty.auth0.service.base.Auth0SingleFlight;
+import identity.server.backend.framework.thirdparty.auth0.service.base.BaseAuth0Impl;
+import identity.server.backend.framework.thirdparty.auth0.service.base.ReactiveBaseAuth0Impl;
+import identity.server.backend.framework.thirdparty.auth0.service.user.Auth0UserCache;
+import identity.server.backend.framework.thirdparty.auth0.service.user.Auth0UserService;
+import identity.server.backend.framework.thirdparty.auth0.service.user.ReactiveAuth0UserService;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * The Auth0 client stack as the application wires it (connection pool, resilience, rate limiter, single flight,
+ * caches and user services), without the database or web layers, pointed at an {@link Auth0StubServer}
+ */
+public final class Auth0ClientContext {
+
+    /**
+     * Configurations and components of the Auth0 client stack; a WebClient.Builder bean must be provided
+     */
+    public static final Class<?>[] COMPONENTS = {
+            WebClientConfig.class,
+            Auth0ResilienceConfiguration.class,
+            Auth0RateLimitConfiguration.class,
+            Auth0M2MConfig.class,
+            Auth0AccessTokenCache.class,
+            Auth0SingleFlight.class,
+            Auth0RequestMetrics.class,
+            ReactiveBaseAuth0Impl.class,
+            BaseAuth0Impl.class,
+            Auth0UserCache.class,
+            Auth0UserService.class,
+            ReactiveAuth0UserService.class
+    };
+
+    private Auth0ClientContext() {
+    }
+
+    public static ApplicationContextRunner runner(Auth0StubServer stub) {
+        return new ApplicationContextRunner()
+                // Binds "30s" style durations in @Value like the application does
+                .withInitializer(context -> context.getBeanFactory()
+                        .setConversionService(ApplicationConversionService.getSharedInstance()))
+                .withBean(WebClient.Builder.class, WebClient::builder)
+                .withUserConfiguration(COMPONENTS)
+                .withPropertyValues(stub.properties().entrySet().stream()
+                        .map(property -> property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+    }
+}
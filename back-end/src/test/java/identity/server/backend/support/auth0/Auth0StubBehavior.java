@@ -0,0 +1,42 @@
+package identity.server.backend.support.auth0;
+
+import java.time.Duration;
+
+/**
+ * Faults injected by {@link Auth0StubServer}
+ * @param latency Delay before every response
+ * @param errorRate Share of requests answered with 500
+ * @param rateLimitRate Share of requests answered with 429 regardless of load
+ * @param tenantRateLimit Requests per second the tenant accepts before answering 429 (0 = unlimited)
+ * @param retryAfter Retry-After sent with injected 429s
+ */
+public record Auth0StubBehavior(LatencyDistribution latency,
+                                double errorRate,
+                                double rateLimitRate,
+                                int tenantRateLimit,
+                                Duration retryAfter) {
+
+    public static Auth0StubBehavior healthy() {
+        return new Auth0StubBehavior(LatencyDistribution.none(), 0, 0, 0, Duration.ofSeconds(1));
+    }
+
+    public Auth0StubBehavior withLatency(LatencyDistribution latency) {
+        return new Auth0StubBehavior(latency, errorRate, rateLimitRate, tenantRateLimit, retryAfter);
+    }
+
+    public Auth0StubBehavior withErrorRate(double errorRate) {
+        return new Auth0StubBehavior(latency, errorRate, rateLimitRate, tenantRateLimit, retryAfter);
+    }
+
+    public Auth0StubBehavior withRateLimitRate(double rateLimitRate) {
+        return new Auth0StubBehavior(latency, errorRate, rateLimitRate, tenantRateLimit, retryAfter);
+    }
+
+    public Auth0StubBehavior withTenantRateLimit(int requestsPerSecond) {
+        return new Auth0StubBehavior(latency, errorRate, rateLimitRate, requestsPerSecond, retryAfter);
+    }
+
+    public Auth0StubBehavior withRetryAfter(Duration retryAfter) {
+        return new Auth0StubBehavior(latency, errorRate, rateLimitRate, tenantRateLimit, retryAfter);
+    }
+}
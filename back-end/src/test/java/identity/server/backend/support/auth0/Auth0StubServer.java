@@ -0,0 +1,490 @@
+package identity.server.backend.support.auth0;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for the Auth0 token endpoint and the users part of the Management API.
+ *
+ * Implements what Auth0UserService and BaseAuth0Impl call: POST /oauth/token, and create, get, patch, delete and
+ * search (q=email:"...") under /api/v2/users, plus the connection lookup. Users live in memory. Latency applies to
+ * every request; 500s and 429s are injected into Management API calls per {@link Auth0StubBehavior}. With a tenant
+ * rate limit every response carries the X-RateLimit-* headers Auth0 sends. Point the application at it with {@link #registerProperties}.
+ *
+ * The stub is also the token issuer of the resource server: it serves OIDC discovery and the JWK set, and
+ * {@link #issueAccessToken} signs access tokens the application accepts.
+ */
+public final class Auth0StubServer implements AutoCloseable {
+
+    public static final String CLIENT_ID = "stub-client";
+    public static final String CLIENT_SECRET = "stub-secret";
+    public static final String AUDIENCE = "https://auth0-stub/api/v2/";
+    /**
+     * Audience of the access tokens of the application's own API
+     */
+    public static final String API_AUDIENCE = "https://auth0-stub/api";
+
+    private static final String USERS_PATH = "/api/v2/users";
+    private static final Pattern EMAIL_QUERY = Pattern.compile("email:\"([^\"]*)\"");
+    private static final String TOKEN_PREFIX = "stub-token-";
+    private static final String OPENID_CONFIGURATION_PATH = "/.well-known/openid-configuration";
+    private static final String JWKS_PATH = "/.well-known/jwks.json";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, ObjectNode> users = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+    private final AtomicLong tokensIssued = new AtomicLong();
+    private final AtomicLong windowSecond = new AtomicLong();
+    private final AtomicInteger windowCount = new AtomicInteger();
+
+    private volatile Auth0StubBehavior behavior;
+    private final DisposableServer server;
+
+    private Auth0StubServer(Auth0StubBehavior behavior) {
+        this.behavior = behavior;
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .handle(this::handle)
+                .bindNow();
+    }
+
+    public static Auth0StubServer start() {
+        return start(Auth0StubBehavior.healthy());
+    }
+
+    public static Auth0StubServer start(Auth0StubBehavior behavior) {
+        return new Auth0StubServer(behavior);
+    }
+
+    /**
+     * Domain in the form the application expects for auth0.m2m.domain (with trailing slash)
+     */
+    public String domain() {
+        return "http://localhost:" + server.port() + "/";
+    }
+
+    public void registerProperties(DynamicPropertyRegistry registry) {
+        properties().forEach((name, value) -> registry.add(name, () -> value));
+    }
+
+    /**
+     * The same properties as {@link #registerProperties}, e.g. for ApplicationContextRunner#withPropertyValues
+     */
+    public Map<String, String> properties() {
+        return Map.of(
+                "auth0.m2m.domain", domain(),
+                "auth0.m2m.clientid", CLIENT_ID,
+                "auth0.m2m.client.secret", CLIENT_SECRET,
+                "auth0.m2m.audience", AUDIENCE,
+                "okta.oauth2.issuer", domain(),
+                "okta.oauth2.audience", API_AUDIENCE);
+    }
+
+    /**
+     * Public keys verifying the tokens of {@link #issueAccessToken}, e.g. to write a local JWKS file
+     */
+    public JWKSet jwkSet() {
+        return new JWKSet(SigningKey.KEY.toPublicJWK());
+    }
+
+    /**
+     * Access token of the application's API for {@code subject}, valid for {@code ttl}
+     */
+    public String issueAccessToken(String subject, Duration ttl) {
+        return issueAccessToken(domain(), subject, ttl);
+    }
+
+    /**
+     * Access token of the application's API from another {@code issuer}, e.g. when the application is configured
+     * with an https issuer and the stub's JWK set URI
+     */
+    public String issueAccessToken(String issuer, String subject, Duration ttl) {
+        Instant now = Instant.now();
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(SigningKey.KEY.getKeyID()).type(JOSEObjectType.JWT).build(),
+                new JWTClaimsSet.Builder()
+                        .issuer(issuer)
+                        .audience(API_AUDIENCE)
+                        .subject(subject)
+                        .issueTime(Date.from(now))
+                        .expirationTime(Date.from(now.plus(ttl)))
+                        .build());
+        try {
+            jwt.sign(SigningKey.SIGNER);
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+        return jwt.serialize();
+    }
+
+    public void setBehavior(Auth0StubBehavior behavior) {
+        this.behavior = behavior;
+    }
+
+    /**
+     * Requests received per endpoint, e.g. "GET /api/v2/users/{id}" (faulted requests included)
+     */
+    public long requestCount(String endpoint) {
+        LongAdder count = requestCounts.get(endpoint);
+        return count == null ? 0 : count.sum();
+    }
+
+    public long totalRequests() {
+        return requestCounts.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long tokensIssued() {
+        return tokensIssued.get();
+    }
+
+    /**
+     * Store a user directly, e.g. to seed the users a load test looks up
+     */
+    public ObjectNode addUser(String userId, String email) {
+        ObjectNode user = newUser(userId, email, "Username-Password-Authentication");
+        users.put(userId, user);
+        return user;
+    }
+
+    public Map<String, ObjectNode> users() {
+        return users;
+    }
+
+    public void reset() {
+        users.clear();
+        requestCounts.clear();
+        tokensIssued.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Mono<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        Auth0StubBehavior current = behavior;
+        QueryStringDecoder uri = new QueryStringDecoder(request.uri());
+        String path = uri.path();
+        String endpoint = request.method().name() + " " + endpointTemplate(path);
+        requestCounts.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+
+        Duration delay = current.latency().next(ThreadLocalRandom.current());
+        return request.receive().aggregate().asString(StandardCharsets.UTF_8)
+                .defaultIfEmpty("")
+                .delayElement(delay)
+                .flatMap(body -> {
+                    // Faults hit the Management API only; the token endpoint stays healthy
+                    Optional<Reply> fault = path.startsWith("/api/v2/") ? fault(current) : Optional.empty();
+                    Reply reply = fault.orElseGet(() -> route(request.method(), path, uri.parameters(),
+                            request.requestHeaders().get("Authorization"), body));
+                    return send(response, reply, current);
+                });
+    }
+
+    private Optional<Reply> fault(Auth0StubBehavior current) {
+        if (current.tenantRateLimit() > 0 && !takeTenantPermit(current.tenantRateLimit())) {
+            return Optional.of(rateLimited(current));
+        }
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < current.rateLimitRate()) {
+            return Optional.of(rateLimited(current));
+        }
+        if (roll < current.rateLimitRate() + current.errorRate()) {
+            return Optional.of(error(HttpResponseStatus.INTERNAL_SERVER_ERROR, "Internal Server Error",
+                    "Injected failure"));
+        }
+        return Optional.empty();
+    }
+
+    private Reply route(HttpMethod method, String path, Map<String, List<String>> query, String authorization,
+                        String body) {
+        if (path.equals("/oauth/token") && method.equals(HttpMethod.POST)) {
+            return token(body);
+        }
+        if (path.equals(OPENID_CONFIGURATION_PATH) && method.equals(HttpMethod.GET)) {
+            return new Reply(HttpResponseStatus.OK, objectMapper.createObjectNode()
+                    .put("issuer", domain())
+                    .put("jwks_uri", domain() + JWKS_PATH.substring(1)));
+        }
+        if (path.equals(JWKS_PATH) && method.equals(HttpMethod.GET)) {
+            return new Reply(HttpResponseStatus.OK, objectMapper.valueToTree(jwkSet().toJSONObject()));
+        }
+        if (authorization == null || !authorization.startsWith("Bearer " + TOKEN_PREFIX)) {
+            return error(HttpResponseStatus.UNAUTHORIZED, "Unauthorized", "Missing or invalid bearer token");
+        }
+        if (path.equals("/api/v2/connections") && method.equals(HttpMethod.GET)) {
+            ArrayNode connections = objectMapper.createArrayNode();
+            connections.addObject()
+                    .put("id", "con_stub")
+                    .put("name", query.getOrDefault("name", List.of("Username-Password-Authentication")).get(0))
+                    .put("strategy", "auth0");
+            return new Reply(HttpResponseStatus.OK, connections);
+        }
+        if (path.equals(USERS_PATH)) {
+            if (method.equals(HttpMethod.POST)) {
+                return createUser(body);
+            }
+            if (method.equals(HttpMethod.GET)) {
+                return searchUsers(query);
+            }
+        }
+        if (path.startsWith(USERS_PATH + "/")) {
+            String userId = URLDecoder.decode(path.substring(USERS_PATH.length() + 1), StandardCharsets.UTF_8);
+            if (method.equals(HttpMethod.GET)) {
+                ObjectNode user = users.get(userId);
+                return user != null ? new Reply(HttpResponseStatus.OK, user) : userNotFound();
+            }
+            if (method.equals(HttpMethod.PATCH)) {
+                return updateUser(userId, body);
+            }
+            if (method.equals(HttpMethod.DELETE)) {
+                users.remove(userId);
+                return new Reply(HttpResponseStatus.NO_CONTENT, null);
+            }
+        }
+        return error(HttpResponseStatus.NOT_FOUND, "Not Found", "Not implemented by the Auth0 stub: " + method + " " + path);
+    }
+
+    private Reply token(String body) {
+        JsonNode request = readJson(body);
+        if (request == null
+                || !CLIENT_ID.equals(request.path("client_id").asText())
+                || !CLIENT_SECRET.equals(request.path("client_secret").asText())) {
+            return new Reply(HttpResponseStatus.UNAUTHORIZED, objectMapper.createObjectNode()
+                    .put("error", "access_denied")
+                    .put("error_description", "Unauthorized"));
+        }
+        return new Reply(HttpResponseStatus.OK, objectMapper.createObjectNode()
+                .put("access_token", TOKEN_PREFIX + tokensIssued.incrementAndGet())
+                .put("token_type", "Bearer")
+                .put("expires_in", 86400)
+                .put("scope", "read:users update:users delete:users create:users"));
+    }
+
+    private Reply createUser(String body) {
+        JsonNode request = readJson(body);
+        if (request == null || !request.hasNonNull("email")) {
+            return error(HttpResponseStatus.BAD_REQUEST, "Bad Request", "Payload validation error: 'Missing required property: email'.");
+        }
+        String email = request.get("email").asText();
+        if (findByEmail(email) != null) {
+            return error(HttpResponseStatus.CONFLICT, "Conflict", "The user already exists.");
+        }
+
+        String userId = request.hasNonNull("user_id")
+                ? "auth0|" + stripProvider(request.get("user_id").asText())
+                : "auth0|" + UUID.randomUUID();
+        ObjectNode user = newUser(userId, email, request.path("connection").asText("Username-Password-Authentication"));
+        user.put("email_verified", request.path("email_verified").asBoolean(false));
+        copyProfile(request, user);
+
+        if (users.putIfAbsent(userId, user) != null) {
+            return error(HttpResponseStatus.CONFLICT, "Conflict", "The user already exists.");
+        }
+        return new Reply(HttpResponseStatus.CREATED, user);
+    }
+
+    private ObjectNode newUser(String userId, String email, String connection) {
+        String now = Instant.now().toString();
+        ObjectNode user = objectMapper.createObjectNode();
+        user.put("user_id", userId)
+                .put("email", email)
+                .put("email_verified", false)
+                .put("blocked", false)
+                .put("created_at", now)
+                .put("updated_at", now)
+                .put("logins_count", 0);
+        user.putArray("identities").addObject()
+                .put("connection", connection)
+                .put("user_id", stripProvider(userId))
+                .put("provider", "auth0")
+                .put("isSocial", false);
+        return user;
+    }
+
+    private Reply updateUser(String userId, String body) {
+        JsonNode request = readJson(body);
+        if (request == null) {
+            return error(HttpResponseStatus.BAD_REQUEST, "Bad Request", "Invalid JSON");
+        }
+        ObjectNode user = users.computeIfPresent(userId, (id, existing) -> {
+            ObjectNode updated = existing.deepCopy();
+            copyProfile(request, updated);
+            if (request.has("blocked")) {
+                updated.put("blocked", request.get("blocked").asBoolean());
+            }
+            updated.put("updated_at", Instant.now().toString());
+            return updated;
+        });
+        return user != null ? new Reply(HttpResponseStatus.OK, user) : userNotFound();
+    }
+
+    private Reply searchUsers(Map<String, List<String>> query) {
+        ArrayNode result = objectMapper.createArrayNode();
+        String q = query.getOrDefault("q", List.of("")).get(0);
+        Matcher matcher = EMAIL_QUERY.matcher(q);
+        if (matcher.find()) {
+            ObjectNode user = findByEmail(matcher.group(1));
+            if (user != null) {
+                result.add(user);
+            }
+        } else {
+            users.values().stream().limit(50).forEach(result::add);
+        }
+        return new Reply(HttpResponseStatus.OK, result);
+    }
+
+    private void copyProfile(JsonNode request, ObjectNode user) {
+        for (String field : List.of("email", "email_verified", "username", "phone_number", "name", "nickname",
+                "given_name", "family_name", "picture", "user_metadata", "app_metadata")) {
+            if (request.has(field)) {
+                user.set(field, request.get(field));
+            }
+        }
+    }
+
+    private ObjectNode findByEmail(String email) {
+        String normalized = email.toLowerCase(Locale.ROOT);
+        return users.values().stream()
+                .filter(user -> user.path("email").asText().toLowerCase(Locale.ROOT).equals(normalized))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private boolean takeTenantPermit(int limit) {
+        long second = System.currentTimeMillis() / 1000;
+        long previous = windowSecond.get();
+        if (previous != second && windowSecond.compareAndSet(previous, second)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() <= limit;
+    }
+
+    private Reply rateLimited(Auth0StubBehavior current) {
+        Reply reply = error(HttpResponseStatus.TOO_MANY_REQUESTS, "Too Many Requests", "Global limit has been reached");
+        reply.retryAfterSeconds = Math.max(1, current.retryAfter().toSeconds());
+        return reply;
+    }
+
+    private Reply userNotFound() {
+        Reply reply = error(HttpResponseStatus.NOT_FOUND, "Not Found", "The user does not exist.");
+        ((ObjectNode) reply.body).put("errorCode", "inexistent_user");
+        return reply;
+    }
+
+    private Reply error(HttpResponseStatus status, String error, String message) {
+        return new Reply(status, objectMapper.createObjectNode()
+                .put("statusCode", status.code())
+                .put("error", error)
+                .put("message", message));
+    }
+
+    private Mono<Void> send(HttpServerResponse response, Reply reply, Auth0StubBehavior current) {
+        response.status(reply.status);
+        if (current.tenantRateLimit() > 0) {
+            int remaining = Math.max(0, current.tenantRateLimit() - windowCount.get());
+            response.header("X-RateLimit-Limit", String.valueOf(current.tenantRateLimit()))
+                    .header("X-RateLimit-Remaining", String.valueOf(remaining))
+                    .header("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + 1));
+        }
+        if (reply.retryAfterSeconds > 0) {
+            response.header("Retry-After", String.valueOf(reply.retryAfterSeconds));
+        }
+        if (reply.body == null) {
+            return response.send();
+        }
+        try {
+            return response.header("Content-Type", "application/json")
+                    .sendString(Mono.just(objectMapper.writeValueAsString(reply.body)))
+                    .then();
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+
+    private JsonNode readJson(String body) {
+        try {
+            return body.isBlank() ? null : objectMapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static String endpointTemplate(String path) {
+        return path.startsWith(USERS_PATH + "/") ? USERS_PATH + "/{id}" : path;
+    }
+
+    private static String stripProvider(String userId) {
+        int separator = userId.indexOf('|');
+        return separator >= 0 ? userId.substring(separator + 1) : userId;
+    }
+
+    /**
+     * Generated once per JVM; RSA key generation is slow enough to show in test timings
+     */
+    private static final class SigningKey {
+        private static final RSAKey KEY;
+        private static final RSASSASigner SIGNER;
+
+        static {
+            try {
+                KEY = new RSAKeyGenerator(2048).keyID("auth0-stub").generate();
+                SIGNER = new RSASSASigner(KEY);
+            } catch (JOSEException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static final class Reply {
+        private final HttpResponseStatus status;
+        private final JsonNode body;
+        private long retryAfterSeconds;
+
+        private Reply(HttpResponseStatus status, JsonNode body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package identity.server.backend.support.auth0;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Response delay of the Auth0 stub, drawn per request
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    Duration next(RandomGenerator random);
+
+    static LatencyDistribution none() {
+        return random -> Duration.ZERO;
+    }
+
+    static LatencyDistribution fixed(Duration latency) {
+        return random -> latency;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long maxNanos = max.toNanos();
+        return random -> Duration.ofNanos(minNanos == maxNanos ? minNanos : random.nextLong(minNanos, maxNanos));
+    }
+
+    /**
+     * Long-tailed latency as seen from a remote API: log-normal with the given median and 99th percentile
+     */
+    static LatencyDistribution logNormal(Duration median, Duration p99) {
+        double mu = Math.log(median.toNanos());
+        // z-score of the 99th percentile of the standard normal distribution
+        double sigma = (Math.log(p99.toNanos()) - mu) / 2.326;
+        return random -> Duration.ofNanos((long) Math.exp(mu + sigma * random.nextGaussian()));
+    }
+}
@@ -0,0 +1,122 @@
+package identity.server.backend.support.jdbc;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL and bind values of every statement prepared through the application's DataSource, so a test can
+ * EXPLAIN exactly what Hibernate sent. Register it with {@code @Import(StatementRecorder.class)}; it wraps the
+ * DataSource bean and can be autowired.
+ */
+public class StatementRecorder implements BeanPostProcessor {
+
+    private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof DataSource dataSource ? recordingDataSource(dataSource) : bean;
+    }
+
+    public void clear() {
+        statements.clear();
+    }
+
+    /**
+     * All recorded statements, in the order they were prepared
+     */
+    public List<RecordedStatement> statements() {
+        return List.copyOf(statements);
+    }
+
+    /**
+     * Recorded statements whose SQL contains {@code fragment}, in the order they were prepared
+     */
+    public List<RecordedStatement> statementsContaining(String fragment) {
+        return statements.stream().filter(statement -> statement.sql().contains(fragment)).toList();
+    }
+
+    /**
+     * A prepared statement and the setter calls that bound its parameters
+     */
+    public record RecordedStatement(String sql, List<Binding> bindings) {
+
+        /**
+         * Prepare {@code prefix + sql} (e.g. "EXPLAIN ") on {@code connection} with the same parameters
+         */
+        public PreparedStatement replay(Connection connection, String prefix) throws SQLException {
+            PreparedStatement statement = connection.prepareStatement(prefix + sql);
+            for (Binding binding : bindings) {
+                invoke(statement, binding.setter(), binding.arguments());
+            }
+            return statement;
+        }
+    }
+
+    public record Binding(Method setter, Object[] arguments) {
+    }
+
+    private DataSource recordingDataSource(DataSource target) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invokeTarget(target, method, args);
+                    return result instanceof Connection connection ? recordingConnection(connection) : result;
+                });
+    }
+
+    private Connection recordingConnection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invokeTarget(target, method, args);
+                    if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+                        RecordedStatement recorded = new RecordedStatement((String) args[0], new ArrayList<>());
+                        statements.add(recorded);
+                        return recordingStatement(statement, recorded);
+                    }
+                    return result;
+                });
+    }
+
+    private static PreparedStatement recordingStatement(PreparedStatement target, RecordedStatement recorded) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    // setString(int, String), setObject(int, Object, int), setNull(int, int), ...
+                    if (method.getName().startsWith("set") && args != null && args.length >= 2
+                            && method.getParameterTypes()[0] == int.class) {
+                        recorded.bindings().add(new Binding(method, args.clone()));
+                    }
+                    return invokeTarget(target, method, args);
+                });
+    }
+
+    private static void invoke(Object target, Method method, Object[] args) throws SQLException {
+        try {
+            method.invoke(target, args);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}